@@ -0,0 +1,62 @@
+package org.example.Model;
+
+/**
+ * A* search: Dijkstra with the heap ordered by {@code distance + heuristic(node, target)}.
+ * With a consistent {@link Heuristic} every node is settled at most once and the result is
+ * exactly the Dijkstra optimum, while far fewer nodes away from the target are settled.
+ */
+public class AStarEngine implements RoutingEngine {
+    private final CompactGraph graph;
+    private final Heuristic heuristic;
+    private final ThreadLocal<SearchState> states;
+
+    public AStarEngine(CompactGraph graph, Heuristic heuristic) {
+        this(graph, heuristic, new SearchPools(graph.getNodeCount()));
+    }
+
+    public AStarEngine(CompactGraph graph, Heuristic heuristic, SearchPools pools) {
+        this.graph = graph;
+        this.heuristic = heuristic;
+        this.states = pools.get(AStarEngine.class, () -> new SearchState(pools.getNodeCount()));
+    }
+
+    @Override
+    public Route findRoute(int source, int target, EdgeFilter filter, SettleListener listener) {
+        SearchState state = states.get();
+        state.reset();
+        IndexedMinHeap heap = state.getHeap();
+
+        state.update(source, 0.0, -1, -1, heuristic.estimate(source, target));
+        int settledCount = 0;
+
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            state.settle(current);
+            settledCount++;
+            if (listener != null) {
+                listener.onSettled(current, state.getDistance(current), state.getPredecessor(current));
+            }
+
+            if (current == target) {
+                break;
+            }
+
+            double currentDist = state.getDistance(current);
+            for (int e = graph.edgesStart(current); e < graph.edgesEnd(current); e++) {
+                int neighbor = graph.getTarget(e);
+                if (state.isSettled(neighbor) || (filter != null && !filter.accepts(e))) {
+                    continue;
+                }
+                double newDist = currentDist + graph.getTime(e);
+                if (newDist < state.getDistance(neighbor)) {
+                    state.update(neighbor, newDist, current, e, newDist + heuristic.estimate(neighbor, target));
+                }
+            }
+        }
+
+        if (!state.isSettled(target)) {
+            return Route.notFound(settledCount);
+        }
+        return state.extractRoute(source, target, settledCount);
+    }
+}
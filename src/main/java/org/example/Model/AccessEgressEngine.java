@@ -0,0 +1,110 @@
+package org.example.Model;
+
+/**
+ * Routes between two arbitrary positions: several candidate stations on each side are joined
+ * to the network by virtual walking links and one A* search runs from all access stations at
+ * once, each starting with its walking time, until no egress station can improve on the best
+ * arrival at the destination. The virtual links only exist in this search's own state, so the
+ * shared graph is never touched.
+ * <p>
+ * The potential is the great-circle time from a node to the destination position at the
+ * network's fastest pace; walking is slower than that, so it stays a consistent lower bound
+ * on the remaining time including the final walk.
+ */
+public class AccessEgressEngine {
+    private final CompactGraph graph;
+    private final GreatCircleHeuristic heuristic;
+    private final ThreadLocal<SearchState> states;
+
+    public AccessEgressEngine(CompactGraph graph, GreatCircleHeuristic heuristic) {
+        this(graph, heuristic, new SearchPools(graph.getNodeCount()));
+    }
+
+    public AccessEgressEngine(CompactGraph graph, GreatCircleHeuristic heuristic, SearchPools pools) {
+        this.graph = graph;
+        this.heuristic = heuristic;
+        this.states = pools.get(AccessEgressEngine.class, () -> new SearchState(pools.getNodeCount()));
+    }
+
+    /**
+     * @param accessNodes         stations the origin can walk to
+     * @param accessTimes         walking time to each of them, in minutes
+     * @param egressNodes         stations the destination can be walked to from
+     * @param egressTimes         walking time from each of them, in minutes
+     * @param directTime          walking time from origin to destination, infinite if not allowed
+     * @param destinationLatitude position the potentials are computed towards
+     * @param filter              edges the network part may use, null for all
+     */
+    public AccessEgressRoute findRoute(int[] accessNodes, double[] accessTimes, int[] egressNodes,
+                                       double[] egressTimes, double directTime, double destinationLatitude,
+                                       double destinationLongitude, EdgeFilter filter) {
+        SearchState state = states.get();
+        state.reset();
+        IndexedMinHeap heap = state.getHeap();
+        for (int i = 0; i < accessNodes.length; i++) {
+            int node = accessNodes[i];
+            if (accessTimes[i] < state.getDistance(node)) {
+                state.update(node, accessTimes[i], -1, -1,
+                        accessTimes[i] + heuristic.estimate(node, destinationLatitude, destinationLongitude));
+            }
+        }
+
+        double best = directTime;
+        int bestEgress = -1;
+        int settledCount = 0;
+        while (!heap.isEmpty() && heap.peekKey() < best) {
+            int current = heap.poll();
+            state.settle(current);
+            settledCount++;
+            double currentDist = state.getDistance(current);
+            for (int i = 0; i < egressNodes.length; i++) {
+                if (egressNodes[i] == current && currentDist + egressTimes[i] < best) {
+                    best = currentDist + egressTimes[i];
+                    bestEgress = i;
+                }
+            }
+
+            for (int e = graph.edgesStart(current); e < graph.edgesEnd(current); e++) {
+                int neighbor = graph.getTarget(e);
+                if (state.isSettled(neighbor) || (filter != null && !filter.accepts(e))) {
+                    continue;
+                }
+                double newDist = currentDist + graph.getTime(e);
+                if (newDist < state.getDistance(neighbor)) {
+                    state.update(neighbor, newDist, current, e,
+                            newDist + heuristic.estimate(neighbor, destinationLatitude, destinationLongitude));
+                }
+            }
+        }
+
+        if (bestEgress < 0) {
+            return Double.isInfinite(best)
+                    ? AccessEgressRoute.notFound(settledCount)
+                    : AccessEgressRoute.directWalk(best, settledCount);
+        }
+        return extract(state, egressNodes[bestEgress], egressTimes[bestEgress], best, settledCount);
+    }
+
+    // Follows the predecessors back to the access station the search started from
+    private static AccessEgressRoute extract(SearchState state, int egress, double egressTime, double totalTime,
+                                             int settledCount) {
+        int length = 1;
+        int access = egress;
+        while (state.getPredecessor(access) >= 0) {
+            access = state.getPredecessor(access);
+            length++;
+        }
+        int[] nodes = new int[length];
+        int[] edges = new int[length - 1];
+        int crawl = egress;
+        for (int i = length - 1; i > 0; i--) {
+            nodes[i] = crawl;
+            edges[i - 1] = state.getPredecessorEdge(crawl);
+            crawl = state.getPredecessor(crawl);
+        }
+        nodes[0] = access;
+        double accessTime = state.getDistance(access);
+        Route route = new Route(nodes, edges, state.getDistance(egress) - accessTime, settledCount);
+        return new AccessEgressRoute(route, accessTime, egressTime, totalTime);
+    }
+}
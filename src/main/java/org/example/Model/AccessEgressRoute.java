@@ -0,0 +1,52 @@
+package org.example.Model;
+
+/**
+ * Result of an {@link AccessEgressEngine} query: a walk from the origin position to the first
+ * station, a route through the network and a walk from the last station to the destination,
+ * or a direct walk when that is faster.
+ */
+public final class AccessEgressRoute {
+    private final Route route; // station to station; not found for a direct walk
+    private final double accessTime; // minutes
+    private final double egressTime; // minutes
+    private final double totalTime; // minutes
+
+    public AccessEgressRoute(Route route, double accessTime, double egressTime, double totalTime) {
+        this.route = route;
+        this.accessTime = accessTime;
+        this.egressTime = egressTime;
+        this.totalTime = totalTime;
+    }
+
+    public static AccessEgressRoute notFound(int settledNodes) {
+        return new AccessEgressRoute(Route.notFound(settledNodes), 0.0, 0.0, Double.POSITIVE_INFINITY);
+    }
+
+    public static AccessEgressRoute directWalk(double walkingTime, int settledNodes) {
+        return new AccessEgressRoute(Route.notFound(settledNodes), 0.0, 0.0, walkingTime);
+    }
+
+    public boolean isFound() {
+        return !Double.isInfinite(totalTime);
+    }
+
+    public boolean isDirectWalk() {
+        return isFound() && !route.isFound();
+    }
+
+    public Route getRoute() {
+        return route;
+    }
+
+    public double getAccessTime() {
+        return accessTime;
+    }
+
+    public double getEgressTime() {
+        return egressTime;
+    }
+
+    public double getTotalTime() {
+        return totalTime;
+    }
+}
@@ -0,0 +1,295 @@
+package org.example.Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Up to k distinct routes between two nodes: Yen's loopless k-shortest paths, of which only
+ * those are kept that share at most {@code maxOverlap} of their time with every route kept
+ * before them and take at most {@code maxStretch} times as long as the fastest one.
+ * <p>
+ * The fastest route comes from whichever {@link RoutingEngine} the caller picks. A backward
+ * Dijkstra from the target then computes the exact remaining time of every node that can still
+ * lie on a route within the stretch limit (nodes whose heuristic bound from the source already
+ * rules them out are not expanded). Every spur search of Yen's algorithm is an A* search using these
+ * remaining times as potentials: they are exact until a blocked node or edge forces a detour,
+ * so a spur search mostly walks straight down the tree, and nodes the backward search did not
+ * expand are pruned. Blocking is done with epoch stamps on pooled per-thread arrays; the graph
+ * itself is never copied or modified, so the engine is safe to share between threads.
+ */
+public class AlternativeRoutesEngine {
+    // Yen paths examined per requested route before giving up on finding more distinct ones
+    private static final int MAX_PATHS_PER_ROUTE = 20;
+
+    private final CompactGraph graph;
+    private final Heuristic heuristic;
+    private final double maxOverlap;
+    private final double maxStretch;
+    private final ThreadLocal<Workspace> workspaces;
+
+    /**
+     * @param maxOverlap largest share (0..1) of a route's time that may run over node pairs of
+     *                   a route already returned
+     * @param maxStretch slowest route returned, as a multiple of the fastest
+     */
+    public AlternativeRoutesEngine(CompactGraph graph, Heuristic heuristic, double maxOverlap, double maxStretch) {
+        this(graph, heuristic, maxOverlap, maxStretch, new SearchPools(graph.getNodeCount()));
+    }
+
+    public AlternativeRoutesEngine(CompactGraph graph, Heuristic heuristic, double maxOverlap, double maxStretch,
+                                   SearchPools pools) {
+        this.graph = graph;
+        this.heuristic = heuristic;
+        this.maxOverlap = maxOverlap;
+        this.maxStretch = Math.max(1.0, maxStretch);
+        this.workspaces = pools.get(AlternativeRoutesEngine.class, () -> new Workspace(pools.getNodeCount()));
+    }
+
+    /**
+     * @param engine finds the fastest route, the first one returned
+     * @param filter  edges the routes may use, null for all
+     * @return at most {@code k} routes, fastest first; empty if the target is unreachable
+     */
+    public List<Route> findRoutes(RoutingEngine engine, EdgeFilter filter, int source, int target, int k) {
+        List<Route> routes = new ArrayList<>();
+        Route fastest = engine.findRoute(source, target, filter, null);
+        if (k <= 0 || !fastest.isFound()) {
+            return routes;
+        }
+        routes.add(fastest);
+        if (k == 1 || source == target) {
+            return routes;
+        }
+
+        Workspace ws = workspaces.get();
+        // Slack for the float edge times, so routes exactly at the limit are not lost
+        double limit = fastest.getTotalTime() * maxStretch + 1e-6;
+        int settled = fastest.getSettledNodes() + computeRemaining(ws, filter, source, target, limit);
+
+        List<Set<Long>> keptPairs = new ArrayList<>();
+        keptPairs.add(nodePairs(fastest.getNodes()));
+        Path last = new Path(fastest.getNodes(), fastest.getEdges(), fastest.getTotalTime(), 0);
+        List<Path> paths = new ArrayList<>();
+        paths.add(last);
+        PriorityQueue<Path> candidates = new PriorityQueue<>((a, b) -> Double.compare(a.time, b.time));
+        Set<Path> seen = new HashSet<>();
+        seen.add(last);
+
+        while (routes.size() < k && paths.size() < MAX_PATHS_PER_ROUTE * k) {
+            // Deviations before the one that produced the last path were already tried by its parent
+            double rootTime = 0.0;
+            for (int i = 0; i < last.nodes.length - 1; i++) {
+                if (i >= last.deviation) {
+                    Path spur = spur(ws, filter, paths, last, i, rootTime, target, limit);
+                    settled += ws.lastSettled;
+                    if (spur != null && seen.add(spur)) {
+                        candidates.add(spur);
+                    }
+                }
+                rootTime += graph.getTime(last.edges[i]);
+            }
+
+            last = candidates.poll();
+            if (last == null) {
+                break;
+            }
+            paths.add(last);
+            if (isDistinct(last, keptPairs)) {
+                routes.add(new Route(last.nodes, last.edges, last.time, settled));
+                keptPairs.add(nodePairs(last.nodes));
+            }
+        }
+        return routes;
+    }
+
+    /**
+     * Backward Dijkstra from the target, expanding only nodes that a route within
+     * {@code limit} can pass through; returns the number of expanded nodes.
+     */
+    private int computeRemaining(Workspace ws, EdgeFilter filter, int source, int target, double limit) {
+        SearchState backward = ws.backward;
+        backward.reset();
+        IndexedMinHeap heap = backward.getHeap();
+        backward.update(target, 0.0, -1, -1, 0.0);
+        int expanded = 0;
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            double remaining = backward.getDistance(current);
+            if (remaining > limit) {
+                break;
+            }
+            if (remaining + heuristic.estimate(source, current) > limit) {
+                continue; // settled stays unset, so spur searches treat the node as out of reach
+            }
+            backward.settle(current);
+            expanded++;
+            for (int slot = graph.inEdgesStart(current); slot < graph.inEdgesEnd(current); slot++) {
+                int neighbor = graph.getInSource(slot);
+                int edge = graph.getInEdge(slot);
+                if (backward.isSettled(neighbor) || (filter != null && !filter.accepts(edge))) {
+                    continue;
+                }
+                double newRemaining = remaining + graph.getTime(edge);
+                if (newRemaining < backward.getDistance(neighbor)) {
+                    backward.update(neighbor, newRemaining, current, edge, newRemaining);
+                }
+            }
+        }
+        return expanded;
+    }
+
+    /**
+     * Fastest route that follows {@code last} up to its {@code index}-th node and then leaves it
+     * over a node pair no earlier path with the same prefix took, or null if there is none
+     * within the limit.
+     */
+    private Path spur(Workspace ws, EdgeFilter filter, List<Path> paths, Path last, int index, double rootTime,
+                      int target, double limit) {
+        ws.lastSettled = 0;
+        int spurNode = last.nodes[index];
+        SearchState backward = ws.backward;
+        if (!backward.isSettled(spurNode) || rootTime + backward.getDistance(spurNode) > limit) {
+            return null;
+        }
+        ws.nextBlock();
+        for (int i = 0; i < index; i++) {
+            ws.blockedStamp[last.nodes[i]] = ws.blockEpoch;
+        }
+        for (Path path : paths) {
+            if (path.nodes.length > index + 1 && sharesPrefix(path, last, index)) {
+                ws.nextStamp[path.nodes[index + 1]] = ws.blockEpoch;
+            }
+        }
+
+        SearchState state = ws.spur;
+        state.reset();
+        IndexedMinHeap heap = state.getHeap();
+        state.update(spurNode, rootTime, -1, -1, rootTime + backward.getDistance(spurNode));
+        int settledCount = 0;
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            state.settle(current);
+            settledCount++;
+            if (current == target) {
+                break;
+            }
+            double time = state.getDistance(current);
+            for (int e = graph.edgesStart(current); e < graph.edgesEnd(current); e++) {
+                int neighbor = graph.getTarget(e);
+                if (state.isSettled(neighbor) || ws.blockedStamp[neighbor] == ws.blockEpoch
+                        || (current == spurNode && ws.nextStamp[neighbor] == ws.blockEpoch)
+                        || !backward.isSettled(neighbor) || (filter != null && !filter.accepts(e))) {
+                    continue;
+                }
+                double newTime = time + graph.getTime(e);
+                double estimate = newTime + backward.getDistance(neighbor);
+                if (estimate <= limit && newTime < state.getDistance(neighbor)) {
+                    state.update(neighbor, newTime, current, e, estimate);
+                }
+            }
+        }
+        ws.lastSettled = settledCount;
+        if (!state.isSettled(target)) {
+            return null;
+        }
+
+        Route tail = state.extractRoute(spurNode, target, settledCount);
+        int[] nodes = Arrays.copyOf(last.nodes, index + tail.getNodes().length);
+        System.arraycopy(tail.getNodes(), 0, nodes, index, tail.getNodes().length);
+        int[] edges = Arrays.copyOf(last.edges, index + tail.getEdges().length);
+        System.arraycopy(tail.getEdges(), 0, edges, index, tail.getEdges().length);
+        return new Path(nodes, edges, tail.getTotalTime(), index);
+    }
+
+    private static boolean sharesPrefix(Path a, Path b, int index) {
+        for (int i = 0; i <= index; i++) {
+            if (a.nodes[i] != b.nodes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isDistinct(Path path, List<Set<Long>> keptPairs) {
+        for (Set<Long> pairs : keptPairs) {
+            double shared = 0.0;
+            for (int i = 0; i < path.edges.length; i++) {
+                if (pairs.contains(pairKey(path.nodes[i], path.nodes[i + 1]))) {
+                    shared += graph.getTime(path.edges[i]);
+                }
+            }
+            if (shared > maxOverlap * path.time) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<Long> nodePairs(int[] nodes) {
+        Set<Long> pairs = new HashSet<>();
+        for (int i = 0; i + 1 < nodes.length; i++) {
+            pairs.add(pairKey(nodes[i], nodes[i + 1]));
+        }
+        return pairs;
+    }
+
+    private static long pairKey(int from, int to) {
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+
+    /**
+     * A path found by Yen's algorithm; two paths are equal when they visit the same nodes,
+     * whichever of several parallel edges they use.
+     */
+    private static final class Path {
+        private final int[] nodes;
+        private final int[] edges;
+        private final double time;
+        private final int deviation; // index of the node where it left its parent path
+
+        private Path(int[] nodes, int[] edges, double time, int deviation) {
+            this.nodes = nodes;
+            this.edges = edges;
+            this.time = time;
+            this.deviation = deviation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Path && Arrays.equals(nodes, ((Path) o).nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(nodes);
+        }
+    }
+
+    private static final class Workspace {
+        private final SearchState backward;
+        private final SearchState spur;
+        private final int[] blockedStamp; // root nodes a spur path may not visit
+        private final int[] nextStamp;    // nodes the spur node may not step to
+        private int blockEpoch = 0;
+        private int lastSettled;
+
+        private Workspace(int nodeCount) {
+            this.backward = new SearchState(nodeCount);
+            this.spur = new SearchState(nodeCount);
+            this.blockedStamp = new int[nodeCount];
+            this.nextStamp = new int[nodeCount];
+        }
+
+        private void nextBlock() {
+            if (++blockEpoch == Integer.MAX_VALUE) {
+                Arrays.fill(blockedStamp, 0);
+                Arrays.fill(nextStamp, 0);
+                blockEpoch = 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.Model;
+
+/**
+ * Bidirectional Dijkstra / A*: a forward search from the source over outgoing edges and a
+ * backward search from the target over the reverse index of {@link CompactGraph}, always
+ * advancing the side whose queue has the smaller minimum key.
+ * <p>
+ * With a {@link Heuristic} both sides use the average potentials
+ * {@code p_f(v) = (h(v, t) - h(s, v)) / 2} and {@code p_b(v) = -p_f(v)}, which keep the reduced
+ * edge costs of both searches non-negative and identical. In that setting (and trivially
+ * without potentials) the search may stop as soon as {@code minKey_f + minKey_b >= mu}, where
+ * {@code mu} is the length of the best s-t path seen so far.
+ */
+public class BidirectionalEngine implements RoutingEngine {
+    private final CompactGraph graph;
+    private final Heuristic heuristic; // null for plain bidirectional Dijkstra
+    private final ThreadLocal<SearchState[]> states;
+
+    public BidirectionalEngine(CompactGraph graph, Heuristic heuristic) {
+        this(graph, heuristic, new SearchPools(graph.getNodeCount()));
+    }
+
+    public BidirectionalEngine(CompactGraph graph, Heuristic heuristic, SearchPools pools) {
+        this.graph = graph;
+        this.heuristic = heuristic;
+        int nodeCount = pools.getNodeCount();
+        this.states = pools.get(BidirectionalEngine.class, () -> new SearchState[]{
+                new SearchState(nodeCount), new SearchState(nodeCount)});
+    }
+
+    /**
+     * The listener receives settle events of both sides; distances are measured from the
+     * source for forward events and to the target for backward ones.
+     */
+    @Override
+    public Route findRoute(int source, int target, EdgeFilter filter, SettleListener listener) {
+        SearchState[] pair = states.get();
+        SearchState forward = pair[0];
+        SearchState backward = pair[1];
+        forward.reset();
+        backward.reset();
+        IndexedMinHeap forwardHeap = forward.getHeap();
+        IndexedMinHeap backwardHeap = backward.getHeap();
+
+        forward.update(source, 0.0, -1, -1, potential(source, source, target));
+        backward.update(target, 0.0, -1, -1, -potential(target, source, target));
+        double best = source == target ? 0.0 : Double.POSITIVE_INFINITY;
+        int meeting = source == target ? source : -1;
+        int settledCount = 0;
+
+        while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+            if (forwardHeap.peekKey() + backwardHeap.peekKey() >= best) {
+                break;
+            }
+            boolean forwardStep = forwardHeap.peekKey() <= backwardHeap.peekKey();
+            SearchState own = forwardStep ? forward : backward;
+            SearchState other = forwardStep ? backward : forward;
+
+            int current = own.getHeap().poll();
+            own.settle(current);
+            settledCount++;
+            if (listener != null) {
+                listener.onSettled(current, own.getDistance(current), own.getPredecessor(current));
+            }
+
+            double currentDist = own.getDistance(current);
+            int start = forwardStep ? graph.edgesStart(current) : graph.inEdgesStart(current);
+            int end = forwardStep ? graph.edgesEnd(current) : graph.inEdgesEnd(current);
+            for (int i = start; i < end; i++) {
+                int edge = forwardStep ? i : graph.getInEdge(i);
+                int neighbor = forwardStep ? graph.getTarget(i) : graph.getInSource(i);
+                if (own.isSettled(neighbor) || (filter != null && !filter.accepts(edge))) {
+                    continue;
+                }
+                double newDist = currentDist + graph.getTime(edge);
+                if (newDist < own.getDistance(neighbor)) {
+                    double p = potential(neighbor, source, target);
+                    own.update(neighbor, newDist, current, edge, newDist + (forwardStep ? p : -p));
+                }
+                double candidate = own.getDistance(neighbor) + other.getDistance(neighbor);
+                if (candidate < best) {
+                    best = candidate;
+                    meeting = neighbor;
+                }
+            }
+        }
+
+        if (meeting < 0) {
+            return Route.notFound(settledCount);
+        }
+        return joinAtMeetingNode(forward, backward, source, target, meeting, best, settledCount);
+    }
+
+    private double potential(int node, int source, int target) {
+        if (heuristic == null) {
+            return 0.0;
+        }
+        return (heuristic.estimate(node, target) - heuristic.estimate(source, node)) / 2;
+    }
+
+    private static Route joinAtMeetingNode(SearchState forward, SearchState backward, int source, int target,
+                                           int meeting, double totalTime, int settledCount) {
+        int forwardLength = 1;
+        for (int crawl = meeting; crawl != source; crawl = forward.getPredecessor(crawl)) {
+            forwardLength++;
+        }
+        int backwardLength = 0;
+        for (int crawl = meeting; crawl != target; crawl = backward.getPredecessor(crawl)) {
+            backwardLength++;
+        }
+
+        int[] nodes = new int[forwardLength + backwardLength];
+        int[] edges = new int[nodes.length - 1];
+        int crawl = meeting;
+        for (int i = forwardLength - 1; i > 0; i--) {
+            nodes[i] = crawl;
+            edges[i - 1] = forward.getPredecessorEdge(crawl);
+            crawl = forward.getPredecessor(crawl);
+        }
+        nodes[0] = source;
+        // Backward predecessors point towards the target, along the original edge direction
+        crawl = meeting;
+        for (int i = forwardLength; i < nodes.length; i++) {
+            edges[i - 1] = backward.getPredecessorEdge(crawl);
+            crawl = backward.getPredecessor(crawl);
+            nodes[i] = crawl;
+        }
+        return new Route(nodes, edges, totalTime, settledCount);
+    }
+}
@@ -0,0 +1,571 @@
+package org.example.Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Immutable compressed-sparse-row (CSR) representation of the transit network.
+ * <p>
+ * Nodes are addressed by dense int indices. The outgoing edges of node {@code u} occupy
+ * the index range {@code [offsets[u], offsets[u + 1])} of the parallel edge arrays, so a
+ * relaxation loop walks a few contiguous primitive arrays instead of chasing
+ * {@code Edge -> Node} references through a {@code HashMap}.
+ */
+public final class CompactGraph {
+    // Ride key of walking edges, see getRide
+    public static final int NO_RIDE = -1;
+
+    private final Map<String, Integer> indexById;
+    private final String[] ids;
+    private final String[] types;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final float[] times; // minutes, infinite for a closed edge
+    private final float[] distances; // km
+    private final byte[] modeCodes; // TransportMode codes
+    private final int[] lines; // index into lineNames, -1 for edges outside any scheduled line
+    private final String[] lineNames;
+
+    // Reverse index: the incoming edges of node v are inEdges[inOffsets[v] .. inOffsets[v + 1])
+    private final int[] inOffsets;
+    private final int[] inEdges; // edge index into the forward arrays
+    private final int[] inSources; // source node of that edge
+
+    // Per mode code, one bit per edge of that mode; OR-ed into EdgeFilters on demand
+    private final long[][] modeEdgeBits;
+    private final Map<Integer, EdgeFilter> edgeFilters = new ConcurrentHashMap<>();
+
+    private CompactGraph(Map<String, Integer> indexById, String[] ids, String[] types,
+                         double[] latitudes, double[] longitudes,
+                         int[] offsets, int[] targets, float[] times, float[] distances, byte[] modeCodes,
+                         int[] lines, String[] lineNames) {
+        this.indexById = indexById;
+        this.ids = ids;
+        this.types = types;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.times = times;
+        this.distances = distances;
+        this.modeCodes = modeCodes;
+        this.lines = lines;
+        this.lineNames = lineNames;
+
+        int n = ids.length;
+        this.inOffsets = new int[n + 1];
+        for (int target : targets) {
+            inOffsets[target + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        this.inEdges = new int[targets.length];
+        this.inSources = new int[targets.length];
+        int[] cursor = Arrays.copyOf(inOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int slot = cursor[targets[e]]++;
+                inEdges[slot] = e;
+                inSources[slot] = u;
+            }
+        }
+
+        this.modeEdgeBits = new long[TransportMode.values().length][(targets.length + 63) >>> 6];
+        for (int e = 0; e < targets.length; e++) {
+            modeEdgeBits[modeCodes[e]][e >>> 6] |= 1L << e;
+        }
+    }
+
+    // Shares everything with base but the travel times
+    private CompactGraph(CompactGraph base, float[] times) {
+        this.indexById = base.indexById;
+        this.ids = base.ids;
+        this.types = base.types;
+        this.latitudes = base.latitudes;
+        this.longitudes = base.longitudes;
+        this.offsets = base.offsets;
+        this.targets = base.targets;
+        this.times = times;
+        this.distances = base.distances;
+        this.modeCodes = base.modeCodes;
+        this.lines = base.lines;
+        this.lineNames = base.lineNames;
+        this.inOffsets = base.inOffsets;
+        this.inEdges = base.inEdges;
+        this.inSources = base.inSources;
+        this.modeEdgeBits = base.modeEdgeBits;
+    }
+
+    /**
+     * The same network with other travel times, e.g. live delays. All other arrays are shared
+     * with this graph, so edge and node indices stay valid and the copy costs one float per edge.
+     *
+     * @param times minutes per edge, {@link Float#POSITIVE_INFINITY} for a closed edge; not copied
+     */
+    public CompactGraph withTimes(float[] times) {
+        if (times.length != targets.length) {
+            throw new IllegalArgumentException("Expected " + targets.length + " edge times, got " + times.length);
+        }
+        return new CompactGraph(this, times);
+    }
+
+    /**
+     * @return a copy of the travel times, indexed by edge
+     */
+    public float[] copyTimes() {
+        return Arrays.copyOf(times, times.length);
+    }
+
+    /**
+     * Wraps arrays read back from a {@link GraphSnapshot}; the id index is rebuilt with the
+     * same first-id-wins rule as {@link Builder#addNode}.
+     */
+    static CompactGraph fromArrays(String[] ids, String[] types, double[] latitudes, double[] longitudes,
+                                   int[] offsets, int[] targets, float[] times, float[] distances,
+                                   byte[] modeCodes, int[] lines, String[] lineNames) {
+        Map<String, Integer> indexById = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            indexById.putIfAbsent(ids[i], i);
+        }
+        return new CompactGraph(indexById, ids, types, latitudes, longitudes,
+                offsets, targets, times, distances, modeCodes, lines, lineNames);
+    }
+
+    public int getNodeCount() {
+        return ids.length;
+    }
+
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * O(1) lookup of a node index by station id.
+     *
+     * @return the index, or -1 if no node has this id
+     */
+    public int indexOf(String id) {
+        Integer index = indexById.get(id);
+        return index != null ? index : -1;
+    }
+
+    public String getId(int node) {
+        return ids[node];
+    }
+
+    public String getType(int node) {
+        return types[node];
+    }
+
+    public double getLatitude(int node) {
+        return latitudes[node];
+    }
+
+    public double getLongitude(int node) {
+        return longitudes[node];
+    }
+
+    // First outgoing edge of the node
+    public int edgesStart(int node) {
+        return offsets[node];
+    }
+
+    // One past the last outgoing edge of the node
+    public int edgesEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    // First slot of the node's incoming edges in the reverse index
+    public int inEdgesStart(int node) {
+        return inOffsets[node];
+    }
+
+    // One past the last slot of the node's incoming edges
+    public int inEdgesEnd(int node) {
+        return inOffsets[node + 1];
+    }
+
+    // Forward edge index stored in a reverse-index slot
+    public int getInEdge(int slot) {
+        return inEdges[slot];
+    }
+
+    // Source node of the edge stored in a reverse-index slot
+    public int getInSource(int slot) {
+        return inSources[slot];
+    }
+
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    public float getTime(int edge) {
+        return times[edge];
+    }
+
+    // Closed edges keep their place in the graph but have an infinite time, so no search takes them
+    public boolean isClosed(int edge) {
+        return times[edge] == Float.POSITIVE_INFINITY;
+    }
+
+    public float getDistance(int edge) {
+        return distances[edge];
+    }
+
+    public byte getModeCode(int edge) {
+        return modeCodes[edge];
+    }
+
+    public TransportMode getMode(int edge) {
+        return TransportMode.fromCode(modeCodes[edge]);
+    }
+
+    /**
+     * @return the line the edge belongs to, or -1 for unscheduled edges (walking, taxi)
+     */
+    public int getLine(int edge) {
+        return lines[edge];
+    }
+
+    /**
+     * Key of the vehicle the edge is ridden in: consecutive edges with the same key are one
+     * ride, changing to another key is a transfer. Scheduled edges are keyed by line;
+     * unscheduled vehicles (taxi) get one key per mode, after the line indices.
+     *
+     * @return the ride key, or {@link #NO_RIDE} for walking
+     */
+    public int getRide(int edge) {
+        if (modeCodes[edge] == TransportMode.WALKING.getCode()) {
+            return NO_RIDE;
+        }
+        return lines[edge] >= 0 ? lines[edge] : lineNames.length + modeCodes[edge];
+    }
+
+    public int getLineCount() {
+        return lineNames.length;
+    }
+
+    /**
+     * @return the line number as given in the feed ({@code hat})
+     */
+    public String getLineName(int line) {
+        return lineNames[line];
+    }
+
+    /**
+     * Filter letting through the edges of the given {@link TransportMode#bitsOf modes}; built
+     * once per mode combination and shared afterwards.
+     *
+     * @return null if the modes include every mode, i.e. nothing needs to be filtered
+     */
+    public EdgeFilter edgeFilter(int modeBits) {
+        if ((modeBits & TransportMode.ALL_BITS) == TransportMode.ALL_BITS) {
+            return null;
+        }
+        return edgeFilters.computeIfAbsent(modeBits & TransportMode.ALL_BITS, bits -> {
+            long[] words = new long[(targets.length + 63) >>> 6];
+            for (int code = 0; code < modeEdgeBits.length; code++) {
+                if ((bits & (1 << code)) != 0) {
+                    for (int w = 0; w < words.length; w++) {
+                        words[w] |= modeEdgeBits[code][w];
+                    }
+                }
+            }
+            return new EdgeFilter(words, bits);
+        });
+    }
+
+    /**
+     * Source node of an edge, found by binary search over the offsets (O(log n)).
+     */
+    public int getEdgeSource(int edge) {
+        int low = 0;
+        int high = ids.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= edge) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Cheapest edge (by time) from {@code from} to {@code to}, or -1 if there is none.
+     */
+    public int findEdge(int from, int to) {
+        int best = -1;
+        for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+            if (targets[e] == to && (best < 0 || times[e] < times[best])) {
+                best = e;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Cheapest edge (by time) from {@code from} to {@code to} on the given line, or -1.
+     */
+    public int findLineEdge(int from, int to, int line) {
+        int best = -1;
+        for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+            if (targets[e] == to && lines[e] == line && (best < 0 || times[e] < times[best])) {
+                best = e;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * CRC-32 over the edge structure and travel times; derived data persisted to disk
+     * (e.g. landmark tables) is only reused while this value is unchanged.
+     */
+    public long fingerprint() {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[4];
+        updateInt(crc, buffer, ids.length);
+        for (int u = 0; u < ids.length; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                updateInt(crc, buffer, u);
+                updateInt(crc, buffer, targets[e]);
+                updateInt(crc, buffer, Float.floatToIntBits(times[e]));
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static void updateInt(CRC32 crc, byte[] buffer, int value) {
+        buffer[0] = (byte) (value >>> 24);
+        buffer[1] = (byte) (value >>> 16);
+        buffer[2] = (byte) (value >>> 8);
+        buffer[3] = (byte) value;
+        crc.update(buffer, 0, 4);
+    }
+
+    /**
+     * Approximate bytes retained by this graph on its own (64-bit JVM, compressed references):
+     * the arrays, the id index with its entries and boxed indices, the line names and the
+     * id/type strings. The strings are usually shared with the loaded {@link Node}s, see
+     * {@link #estimateStringBytes}; the edge filters built on demand are not counted.
+     */
+    public long estimateMemoryBytes() {
+        int n = ids.length;
+        int m = targets.length;
+        long arrays = 2 * referenceArrayBytes(n)
+                + 2 * primitiveArrayBytes(n, 8)
+                + primitiveArrayBytes(n + 1, 4)
+                + primitiveArrayBytes(m, 4)
+                + 2 * primitiveArrayBytes(m, 4)
+                + primitiveArrayBytes(m, 1)
+                + primitiveArrayBytes(m, 4)
+                + referenceArrayBytes(lineNames.length)
+                + primitiveArrayBytes(n + 1, 4)
+                + 2 * primitiveArrayBytes(m, 4)
+                + TransportMode.values().length * primitiveArrayBytes((m + 63) >>> 6, 8);
+        // HashMap sized for 2n entries: object, table, one 32-byte node per entry, and an Integer
+        // per index outside the Integer cache
+        int tableSize = Integer.highestOneBit(Math.max(1, 2 * n - 1)) << 1;
+        long idIndex = 48 + referenceArrayBytes(tableSize) + 32L * indexById.size()
+                + 16L * Math.max(0, n - 128);
+        return arrays + idIndex + stringBytes(lineNames) + estimateStringBytes();
+    }
+
+    /**
+     * Part of {@link #estimateMemoryBytes} taken by the id and type strings, each distinct
+     * instance counted once.
+     */
+    public long estimateStringBytes() {
+        Map<String, Boolean> seen = new IdentityHashMap<>();
+        long bytes = 0;
+        for (String[] strings : new String[][]{ids, types}) {
+            for (String string : strings) {
+                if (string != null && seen.put(string, Boolean.TRUE) == null) {
+                    bytes += stringBytes(string);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String[] strings) {
+        long bytes = 0;
+        for (String string : strings) {
+            if (string != null) {
+                bytes += stringBytes(string);
+            }
+        }
+        return bytes;
+    }
+
+    // Object plus its compact byte[] (one byte per char if all are Latin-1, two otherwise)
+    private static long stringBytes(String string) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return 24 + primitiveArrayBytes(string.length(), bytesPerChar);
+    }
+
+    private static long primitiveArrayBytes(int length, int elementSize) {
+        return align(16L + (long) length * elementSize);
+    }
+
+    private static long referenceArrayBytes(int length) {
+        return align(16L + (long) length * 4);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Rebuilds the legacy {@code Map<Node, List<Edge>>} view. Only meant for callers that
+     * still need object edges; it allocates one {@link Edge} per CSR edge on every call.
+     *
+     * @param nodes node objects indexed like this graph
+     */
+    public Map<Node, List<Edge>> toAdjacencyMap(List<Node> nodes) {
+        Map<Node, List<Edge>> adjacency = new HashMap<>();
+        for (int u = 0; u < ids.length; u++) {
+            Node from = nodes.get(u);
+            List<Edge> edges = new ArrayList<>(offsets[u + 1] - offsets[u]);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                edges.add(new Edge(from, nodes.get(targets[e]), distances[e], getMode(e).getLabel(), times[e]));
+            }
+            adjacency.put(from, edges);
+        }
+        return adjacency;
+    }
+
+    /**
+     * Collects nodes and edges in insertion order and lays them out as CSR on {@link #build()}.
+     */
+    public static final class Builder {
+        private final Map<String, Integer> indexById = new HashMap<>();
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> types = new ArrayList<>();
+        private double[] latitudes = new double[16];
+        private double[] longitudes = new double[16];
+
+        private int edgeCount = 0;
+        private int[] edgeSources = new int[16];
+        private int[] edgeTargets = new int[16];
+        private float[] edgeTimes = new float[16];
+        private float[] edgeDistances = new float[16];
+        private byte[] edgeModes = new byte[16];
+        private int[] edgeLines = new int[16];
+        private final Map<String, Integer> lineIndex = new HashMap<>();
+        private final List<String> lineNames = new ArrayList<>();
+
+        /**
+         * @return the index assigned to the node; if the id was already added, the first
+         * node keeps the id in {@link #indexOf(String)}
+         */
+        public int addNode(String id, double latitude, double longitude, String type) {
+            int index = ids.size();
+            indexById.putIfAbsent(id, index);
+            if (index == latitudes.length) {
+                latitudes = Arrays.copyOf(latitudes, index * 2);
+                longitudes = Arrays.copyOf(longitudes, index * 2);
+            }
+            ids.add(id);
+            types.add(type);
+            latitudes[index] = latitude;
+            longitudes[index] = longitude;
+            return index;
+        }
+
+        public void addEdge(int from, int to, double time, double distance, TransportMode mode) {
+            addEdge(from, to, time, distance, mode, null);
+        }
+
+        /**
+         * @param line line number ({@code hat}) of a scheduled service, {@code null} for walking,
+         *             taxi and other unscheduled edges
+         */
+        public void addEdge(int from, int to, double time, double distance, TransportMode mode, String line) {
+            if (from < 0 || from >= ids.size() || to < 0 || to >= ids.size()) {
+                throw new IllegalArgumentException("Edge endpoint out of range: " + from + " -> " + to);
+            }
+            if (edgeCount == edgeSources.length) {
+                int capacity = edgeCount * 2;
+                edgeSources = Arrays.copyOf(edgeSources, capacity);
+                edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+                edgeTimes = Arrays.copyOf(edgeTimes, capacity);
+                edgeDistances = Arrays.copyOf(edgeDistances, capacity);
+                edgeModes = Arrays.copyOf(edgeModes, capacity);
+                edgeLines = Arrays.copyOf(edgeLines, capacity);
+            }
+            edgeSources[edgeCount] = from;
+            edgeTargets[edgeCount] = to;
+            edgeTimes[edgeCount] = (float) time;
+            edgeDistances[edgeCount] = (float) distance;
+            edgeModes[edgeCount] = mode.getCode();
+            edgeLines[edgeCount] = line == null ? -1 : lineIndex.computeIfAbsent(mode.name() + ':' + line, key -> {
+                lineNames.add(line);
+                return lineNames.size() - 1;
+            });
+            edgeCount++;
+        }
+
+        public int getNodeCount() {
+            return ids.size();
+        }
+
+        public int indexOf(String id) {
+            Integer index = indexById.get(id);
+            return index != null ? index : -1;
+        }
+
+        public CompactGraph build() {
+            int n = ids.size();
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                offsets[edgeSources[i] + 1]++;
+            }
+            for (int u = 0; u < n; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+
+            // Counting sort by source keeps the insertion order of each node's edges
+            int[] cursor = Arrays.copyOf(offsets, n);
+            int[] targets = new int[edgeCount];
+            float[] times = new float[edgeCount];
+            float[] distances = new float[edgeCount];
+            byte[] modeCodes = new byte[edgeCount];
+            int[] lines = new int[edgeCount];
+            for (int i = 0; i < edgeCount; i++) {
+                int slot = cursor[edgeSources[i]]++;
+                targets[slot] = edgeTargets[i];
+                times[slot] = edgeTimes[i];
+                distances[slot] = edgeDistances[i];
+                modeCodes[slot] = edgeModes[i];
+                lines[slot] = edgeLines[i];
+            }
+
+            return new CompactGraph(
+                    new HashMap<>(indexById),
+                    ids.toArray(new String[0]),
+                    types.toArray(new String[0]),
+                    Arrays.copyOf(latitudes, n),
+                    Arrays.copyOf(longitudes, n),
+                    offsets, targets, times, distances, modeCodes,
+                    lines, lineNames.toArray(new String[0]));
+        }
+    }
+}
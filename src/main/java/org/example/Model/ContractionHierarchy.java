@@ -0,0 +1,132 @@
+package org.example.Model;
+
+import java.util.Arrays;
+
+/**
+ * Result of {@link ContractionHierarchyBuilder}: a node ranking plus the upward search graphs.
+ * <p>
+ * Arc ids below {@code originalEdgeCount} are edges of the underlying {@link CompactGraph};
+ * larger ids are shortcuts, each standing for two child arcs {@code u -> v -> x} around the
+ * contracted node {@code v}. Unpacking a shortcut therefore always ends in original edges,
+ * so routes found on the hierarchy map back to the exact segments of the base graph.
+ */
+public final class ContractionHierarchy {
+    private final CompactGraph graph;
+    private final int[] rank;
+
+    // Forward search graph: arcs u -> x with rank[x] > rank[u], grouped by u
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final double[] upWeights;
+    private final int[] upArcIds;
+
+    // Backward search graph: arcs u -> v with rank[u] > rank[v], grouped by v and stored as v <- u
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final double[] downWeights;
+    private final int[] downArcIds;
+
+    private final int[] shortcutFirst; // arc id of u -> v
+    private final int[] shortcutSecond; // arc id of v -> x
+
+    ContractionHierarchy(CompactGraph graph, int[] rank,
+                         int[] upOffsets, int[] upTargets, double[] upWeights, int[] upArcIds,
+                         int[] downOffsets, int[] downSources, double[] downWeights, int[] downArcIds,
+                         int[] shortcutFirst, int[] shortcutSecond) {
+        this.graph = graph;
+        this.rank = rank;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upArcIds = upArcIds;
+        this.downOffsets = downOffsets;
+        this.downSources = downSources;
+        this.downWeights = downWeights;
+        this.downArcIds = downArcIds;
+        this.shortcutFirst = shortcutFirst;
+        this.shortcutSecond = shortcutSecond;
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    public int getRank(int node) {
+        return rank[node];
+    }
+
+    public int getShortcutCount() {
+        return shortcutFirst.length;
+    }
+
+    public int upStart(int node) {
+        return upOffsets[node];
+    }
+
+    public int upEnd(int node) {
+        return upOffsets[node + 1];
+    }
+
+    public int getUpTarget(int slot) {
+        return upTargets[slot];
+    }
+
+    public double getUpWeight(int slot) {
+        return upWeights[slot];
+    }
+
+    public int getUpArcId(int slot) {
+        return upArcIds[slot];
+    }
+
+    public int downStart(int node) {
+        return downOffsets[node];
+    }
+
+    public int downEnd(int node) {
+        return downOffsets[node + 1];
+    }
+
+    public int getDownSource(int slot) {
+        return downSources[slot];
+    }
+
+    public double getDownWeight(int slot) {
+        return downWeights[slot];
+    }
+
+    public int getDownArcId(int slot) {
+        return downArcIds[slot];
+    }
+
+    /**
+     * Expands hierarchy arcs (in path order) into the original edges they represent.
+     */
+    public int[] unpack(int[] arcIds) {
+        int originalEdgeCount = graph.getEdgeCount();
+        int[] edges = new int[Math.max(4, arcIds.length * 2)];
+        int edgeCount = 0;
+        int[] stack = new int[16];
+        for (int arcId : arcIds) {
+            int top = 0;
+            stack[top++] = arcId;
+            while (top > 0) {
+                int id = stack[--top];
+                if (id < originalEdgeCount) {
+                    if (edgeCount == edges.length) {
+                        edges = Arrays.copyOf(edges, edgeCount * 2);
+                    }
+                    edges[edgeCount++] = id;
+                } else {
+                    if (top + 2 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    // Second child is pushed first so the first child is expanded first
+                    stack[top++] = shortcutSecond[id - originalEdgeCount];
+                    stack[top++] = shortcutFirst[id - originalEdgeCount];
+                }
+            }
+        }
+        return Arrays.copyOf(edges, edgeCount);
+    }
+}
@@ -0,0 +1,287 @@
+package org.example.Model;
+
+import java.util.Arrays;
+
+/**
+ * Offline preprocessing for {@link ContractionHierarchyEngine}.
+ * <p>
+ * Nodes are contracted one by one in order of increasing priority, where the priority is the
+ * edge difference (shortcuts the contraction would add minus arcs it removes) plus the number
+ * of already contracted neighbours, which spreads contraction evenly over the network.
+ * Priorities are updated lazily: a node taken from the queue is re-evaluated and put back if
+ * it is no longer the cheapest one.
+ * <p>
+ * Contracting {@code v} adds a shortcut {@code u -> x} for each in-arc {@code u -> v} and
+ * out-arc {@code v -> x} unless a bounded witness search from {@code u} that avoids {@code v}
+ * finds a path to {@code x} that is no longer. When the search hits its settle limit the
+ * shortcut is added anyway, which costs space but never correctness.
+ */
+public final class ContractionHierarchyBuilder {
+    // Priorities only need an estimate, the actual contraction searches further to avoid shortcuts
+    private static final int SIMULATION_SETTLE_LIMIT = 20;
+    private static final int CONTRACTION_SETTLE_LIMIT = 200;
+
+    private final CompactGraph graph;
+    private final int nodeCount;
+    private final ArcList[] outArcs;
+    private final ArcList[] inArcs;
+    private final boolean[] contracted;
+    private final int[] deletedNeighbors;
+    private final SearchState witness;
+    private final int[] targetMark; // == markStamp for the out-neighbours of the node being processed
+    private int markStamp = 0;
+
+    // Arcs of each node towards higher-ranked nodes, recorded when the node is contracted
+    private final ArcList[] upward;
+    private final ArcList[] downward;
+
+    private int shortcutCount = 0;
+    private int[] shortcutFirst = new int[64];
+    private int[] shortcutSecond = new int[64];
+
+    // Scratch buffers for the shortcuts of the node being processed
+    private int pendingCount = 0;
+    private int[] pendingFrom = new int[16];
+    private int[] pendingTo = new int[16];
+    private double[] pendingWeight = new double[16];
+    private int[] pendingFirst = new int[16];
+    private int[] pendingSecond = new int[16];
+
+    public ContractionHierarchyBuilder(CompactGraph graph) {
+        this.graph = graph;
+        this.nodeCount = graph.getNodeCount();
+        this.outArcs = new ArcList[nodeCount];
+        this.inArcs = new ArcList[nodeCount];
+        this.upward = new ArcList[nodeCount];
+        this.downward = new ArcList[nodeCount];
+        this.contracted = new boolean[nodeCount];
+        this.deletedNeighbors = new int[nodeCount];
+        this.witness = new SearchState(nodeCount);
+        this.targetMark = new int[nodeCount];
+        for (int v = 0; v < nodeCount; v++) {
+            outArcs[v] = new ArcList();
+            inArcs[v] = new ArcList();
+        }
+        // Parallel edges (e.g. bus and walking between the same stops) collapse to the fastest one
+        for (int u = 0; u < nodeCount; u++) {
+            for (int e = graph.edgesStart(u); e < graph.edgesEnd(u); e++) {
+                int v = graph.getTarget(e);
+                if (v != u && !graph.isClosed(e)) {
+                    outArcs[u].addOrImprove(v, graph.getTime(e), e);
+                    inArcs[v].addOrImprove(u, graph.getTime(e), e);
+                }
+            }
+        }
+    }
+
+    public ContractionHierarchy build() {
+        IndexedMinHeap queue = new IndexedMinHeap(nodeCount);
+        for (int v = 0; v < nodeCount; v++) {
+            queue.insertOrDecrease(v, priority(v));
+        }
+
+        int[] rank = new int[nodeCount];
+        int nextRank = 0;
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            double current = priority(v);
+            if (!queue.isEmpty() && current > queue.peekKey()) {
+                queue.insertOrDecrease(v, current); // Lazy update: someone else is cheaper now
+                continue;
+            }
+            rank[v] = nextRank++;
+            contract(v);
+        }
+        return assemble(rank);
+    }
+
+    private double priority(int v) {
+        findShortcuts(v, SIMULATION_SETTLE_LIMIT);
+        int edgeDifference = pendingCount - inArcs[v].size - outArcs[v].size;
+        return edgeDifference + deletedNeighbors[v];
+    }
+
+    private void contract(int v) {
+        findShortcuts(v, CONTRACTION_SETTLE_LIMIT);
+        contracted[v] = true;
+        upward[v] = outArcs[v];
+        downward[v] = inArcs[v];
+
+        for (int i = 0; i < outArcs[v].size; i++) {
+            int x = outArcs[v].nodes[i];
+            inArcs[x].remove(v);
+            deletedNeighbors[x]++;
+        }
+        for (int i = 0; i < inArcs[v].size; i++) {
+            int u = inArcs[v].nodes[i];
+            outArcs[u].remove(v);
+            deletedNeighbors[u]++;
+        }
+
+        int originalEdgeCount = graph.getEdgeCount();
+        for (int i = 0; i < pendingCount; i++) {
+            if (shortcutCount == shortcutFirst.length) {
+                shortcutFirst = Arrays.copyOf(shortcutFirst, shortcutCount * 2);
+                shortcutSecond = Arrays.copyOf(shortcutSecond, shortcutCount * 2);
+            }
+            int id = originalEdgeCount + shortcutCount;
+            shortcutFirst[shortcutCount] = pendingFirst[i];
+            shortcutSecond[shortcutCount] = pendingSecond[i];
+            shortcutCount++;
+            outArcs[pendingFrom[i]].addOrImprove(pendingTo[i], pendingWeight[i], id);
+            inArcs[pendingTo[i]].addOrImprove(pendingFrom[i], pendingWeight[i], id);
+        }
+        outArcs[v] = null;
+        inArcs[v] = null;
+    }
+
+    /**
+     * Fills the pending buffers with the shortcuts contracting {@code v} would require.
+     */
+    private void findShortcuts(int v, int settleLimit) {
+        pendingCount = 0;
+        ArcList in = inArcs[v];
+        ArcList out = outArcs[v];
+        if (in.size == 0 || out.size == 0) {
+            return;
+        }
+        double maxOut = 0.0;
+        markStamp++;
+        for (int j = 0; j < out.size; j++) {
+            maxOut = Math.max(maxOut, out.weights[j]);
+            targetMark[out.nodes[j]] = markStamp;
+        }
+        for (int i = 0; i < in.size; i++) {
+            int u = in.nodes[i];
+            double toV = in.weights[i];
+            witnessSearch(u, v, toV + maxOut, out.size, settleLimit);
+            for (int j = 0; j < out.size; j++) {
+                int x = out.nodes[j];
+                if (x == u) {
+                    continue;
+                }
+                double viaV = toV + out.weights[j];
+                if (witness.getDistance(x) > viaV) {
+                    addPending(u, x, viaV, in.ids[i], out.ids[j]);
+                }
+            }
+        }
+    }
+
+    // Stops early once all marked targets are settled, their distances are final then
+    private void witnessSearch(int source, int excluded, double maxDistance, int targetCount, int settleLimit) {
+        witness.reset();
+        IndexedMinHeap heap = witness.getHeap();
+        witness.update(source, 0.0, -1, -1, 0.0);
+        int settled = 0;
+        while (!heap.isEmpty() && heap.peekKey() <= maxDistance && settled < settleLimit) {
+            int current = heap.poll();
+            witness.settle(current);
+            settled++;
+            if (targetMark[current] == markStamp && --targetCount == 0) {
+                break;
+            }
+            double currentDist = witness.getDistance(current);
+            ArcList arcs = outArcs[current];
+            for (int i = 0; i < arcs.size; i++) {
+                int neighbor = arcs.nodes[i];
+                if (neighbor == excluded || witness.isSettled(neighbor)) {
+                    continue;
+                }
+                double newDist = currentDist + arcs.weights[i];
+                if (newDist < witness.getDistance(neighbor)) {
+                    witness.update(neighbor, newDist, current, -1, newDist);
+                }
+            }
+        }
+    }
+
+    private void addPending(int from, int to, double weight, int first, int second) {
+        if (pendingCount == pendingFrom.length) {
+            int capacity = pendingCount * 2;
+            pendingFrom = Arrays.copyOf(pendingFrom, capacity);
+            pendingTo = Arrays.copyOf(pendingTo, capacity);
+            pendingWeight = Arrays.copyOf(pendingWeight, capacity);
+            pendingFirst = Arrays.copyOf(pendingFirst, capacity);
+            pendingSecond = Arrays.copyOf(pendingSecond, capacity);
+        }
+        pendingFrom[pendingCount] = from;
+        pendingTo[pendingCount] = to;
+        pendingWeight[pendingCount] = weight;
+        pendingFirst[pendingCount] = first;
+        pendingSecond[pendingCount] = second;
+        pendingCount++;
+    }
+
+    private ContractionHierarchy assemble(int[] rank) {
+        int[] upOffsets = new int[nodeCount + 1];
+        int[] downOffsets = new int[nodeCount + 1];
+        for (int v = 0; v < nodeCount; v++) {
+            upOffsets[v + 1] = upOffsets[v] + upward[v].size;
+            downOffsets[v + 1] = downOffsets[v] + downward[v].size;
+        }
+        int[] upTargets = new int[upOffsets[nodeCount]];
+        double[] upWeights = new double[upTargets.length];
+        int[] upArcIds = new int[upTargets.length];
+        int[] downSources = new int[downOffsets[nodeCount]];
+        double[] downWeights = new double[downSources.length];
+        int[] downArcIds = new int[downSources.length];
+        for (int v = 0; v < nodeCount; v++) {
+            upward[v].copyTo(upTargets, upWeights, upArcIds, upOffsets[v]);
+            downward[v].copyTo(downSources, downWeights, downArcIds, downOffsets[v]);
+        }
+        return new ContractionHierarchy(graph, rank,
+                upOffsets, upTargets, upWeights, upArcIds,
+                downOffsets, downSources, downWeights, downArcIds,
+                Arrays.copyOf(shortcutFirst, shortcutCount), Arrays.copyOf(shortcutSecond, shortcutCount));
+    }
+
+    /**
+     * Small growable list of arcs to/from one node, at most one arc per neighbour.
+     */
+    private static final class ArcList {
+        private int size = 0;
+        private int[] nodes = new int[4];
+        private double[] weights = new double[4];
+        private int[] ids = new int[4];
+
+        private void addOrImprove(int node, double weight, int id) {
+            for (int i = 0; i < size; i++) {
+                if (nodes[i] == node) {
+                    if (weight < weights[i]) {
+                        weights[i] = weight;
+                        ids[i] = id;
+                    }
+                    return;
+                }
+            }
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            nodes[size] = node;
+            weights[size] = weight;
+            ids[size] = id;
+            size++;
+        }
+
+        private void remove(int node) {
+            for (int i = 0; i < size; i++) {
+                if (nodes[i] == node) {
+                    size--;
+                    nodes[i] = nodes[size];
+                    weights[i] = weights[size];
+                    ids[i] = ids[size];
+                    return;
+                }
+            }
+        }
+
+        private void copyTo(int[] nodeTarget, double[] weightTarget, int[] idTarget, int offset) {
+            System.arraycopy(nodes, 0, nodeTarget, offset, size);
+            System.arraycopy(weights, 0, weightTarget, offset, size);
+            System.arraycopy(ids, 0, idTarget, offset, size);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.Model;
+
+/**
+ * Point-to-point queries on a {@link ContractionHierarchy}: a forward Dijkstra from the source
+ * and a backward Dijkstra from the target, both only following arcs to higher-ranked nodes.
+ * Each side stops once its queue minimum reaches the best meeting cost; the arcs of the best
+ * path are then unpacked into the original edges of the graph.
+ * <p>
+ * Stall-on-demand: a settled node whose distance can be beaten through an arc coming from a
+ * higher-ranked node is not on any shortest path of this search, so its arcs are not relaxed.
+ */
+public class ContractionHierarchyEngine implements RoutingEngine {
+    private final ContractionHierarchy hierarchy;
+    private final CompactGraph graph;
+    private final ThreadLocal<SearchState[]> states;
+
+    public ContractionHierarchyEngine(ContractionHierarchy hierarchy) {
+        this(hierarchy, new SearchPools(hierarchy.getGraph().getNodeCount()));
+    }
+
+    public ContractionHierarchyEngine(ContractionHierarchy hierarchy, SearchPools pools) {
+        this.hierarchy = hierarchy;
+        this.graph = hierarchy.getGraph();
+        int nodeCount = pools.getNodeCount();
+        this.states = pools.get(ContractionHierarchyEngine.class, () -> new SearchState[]{
+                new SearchState(nodeCount), new SearchState(nodeCount)});
+    }
+
+    @Override
+    public boolean supportsEdgeFilter() {
+        return false;
+    }
+
+    /**
+     * The listener receives the settle events of both upward searches; these are nodes of the
+     * hierarchy search space, not the geographic exploration order of a plain Dijkstra.
+     */
+    @Override
+    public Route findRoute(int source, int target, EdgeFilter filter, SettleListener listener) {
+        if (filter != null) {
+            throw new IllegalArgumentException("Contraction hierarchy queries cannot filter edges");
+        }
+        SearchState[] pair = states.get();
+        SearchState forward = pair[0];
+        SearchState backward = pair[1];
+        forward.reset();
+        backward.reset();
+        IndexedMinHeap forwardHeap = forward.getHeap();
+        IndexedMinHeap backwardHeap = backward.getHeap();
+
+        forward.update(source, 0.0, -1, -1, 0.0);
+        backward.update(target, 0.0, -1, -1, 0.0);
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        int settledCount = 0;
+
+        while (true) {
+            boolean forwardDone = forwardHeap.isEmpty() || forwardHeap.peekKey() >= best;
+            boolean backwardDone = backwardHeap.isEmpty() || backwardHeap.peekKey() >= best;
+            if (forwardDone && backwardDone) {
+                break;
+            }
+            boolean forwardStep = !forwardDone && (backwardDone || forwardHeap.peekKey() <= backwardHeap.peekKey());
+            SearchState own = forwardStep ? forward : backward;
+            SearchState other = forwardStep ? backward : forward;
+
+            int current = own.getHeap().poll();
+            own.settle(current);
+            settledCount++;
+            double currentDist = own.getDistance(current);
+            if (listener != null) {
+                listener.onSettled(current, currentDist, own.getPredecessor(current));
+            }
+
+            if (other.isReached(current) && currentDist + other.getDistance(current) < best) {
+                best = currentDist + other.getDistance(current);
+                meeting = current;
+            }
+
+            if (isStalled(own, current, currentDist, forwardStep)) {
+                continue;
+            }
+
+            int start = forwardStep ? hierarchy.upStart(current) : hierarchy.downStart(current);
+            int end = forwardStep ? hierarchy.upEnd(current) : hierarchy.downEnd(current);
+            for (int slot = start; slot < end; slot++) {
+                int neighbor = forwardStep ? hierarchy.getUpTarget(slot) : hierarchy.getDownSource(slot);
+                if (own.isSettled(neighbor)) {
+                    continue;
+                }
+                double weight = forwardStep ? hierarchy.getUpWeight(slot) : hierarchy.getDownWeight(slot);
+                int arcId = forwardStep ? hierarchy.getUpArcId(slot) : hierarchy.getDownArcId(slot);
+                double newDist = currentDist + weight;
+                if (newDist < own.getDistance(neighbor)) {
+                    own.update(neighbor, newDist, current, arcId, newDist);
+                }
+            }
+        }
+
+        if (meeting < 0) {
+            return Route.notFound(settledCount);
+        }
+        return unpackRoute(forward, backward, source, target, meeting, settledCount);
+    }
+
+    private boolean isStalled(SearchState own, int node, double nodeDist, boolean forwardStep) {
+        // Arcs from higher-ranked nodes into this node, seen in the direction of this search
+        int start = forwardStep ? hierarchy.downStart(node) : hierarchy.upStart(node);
+        int end = forwardStep ? hierarchy.downEnd(node) : hierarchy.upEnd(node);
+        for (int slot = start; slot < end; slot++) {
+            int higher = forwardStep ? hierarchy.getDownSource(slot) : hierarchy.getUpTarget(slot);
+            double weight = forwardStep ? hierarchy.getDownWeight(slot) : hierarchy.getUpWeight(slot);
+            if (own.getDistance(higher) + weight < nodeDist) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Route unpackRoute(SearchState forward, SearchState backward, int source, int target,
+                              int meeting, int settledCount) {
+        int forwardArcs = 0;
+        for (int crawl = meeting; crawl != source; crawl = forward.getPredecessor(crawl)) {
+            forwardArcs++;
+        }
+        int backwardArcs = 0;
+        for (int crawl = meeting; crawl != target; crawl = backward.getPredecessor(crawl)) {
+            backwardArcs++;
+        }
+        int[] arcIds = new int[forwardArcs + backwardArcs];
+        int crawl = meeting;
+        for (int i = forwardArcs - 1; i >= 0; i--) {
+            arcIds[i] = forward.getPredecessorEdge(crawl);
+            crawl = forward.getPredecessor(crawl);
+        }
+        crawl = meeting;
+        for (int i = forwardArcs; i < arcIds.length; i++) {
+            arcIds[i] = backward.getPredecessorEdge(crawl);
+            crawl = backward.getPredecessor(crawl);
+        }
+
+        int[] edges = hierarchy.unpack(arcIds);
+        int[] nodes = new int[edges.length + 1];
+        nodes[0] = source;
+        double totalTime = 0.0;
+        for (int i = 0; i < edges.length; i++) {
+            nodes[i + 1] = graph.getTarget(edges[i]);
+            totalTime += graph.getTime(edges[i]);
+        }
+        return new Route(nodes, edges, totalTime, settledCount);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.Model;
+
+/**
+ * How the node table of a compact route response carries its coordinates, selectable with
+ * {@code coordinates=...} on {@code /api/map/route}.
+ */
+public enum CoordinateEncoding {
+    PLAIN, // lat, lon pairs in degrees
+    DELTA, // see GeoMath.deltaEncode
+    POLYLINE; // see GeoMath.encodePolyline
+
+    /**
+     * Case-insensitive lookup.
+     *
+     * @throws IllegalArgumentException if the name matches no encoding
+     */
+    public static CoordinateEncoding fromParameter(String value) {
+        for (CoordinateEncoding encoding : values()) {
+            if (encoding.name().equalsIgnoreCase(value.trim())) {
+                return encoding;
+            }
+        }
+        throw new IllegalArgumentException("Unknown coordinate encoding: " + value);
+    }
+}
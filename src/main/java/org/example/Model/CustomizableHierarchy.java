@@ -0,0 +1,557 @@
+package org.example.Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Customizable contraction hierarchy (CCH): the metric-independent part of a
+ * {@link ContractionHierarchy}, built once per network topology, from which hierarchies for
+ * any edge times on that topology are derived by {@link #customize}.
+ * <p>
+ * The node order comes from geometric nested dissection: the stations are split at the median
+ * of their wider coordinate axis, the stations of the smaller side adjacent to the other side
+ * form a separator and are ranked above both halves, which are ordered recursively. Contracting
+ * in this order without witness searches adds every possible shortcut, so the arcs do not
+ * depend on travel times; a small separator at each level keeps their number low.
+ * <p>
+ * Customization computes each arc's weight in both directions as the fastest of its original
+ * edges and of every lower triangle {@code u -> v -> w} through a lower-ranked {@code v}, found
+ * by walking the upward arcs of each lower neighbor {@code v} of {@code u}. An arc
+ * only depends on arcs of lower-ranked nodes, so nodes are processed level by level (a node's
+ * level is one above its highest lower neighbor) and the nodes of a level in parallel on the
+ * executor handed to {@link #customize(CompactGraph, ExecutorService)}. The
+ * result is a plain {@link ContractionHierarchy} answered by {@link ContractionHierarchyEngine}.
+ * Immutable and safe to share between threads.
+ */
+public final class CustomizableHierarchy {
+    // Parts of at most this many stations are not split further
+    private static final int LEAF_SIZE = 16;
+    // Levels with fewer nodes are customized on the calling thread; larger ones in tasks of half as many
+    private static final int PARALLEL_LEVEL_SIZE = 256;
+
+    private final int nodeCount;
+    private final int edgeCount;
+    private final int[] rank;
+
+    // Arcs u -> w with rank[w] > rank[u], grouped by u and sorted by rank[w]
+    private final int[] arcOffsets;
+    private final int[] arcHeads;
+
+    // Lower neighbors v of each node w, sorted by rank[v], with the arc index of v -> w
+    private final int[] lowerOffsets;
+    private final int[] lowerNodes;
+    private final int[] lowerArcs;
+
+    // Per original edge: arc index * 2, plus 1 if the edge runs from the higher to the lower node; -1 for loops
+    private final int[] edgeArcs;
+
+    // Nodes grouped by customization level
+    private final int[] levelOffsets;
+    private final int[] levelNodes;
+
+    // Per thread: the arc from the node being customized to each node, -1 if none. Every
+    // customization leaves the marks cleared, so they are kept for the next one.
+    private final ThreadLocal<int[]> arcTo;
+
+    private CustomizableHierarchy(int nodeCount, int edgeCount, int[] rank, int[] arcOffsets, int[] arcHeads,
+                                  int[] lowerOffsets, int[] lowerNodes, int[] lowerArcs, int[] edgeArcs,
+                                  int[] levelOffsets, int[] levelNodes) {
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.rank = rank;
+        this.arcOffsets = arcOffsets;
+        this.arcHeads = arcHeads;
+        this.lowerOffsets = lowerOffsets;
+        this.lowerNodes = lowerNodes;
+        this.lowerArcs = lowerArcs;
+        this.edgeArcs = edgeArcs;
+        this.levelOffsets = levelOffsets;
+        this.levelNodes = levelNodes;
+        this.arcTo = ThreadLocal.withInitial(() -> {
+            int[] marks = new int[nodeCount];
+            Arrays.fill(marks, -1);
+            return marks;
+        });
+    }
+
+    /**
+     * Orders and contracts the topology of {@code graph}; its travel times are not used.
+     */
+    public static CustomizableHierarchy build(CompactGraph graph) {
+        int n = graph.getNodeCount();
+        int[][] neighbors = undirectedNeighbors(graph);
+        int[] rank = new NestedDissection(graph, neighbors).order();
+        int[] order = new int[n];
+        for (int v = 0; v < n; v++) {
+            order[rank[v]] = v;
+        }
+
+        // Elimination in rank order: the higher neighbors of a contracted node become a clique,
+        // which is the same as handing them on to the lowest of them (its elimination tree parent)
+        int[][] upper = new int[n][];
+        for (int v = 0; v < n; v++) {
+            int count = 0;
+            int[] higher = new int[neighbors[v].length];
+            for (int neighbor : neighbors[v]) {
+                if (rank[neighbor] > rank[v]) {
+                    higher[count++] = rank[neighbor];
+                }
+            }
+            upper[rank[v]] = Arrays.copyOf(higher, count);
+            Arrays.sort(upper[rank[v]]);
+        }
+        for (int r = 0; r < n; r++) {
+            int[] higher = upper[r];
+            if (higher.length > 1) {
+                int parent = higher[0];
+                upper[parent] = union(upper[parent], higher, 1);
+            }
+        }
+
+        int[] arcOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            arcOffsets[v + 1] = arcOffsets[v] + upper[rank[v]].length;
+        }
+        int[] arcHeads = new int[arcOffsets[n]];
+        int[] lowerOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int slot = arcOffsets[v];
+            for (int higherRank : upper[rank[v]]) {
+                arcHeads[slot++] = order[higherRank];
+                lowerOffsets[order[higherRank] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            lowerOffsets[v + 1] += lowerOffsets[v];
+        }
+        // Filled in rank order, so every lower neighbor list ends up sorted by rank
+        int[] lowerNodes = new int[arcHeads.length];
+        int[] lowerArcs = new int[arcHeads.length];
+        int[] cursor = Arrays.copyOf(lowerOffsets, n);
+        int[] level = new int[n];
+        for (int r = 0; r < n; r++) {
+            int v = order[r];
+            for (int slot = lowerOffsets[v]; slot < lowerOffsets[v + 1]; slot++) {
+                level[v] = Math.max(level[v], level[lowerNodes[slot]] + 1);
+            }
+            for (int arc = arcOffsets[v]; arc < arcOffsets[v + 1]; arc++) {
+                int slot = cursor[arcHeads[arc]]++;
+                lowerNodes[slot] = v;
+                lowerArcs[slot] = arc;
+            }
+        }
+
+        int levelCount = 0;
+        for (int v = 0; v < n; v++) {
+            levelCount = Math.max(levelCount, level[v] + 1);
+        }
+        int[] levelOffsets = new int[levelCount + 1];
+        for (int v = 0; v < n; v++) {
+            levelOffsets[level[v] + 1]++;
+        }
+        for (int l = 0; l < levelCount; l++) {
+            levelOffsets[l + 1] += levelOffsets[l];
+        }
+        int[] levelNodes = new int[n];
+        int[] levelCursor = Arrays.copyOf(levelOffsets, levelCount);
+        for (int v = 0; v < n; v++) {
+            levelNodes[levelCursor[level[v]]++] = v;
+        }
+
+        int[] edgeArcs = new int[graph.getEdgeCount()];
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.edgesStart(u); e < graph.edgesEnd(u); e++) {
+                int x = graph.getTarget(e);
+                if (x == u) {
+                    edgeArcs[e] = -1;
+                } else if (rank[u] < rank[x]) {
+                    edgeArcs[e] = findArc(rank, arcOffsets, arcHeads, u, x) * 2;
+                } else {
+                    edgeArcs[e] = findArc(rank, arcOffsets, arcHeads, x, u) * 2 + 1;
+                }
+            }
+        }
+        return new CustomizableHierarchy(n, graph.getEdgeCount(), rank, arcOffsets, arcHeads,
+                lowerOffsets, lowerNodes, lowerArcs, edgeArcs, levelOffsets, levelNodes);
+    }
+
+    /**
+     * Hierarchy for the current times of {@code graph}, which must have the topology this
+     * instance was built from (e.g. the same graph with other times, see
+     * {@link CompactGraph#withTimes}). Closed edges are left out.
+     *
+     * @param executor runs the nodes of large levels in parallel; null to do all the work on the
+     *                 calling thread
+     */
+    public ContractionHierarchy customize(CompactGraph graph, ExecutorService executor) {
+        if (graph.getNodeCount() != nodeCount || graph.getEdgeCount() != edgeCount) {
+            throw new IllegalArgumentException("Graph does not match the topology of this hierarchy");
+        }
+        int arcCount = arcHeads.length;
+        Weights weights = new Weights(arcCount);
+        for (int e = 0; e < edgeCount; e++) {
+            if (edgeArcs[e] < 0 || graph.isClosed(e)) {
+                continue;
+            }
+            int arc = edgeArcs[e] >>> 1;
+            double time = graph.getTime(e);
+            if ((edgeArcs[e] & 1) == 0 && time < weights.up[arc]) {
+                weights.up[arc] = time;
+                weights.upIds[arc] = e;
+            } else if ((edgeArcs[e] & 1) == 1 && time < weights.down[arc]) {
+                weights.down[arc] = time;
+                weights.downIds[arc] = e;
+            }
+        }
+
+        for (int l = 0; l + 1 < levelOffsets.length; l++) {
+            int start = levelOffsets[l];
+            int end = levelOffsets[l + 1];
+            if (executor != null && end - start >= PARALLEL_LEVEL_SIZE) {
+                List<Callable<Void>> tasks = new ArrayList<>();
+                for (int from = start; from < end; from += PARALLEL_LEVEL_SIZE / 2) {
+                    int taskStart = from;
+                    int taskEnd = Math.min(from + PARALLEL_LEVEL_SIZE / 2, end);
+                    tasks.add(() -> {
+                        int[] marks = arcTo.get();
+                        for (int i = taskStart; i < taskEnd; i++) {
+                            customizeNode(levelNodes[i], marks, weights);
+                        }
+                        return null;
+                    });
+                }
+                runAll(executor, tasks);
+            } else {
+                int[] marks = arcTo.get();
+                for (int i = start; i < end; i++) {
+                    customizeNode(levelNodes[i], marks, weights);
+                }
+            }
+        }
+        return new ContractionHierarchy(graph, rank,
+                arcOffsets, arcHeads, weights.up, weights.upIds,
+                arcOffsets, arcHeads, weights.down, weights.downIds,
+                weights.shortcutFirst, weights.shortcutSecond);
+    }
+
+    // Only writes the arcs of u; everything read belongs to lower levels
+    private void customizeNode(int u, int[] arcTo, Weights weights) {
+        int arcCount = arcHeads.length;
+        for (int arc = arcOffsets[u]; arc < arcOffsets[u + 1]; arc++) {
+            arcTo[arcHeads[arc]] = arc;
+        }
+        // Lower triangles u -> v -> w: v below u, and w above u among the neighbors of both
+        for (int slot = lowerOffsets[u]; slot < lowerOffsets[u + 1]; slot++) {
+            int v = lowerNodes[slot];
+            int vu = lowerArcs[slot]; // v -> u, so its down weight is u -> v
+            for (int vw = vu + 1; vw < arcOffsets[v + 1]; vw++) { // arcs of v are sorted by rank
+                int arc = arcTo[arcHeads[vw]];
+                if (arc < 0) {
+                    continue;
+                }
+                double up = weights.down[vu] + weights.up[vw];
+                if (up < weights.up[arc]) {
+                    weights.up[arc] = up;
+                    weights.upIds[arc] = edgeCount + arc;
+                    weights.shortcutFirst[arc] = weights.downIds[vu];
+                    weights.shortcutSecond[arc] = weights.upIds[vw];
+                }
+                double down = weights.down[vw] + weights.up[vu];
+                if (down < weights.down[arc]) {
+                    weights.down[arc] = down;
+                    weights.downIds[arc] = edgeCount + arcCount + arc;
+                    weights.shortcutFirst[arcCount + arc] = weights.downIds[vw];
+                    weights.shortcutSecond[arcCount + arc] = weights.upIds[vu];
+                }
+            }
+        }
+        for (int arc = arcOffsets[u]; arc < arcOffsets[u + 1]; arc++) {
+            arcTo[arcHeads[arc]] = -1;
+        }
+    }
+
+    // Waits for every task, so the next level only starts once this one is complete
+    private static void runAll(ExecutorService executor, List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Customization interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Customization failed", e.getCause());
+        }
+    }
+
+    public int getArcCount() {
+        return arcHeads.length;
+    }
+
+    public int getLevelCount() {
+        return levelOffsets.length - 1;
+    }
+
+    private static int findArc(int[] rank, int[] arcOffsets, int[] arcHeads, int lower, int higher) {
+        int low = arcOffsets[lower];
+        int high = arcOffsets[lower + 1] - 1;
+        int key = rank[higher];
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midRank = rank[arcHeads[mid]];
+            if (midRank < key) {
+                low = mid + 1;
+            } else if (midRank > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        throw new IllegalStateException("No arc between nodes " + lower + " and " + higher);
+    }
+
+    // Sorted, duplicate-free union of a and b[from..]
+    private static int[] union(int[] a, int[] b, int from) {
+        int[] result = new int[a.length + b.length - from];
+        int i = 0;
+        int j = from;
+        int count = 0;
+        while (i < a.length || j < b.length) {
+            int next;
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                next = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                next = b[j++];
+            } else {
+                next = a[i++];
+                j++;
+            }
+            result[count++] = next;
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    // Distinct neighbors of every node, ignoring direction and loops
+    private static int[][] undirectedNeighbors(CompactGraph graph) {
+        int n = graph.getNodeCount();
+        int[][] neighbors = new int[n][];
+        int[] buffer = new int[16];
+        for (int v = 0; v < n; v++) {
+            int count = 0;
+            int degree = graph.edgesEnd(v) - graph.edgesStart(v) + graph.inEdgesEnd(v) - graph.inEdgesStart(v);
+            if (buffer.length < degree) {
+                buffer = new int[degree];
+            }
+            for (int e = graph.edgesStart(v); e < graph.edgesEnd(v); e++) {
+                buffer[count++] = graph.getTarget(e);
+            }
+            for (int slot = graph.inEdgesStart(v); slot < graph.inEdgesEnd(v); slot++) {
+                buffer[count++] = graph.getInSource(slot);
+            }
+            Arrays.sort(buffer, 0, count);
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (buffer[i] != v && (distinct == 0 || buffer[i] != buffer[distinct - 1])) {
+                    buffer[distinct++] = buffer[i];
+                }
+            }
+            neighbors[v] = Arrays.copyOf(buffer, distinct);
+        }
+        return neighbors;
+    }
+
+    /**
+     * Arc weights of one customization; an id is an original edge below the edge count and a
+     * shortcut above it, with the up shortcut of arc a at {@code edgeCount + a} and the down
+     * shortcut at {@code edgeCount + arcCount + a}.
+     */
+    private static final class Weights {
+        private final double[] up; // lower -> higher node
+        private final double[] down; // higher -> lower node
+        private final int[] upIds;
+        private final int[] downIds;
+        private final int[] shortcutFirst;
+        private final int[] shortcutSecond;
+
+        private Weights(int arcCount) {
+            this.up = new double[arcCount];
+            this.down = new double[arcCount];
+            Arrays.fill(up, Double.POSITIVE_INFINITY);
+            Arrays.fill(down, Double.POSITIVE_INFINITY);
+            this.upIds = new int[arcCount];
+            this.downIds = new int[arcCount];
+            Arrays.fill(upIds, -1);
+            Arrays.fill(downIds, -1);
+            this.shortcutFirst = new int[2 * arcCount];
+            this.shortcutSecond = new int[2 * arcCount];
+            Arrays.fill(shortcutFirst, -1);
+            Arrays.fill(shortcutSecond, -1);
+        }
+    }
+
+    /**
+     * Ranks nodes by recursive coordinate bisection, separators above the parts they separate.
+     */
+    private static final class NestedDissection {
+        private final CompactGraph graph;
+        private final int[][] neighbors;
+        private final int[] nodes;
+        private final int[] rank;
+        private final int[] part; // stamp of the half a node was last put in
+        private final double[] keys;
+        private int nextRank;
+        private int stamp = 0;
+
+        private NestedDissection(CompactGraph graph, int[][] neighbors) {
+            this.graph = graph;
+            this.neighbors = neighbors;
+            int n = graph.getNodeCount();
+            this.nodes = new int[n];
+            for (int v = 0; v < n; v++) {
+                nodes[v] = v;
+            }
+            this.rank = new int[n];
+            this.part = new int[n];
+            this.keys = new double[n];
+            this.nextRank = n - 1;
+        }
+
+        private int[] order() {
+            dissect(0, nodes.length);
+            return rank;
+        }
+
+        // Ranks nodes[lo, hi) with the highest ranks still free
+        private void dissect(int lo, int hi) {
+            if (hi - lo <= LEAF_SIZE) {
+                // Fewest neighbors lowest, as contracting them adds the fewest shortcuts
+                Integer[] leaf = new Integer[hi - lo];
+                for (int i = lo; i < hi; i++) {
+                    leaf[i - lo] = nodes[i];
+                }
+                Arrays.sort(leaf, (a, b) -> Integer.compare(neighbors[b].length, neighbors[a].length));
+                for (int v : leaf) {
+                    rank[v] = nextRank--;
+                }
+                return;
+            }
+
+            splitKeys(lo, hi);
+            int mid = (lo + hi) >>> 1;
+            select(lo, hi - 1, mid);
+            int lowerPart = ++stamp;
+            int upperPart = ++stamp;
+            for (int i = lo; i < hi; i++) {
+                part[nodes[i]] = i < mid ? lowerPart : upperPart;
+            }
+            int lowerBoundary = countBoundary(lo, mid, upperPart);
+            int upperBoundary = countBoundary(mid, hi, lowerPart);
+
+            int lowerEnd = mid;
+            int upperStart = mid;
+            if (lowerBoundary <= upperBoundary) {
+                // Boundary nodes of the lower half move to its end and form the separator
+                int write = mid;
+                for (int i = mid - 1; i >= lo; i--) {
+                    if (isBoundary(nodes[i], upperPart)) {
+                        swap(i, --write);
+                    }
+                }
+                for (int i = write; i < mid; i++) {
+                    rank[nodes[i]] = nextRank--;
+                }
+                lowerEnd = write;
+            } else {
+                int write = mid;
+                for (int i = mid; i < hi; i++) {
+                    if (isBoundary(nodes[i], lowerPart)) {
+                        swap(i, write++);
+                    }
+                }
+                for (int i = mid; i < write; i++) {
+                    rank[nodes[i]] = nextRank--;
+                }
+                upperStart = write;
+            }
+            dissect(lo, lowerEnd);
+            dissect(upperStart, hi);
+        }
+
+        // Latitude or longitude of every node in the range, whichever spreads wider in km
+        private void splitKeys(int lo, int hi) {
+            double minLat = Double.POSITIVE_INFINITY;
+            double maxLat = Double.NEGATIVE_INFINITY;
+            double minLon = Double.POSITIVE_INFINITY;
+            double maxLon = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                minLat = Math.min(minLat, graph.getLatitude(nodes[i]));
+                maxLat = Math.max(maxLat, graph.getLatitude(nodes[i]));
+                minLon = Math.min(minLon, graph.getLongitude(nodes[i]));
+                maxLon = Math.max(maxLon, graph.getLongitude(nodes[i]));
+            }
+            double lonScale = Math.cos(Math.toRadians((minLat + maxLat) / 2));
+            boolean byLatitude = maxLat - minLat >= (maxLon - minLon) * lonScale;
+            for (int i = lo; i < hi; i++) {
+                int v = nodes[i];
+                keys[v] = byLatitude ? graph.getLatitude(v) : graph.getLongitude(v);
+            }
+        }
+
+        private int countBoundary(int lo, int hi, int otherPart) {
+            int count = 0;
+            for (int i = lo; i < hi; i++) {
+                if (isBoundary(nodes[i], otherPart)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private boolean isBoundary(int v, int otherPart) {
+            for (int neighbor : neighbors[v]) {
+                if (part[neighbor] == otherPart) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Quickselect: afterwards nodes[k] has the k-th smallest key, smaller keys before it
+        private void select(int lo, int hi, int k) {
+            while (lo < hi) {
+                double pivot = keys[nodes[(lo + hi) >>> 1]];
+                int i = lo;
+                int j = hi;
+                while (i <= j) {
+                    while (keys[nodes[i]] < pivot) {
+                        i++;
+                    }
+                    while (keys[nodes[j]] > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+                if (k <= j) {
+                    hi = j;
+                } else if (k >= i) {
+                    lo = i;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private void swap(int i, int j) {
+            int tmp = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = tmp;
+        }
+    }
+}
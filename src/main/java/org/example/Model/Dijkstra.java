@@ -1,6 +1,5 @@
 package org.example.Model;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -12,56 +11,54 @@ import java.util.PriorityQueue;
 import java.util.Set;
 
 public class Dijkstra {
-    private final Map<Node, List<Edge>> originalGraph;
+    private final Map<Node, List<Edge>> graph;
+
+    /**
+     * Receives one event per settled node, for consumers that animate the exploration.
+     */
+    public interface ExplorationListener {
+        void onSettled(Node node, double distance, Node predecessor);
+    }
 
     public Dijkstra(Map<Node, List<Edge>> graph) {
-        this.originalGraph = graph;
+        this.graph = graph;
     }
 
-    public List<List<Node>> findShortestPath(Node start, Node end) {
-        // Work on a copy of the graph to avoid modifying the original
-        Map<Node, List<Edge>> graph = new HashMap<>(this.originalGraph);
+    public ShortestPath findShortestPath(Node start, Node end) {
+        return findShortestPath(start, end, null);
+    }
 
-        // Temporarily add start/end nodes to the graph copy if they don't exist.
-        if (start != null && !graph.containsKey(start)) {
-            graph.put(start, new ArrayList<>());
-        }
-        if (end != null && !graph.containsKey(end)) {
-            graph.put(end, new ArrayList<>());
+    /**
+     * @param listener optional exploration trace, notified as each node is settled; may be null
+     */
+    public ShortestPath findShortestPath(Node start, Node end, ExplorationListener listener) {
+        if (start == null || end == null) {
+            return ShortestPath.empty();
         }
 
+        // Nodes that are not yet reached are simply absent (infinite distance), so the graph is read as is
         Map<Node, Double> dist = new HashMap<>();
         Map<Node, Node> prev = new HashMap<>();
-        // PriorityQueue stores nodes to visit, ordered by their current shortest distance from start
-        PriorityQueue<Node> queue = new PriorityQueue<>(Comparator.comparingDouble(dist::get));
+        // Lazy deletion: an improved node is queued again and the stale entries are skipped when
+        // polled, since removing them from a PriorityQueue would take linear time
+        PriorityQueue<QueueEntry> queue = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry.distance));
         // Set to keep track of nodes whose shortest path has been finalized (visited)
         Set<Node> visitedFinal = new HashSet<>();
-        // List to store snapshots of visited nodes during exploration (for animation/debugging)
-        List<List<Node>> steps = new ArrayList<>();
-
-        // Initialize distances for all nodes in our working graph copy
-        for (Node node : graph.keySet()) {
-            dist.put(node, Double.POSITIVE_INFINITY);
-        }
-
-        if (start == null || end == null) {
-            steps.add(new ArrayList<>()); // Add an empty path if start or end is null
-            return steps;
-        }
 
         dist.put(start, 0.0);
-        queue.add(start);
+        queue.add(new QueueEntry(start, 0.0));
 
         while (!queue.isEmpty()) {
-            Node current = queue.poll();
+            Node current = queue.poll().node;
 
             if (visitedFinal.contains(current)) {
                 continue;
             }
             visitedFinal.add(current);
 
-            List<Node> currentExplorationStep = new ArrayList<>(visitedFinal);
-            steps.add(currentExplorationStep);
+            if (listener != null) {
+                listener.onSettled(current, dist.get(current), prev.get(current));
+            }
 
             if (current.equals(end)) {
                 break;
@@ -75,40 +72,32 @@ public class Dijkstra {
                 }
 
                 double newDist = dist.get(current) + edge.getTime(); // Changed from getWeight() to getTime()
-                // Ensure neighborNode is in dist map, which it should be if graph keys were used for init
                 if (newDist < dist.getOrDefault(neighborNode, Double.POSITIVE_INFINITY)) {
                     dist.put(neighborNode, newDist);
                     prev.put(neighborNode, current);
-                    queue.add(neighborNode);
+                    queue.add(new QueueEntry(neighborNode, newDist));
                 }
             }
         }
 
-        LinkedList<Node> path = new LinkedList<>();
-        // Check if 'end' node was reached and is present in the distance map
-        if (dist.containsKey(end) && dist.get(end) != Double.POSITIVE_INFINITY) {
-            Node crawl = end;
-            while (crawl != null) {
-                path.addFirst(crawl);
-                if (crawl.equals(start)) {
-                    break; // Path successfully reconstructed
-                }
-                crawl = prev.get(crawl); // Move to the previous node in the path
-            }
-            // If path is not empty and doesn't start with 'start', it means 'start' was not reached from 'end' via 'prev' map.
-            // This indicates no valid path was found.
-            if (!path.isEmpty() && !path.getFirst().equals(start)) {
-                path.clear(); // Invalid path
-            }
+        if (!visitedFinal.contains(end)) {
+            return ShortestPath.empty();
         }
-        // Special case: if start and end are the same, and the node exists in the graph.
-        // And no path was found above (e.g. isolated node).
-        if (start.equals(end) && graph.containsKey(start) && path.isEmpty()) {
-            path.addFirst(start);
+
+        LinkedList<Node> path = new LinkedList<>();
+        for (Node crawl = end; crawl != null; crawl = prev.get(crawl)) {
+            path.addFirst(crawl); // Move to the previous node in the path
         }
+        return new ShortestPath(path, dist.get(end));
+    }
 
-        steps.add(new ArrayList<>(path)); // Add the final reconstructed path
+    private static final class QueueEntry {
+        private final Node node;
+        private final double distance; // distance when queued; later entries for the node may be smaller
 
-        return steps;
+        private QueueEntry(Node node, double distance) {
+            this.node = node;
+            this.distance = distance;
+        }
     }
 }
@@ -0,0 +1,62 @@
+package org.example.Model;
+
+/**
+ * Dijkstra's algorithm running directly on the CSR arrays of a {@link CompactGraph}.
+ * <p>
+ * Search state (distances, predecessors, epoch stamps and an indexed heap with
+ * decrease-key) is pooled per thread in {@link SearchPools}, so a query only allocates its
+ * {@link Route}.
+ */
+public class DijkstraEngine implements RoutingEngine {
+    private final CompactGraph graph;
+    private final ThreadLocal<SearchState> states;
+
+    public DijkstraEngine(CompactGraph graph) {
+        this(graph, new SearchPools(graph.getNodeCount()));
+    }
+
+    public DijkstraEngine(CompactGraph graph, SearchPools pools) {
+        this.graph = graph;
+        this.states = pools.get(DijkstraEngine.class, () -> new SearchState(pools.getNodeCount()));
+    }
+
+    @Override
+    public Route findRoute(int source, int target, EdgeFilter filter, SettleListener listener) {
+        SearchState state = states.get();
+        state.reset();
+        IndexedMinHeap heap = state.getHeap();
+
+        state.update(source, 0.0, -1, -1, 0.0);
+        int settledCount = 0;
+
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            state.settle(current);
+            settledCount++;
+            if (listener != null) {
+                listener.onSettled(current, state.getDistance(current), state.getPredecessor(current));
+            }
+
+            if (current == target) {
+                break;
+            }
+
+            double currentDist = state.getDistance(current);
+            for (int e = graph.edgesStart(current); e < graph.edgesEnd(current); e++) {
+                int neighbor = graph.getTarget(e);
+                if (state.isSettled(neighbor) || (filter != null && !filter.accepts(e))) {
+                    continue;
+                }
+                double newDist = currentDist + graph.getTime(e);
+                if (newDist < state.getDistance(neighbor)) {
+                    state.update(neighbor, newDist, current, e, newDist);
+                }
+            }
+        }
+
+        if (!state.isSettled(target)) {
+            return Route.notFound(settledCount);
+        }
+        return state.extractRoute(source, target, settledCount);
+    }
+}
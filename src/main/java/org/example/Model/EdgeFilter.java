@@ -0,0 +1,26 @@
+package org.example.Model;
+
+/**
+ * Edges a search may use, as one bit per CSR edge of a {@link CompactGraph}, so the check in a
+ * relaxation loop is a single bit test. Obtained from {@link CompactGraph#edgeFilter(int)}.
+ */
+public final class EdgeFilter {
+    private final long[] bits;
+    private final int modeBits;
+
+    EdgeFilter(long[] bits, int modeBits) {
+        this.bits = bits;
+        this.modeBits = modeBits;
+    }
+
+    public boolean accepts(int edge) {
+        return (bits[edge >>> 6] & (1L << edge)) != 0;
+    }
+
+    /**
+     * @return the {@link TransportMode#bitsOf modes} the filter lets through
+     */
+    public int getModeBits() {
+        return modeBits;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.Model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Great-circle and map geometry helpers shared by the loaders, the goal-directed routing
+ * engines, the isochrone endpoint and the compact route encodings.
+ */
+public final class GeoMath {
+    public final static double EARTH_RADIUS_KM = 6371.0;
+    // Fixed-point scale of encoded coordinates: 1e-5 degrees, about a metre
+    public final static double COORDINATE_SCALE = 1e5;
+
+    private GeoMath() {
+    }
+
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        lat1 = Math.toRadians(lat1);
+        lat2 = Math.toRadians(lat2);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.sin(dLon / 2) * Math.sin(dLon / 2) * Math.cos(lat1) * Math.cos(lat2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_KM * c;
+    }
+
+    /**
+     * Convex hull (Andrew's monotone chain) of the given points, treating longitude/latitude
+     * as planar coordinates, which is accurate enough at city scale.
+     *
+     * @return indices into the input arrays in counter-clockwise order, without repeating the
+     * first point; fewer than three indices for degenerate input
+     */
+    public static int[] convexHull(double[] latitudes, double[] longitudes) {
+        int n = latitudes.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> longitudes[i]).thenComparingDouble(i -> latitudes[i]));
+        if (n < 3) {
+            int[] hull = new int[n];
+            for (int i = 0; i < n; i++) {
+                hull[i] = order[i];
+            }
+            return hull;
+        }
+
+        int[] hull = new int[2 * n];
+        int size = 0;
+        for (int i = 0; i < n; i++) { // lower hull
+            while (size >= 2 && cross(longitudes, latitudes, hull[size - 2], hull[size - 1], order[i]) <= 0) {
+                size--;
+            }
+            hull[size++] = order[i];
+        }
+        for (int i = n - 2, lowerSize = size + 1; i >= 0; i--) { // upper hull
+            while (size >= lowerSize && cross(longitudes, latitudes, hull[size - 2], hull[size - 1], order[i]) <= 0) {
+                size--;
+            }
+            hull[size++] = order[i];
+        }
+        return Arrays.copyOf(hull, size - 1); // the last point repeats the first
+    }
+
+    /**
+     * Coordinates as {@code lat, lon} pairs in units of 1e-5 degrees, each pair after the first
+     * relative to the one before it.
+     */
+    public static int[] deltaEncode(double[] latitudes, double[] longitudes) {
+        int[] deltas = new int[latitudes.length * 2];
+        int previousLat = 0;
+        int previousLon = 0;
+        for (int i = 0; i < latitudes.length; i++) {
+            int lat = (int) Math.round(latitudes[i] * COORDINATE_SCALE);
+            int lon = (int) Math.round(longitudes[i] * COORDINATE_SCALE);
+            deltas[2 * i] = lat - previousLat;
+            deltas[2 * i + 1] = lon - previousLon;
+            previousLat = lat;
+            previousLon = lon;
+        }
+        return deltas;
+    }
+
+    /**
+     * Google encoded polyline (precision 5) of the points: the deltas of {@link #deltaEncode}
+     * written as zig-zag varints in printable 5-bit groups, as map libraries decode it.
+     */
+    public static String encodePolyline(double[] latitudes, double[] longitudes) {
+        StringBuilder polyline = new StringBuilder(latitudes.length * 8);
+        for (int delta : deltaEncode(latitudes, longitudes)) {
+            int value = delta < 0 ? ~(delta << 1) : delta << 1;
+            while (value >= 0x20) {
+                polyline.append((char) ((0x20 | (value & 0x1f)) + 63));
+                value >>>= 5;
+            }
+            polyline.append((char) (value + 63));
+        }
+        return polyline.toString();
+    }
+
+    private static double cross(double[] x, double[] y, int o, int a, int b) {
+        return (x[a] - x[o]) * (y[b] - y[o]) - (y[a] - y[o]) * (x[b] - x[o]);
+    }
+}
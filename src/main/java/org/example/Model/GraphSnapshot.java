@@ -0,0 +1,163 @@
+package org.example.Model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary image of a {@link CompactGraph} so startup does not have to parse the JSON feeds.
+ * <p>
+ * Layout (big-endian): a header with magic, format version, the checksum of the JSON sources
+ * it was built from and the node/edge counts, followed by the primitive arrays of the graph
+ * in the order latitudes, longitudes, offsets, targets, times, distances, mode codes, line
+ * indices, and finally the id, type and line name strings as length-prefixed UTF-8. Reading
+ * maps the file with {@link FileChannel#map} and bulk-copies each section into its array.
+ */
+public final class GraphSnapshot {
+    private static final int MAGIC = 0x52464753; // "RFGS"
+    private static final int VERSION = 2; // 2: line indices and names
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4 + 4;
+
+    private GraphSnapshot() {
+    }
+
+    /**
+     * Writes to a temporary file first, so a crash never leaves a truncated snapshot behind.
+     */
+    public static void write(CompactGraph graph, long sourceChecksum, Path file) throws IOException {
+        int n = graph.getNodeCount();
+        int m = graph.getEdgeCount();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceChecksum);
+            out.writeInt(n);
+            out.writeInt(m);
+            out.writeInt(graph.getLineCount());
+            for (int v = 0; v < n; v++) {
+                out.writeDouble(graph.getLatitude(v));
+            }
+            for (int v = 0; v < n; v++) {
+                out.writeDouble(graph.getLongitude(v));
+            }
+            for (int v = 0; v <= n; v++) {
+                out.writeInt(v < n ? graph.edgesStart(v) : m);
+            }
+            for (int e = 0; e < m; e++) {
+                out.writeInt(graph.getTarget(e));
+            }
+            for (int e = 0; e < m; e++) {
+                out.writeFloat(graph.getTime(e));
+            }
+            for (int e = 0; e < m; e++) {
+                out.writeFloat(graph.getDistance(e));
+            }
+            for (int e = 0; e < m; e++) {
+                out.writeByte(graph.getModeCode(e));
+            }
+            for (int e = 0; e < m; e++) {
+                out.writeInt(graph.getLine(e));
+            }
+            for (int v = 0; v < n; v++) {
+                writeString(out, graph.getId(v));
+                writeString(out, graph.getType(v));
+            }
+            for (int line = 0; line < graph.getLineCount(); line++) {
+                writeString(out, graph.getLineName(line));
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the stored graph, or {@code null} if the file has another format version or was
+     * built from sources with a different checksum
+     */
+    public static CompactGraph read(Path file, long sourceChecksum) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != sourceChecksum) {
+                return null;
+            }
+            int n = buffer.getInt();
+            int m = buffer.getInt();
+            int lineCount = buffer.getInt();
+
+            double[] latitudes = new double[n];
+            double[] longitudes = new double[n];
+            buffer.asDoubleBuffer().get(latitudes);
+            skip(buffer, n * 8L);
+            buffer.asDoubleBuffer().get(longitudes);
+            skip(buffer, n * 8L);
+
+            int[] offsets = new int[n + 1];
+            int[] targets = new int[m];
+            buffer.asIntBuffer().get(offsets);
+            skip(buffer, (n + 1) * 4L);
+            buffer.asIntBuffer().get(targets);
+            skip(buffer, m * 4L);
+
+            float[] times = new float[m];
+            float[] distances = new float[m];
+            buffer.asFloatBuffer().get(times);
+            skip(buffer, m * 4L);
+            buffer.asFloatBuffer().get(distances);
+            skip(buffer, m * 4L);
+
+            byte[] modeCodes = new byte[m];
+            buffer.get(modeCodes);
+            int[] lines = new int[m];
+            buffer.asIntBuffer().get(lines);
+            skip(buffer, m * 4L);
+
+            String[] ids = new String[n];
+            String[] types = new String[n];
+            for (int v = 0; v < n; v++) {
+                ids[v] = readString(buffer);
+                types[v] = readString(buffer);
+            }
+            String[] lineNames = new String[lineCount];
+            for (int line = 0; line < lineCount; line++) {
+                lineNames[line] = readString(buffer);
+            }
+            return CompactGraph.fromArrays(ids, types, latitudes, longitudes,
+                    offsets, targets, times, distances, modeCodes, lines, lineNames);
+        }
+    }
+
+    private static void skip(ByteBuffer buffer, long bytes) {
+        buffer.position(buffer.position() + (int) bytes);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.Model;
+
+/**
+ * Great-circle distance divided by the fastest speed any edge of the graph achieves.
+ * <p>
+ * The speed is taken over the loaded edges themselves ({@code haversine(u, v) / time(e)}),
+ * not from a per-mode table, so every edge is at least as slow as the bound and the
+ * heuristic stays admissible and consistent for whatever the feed contains.
+ */
+public final class GreatCircleHeuristic implements Heuristic {
+    private final double[] latRadians;
+    private final double[] lonRadians;
+    private final double[] cosLat;
+    private final double minutesPerKm; // 0 disables the heuristic
+
+    public GreatCircleHeuristic(CompactGraph graph) {
+        this(graph, 1.0 / maxSpeedKmPerMinute(graph));
+    }
+
+    /**
+     * @param minutesPerKm pace no path may beat; 0 or infinite disables the heuristic
+     */
+    GreatCircleHeuristic(CompactGraph graph, double minutesPerKm) {
+        int n = graph.getNodeCount();
+        this.latRadians = new double[n];
+        this.lonRadians = new double[n];
+        this.cosLat = new double[n];
+        for (int i = 0; i < n; i++) {
+            latRadians[i] = Math.toRadians(graph.getLatitude(i));
+            lonRadians[i] = Math.toRadians(graph.getLongitude(i));
+            cosLat[i] = Math.cos(latRadians[i]);
+        }
+        this.minutesPerKm = minutesPerKm;
+    }
+
+    /**
+     * Fastest {@code great-circle km / minute} over all edges; infinite if an edge with
+     * positive length takes no time.
+     */
+    public static double maxSpeedKmPerMinute(CompactGraph graph) {
+        double maxSpeed = 0.0;
+        for (int u = 0; u < graph.getNodeCount(); u++) {
+            for (int e = graph.edgesStart(u); e < graph.edgesEnd(u); e++) {
+                int v = graph.getTarget(e);
+                double km = GeoMath.haversineKm(graph.getLatitude(u), graph.getLongitude(u),
+                        graph.getLatitude(v), graph.getLongitude(v));
+                if (km <= 0) {
+                    continue;
+                }
+                double time = graph.getTime(e);
+                if (time <= 0) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                maxSpeed = Math.max(maxSpeed, km / time);
+            }
+        }
+        return maxSpeed;
+    }
+
+    @Override
+    public double estimate(int from, int to) {
+        return estimate(from, latRadians[to], lonRadians[to], cosLat[to]);
+    }
+
+    /**
+     * Lower bound on the time from a node to an arbitrary position (degrees), e.g. a clicked
+     * destination; consistent as long as the last stretch to the position is no faster than
+     * the fastest edge.
+     */
+    public double estimate(int from, double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        return estimate(from, lat, Math.toRadians(longitude), Math.cos(lat));
+    }
+
+    private double estimate(int from, double toLat, double toLon, double toCosLat) {
+        if (minutesPerKm == 0.0 || Double.isInfinite(minutesPerKm)) {
+            return 0.0;
+        }
+        double dLat = toLat - latRadians[from];
+        double dLon = toLon - lonRadians[from];
+        double sinLat = Math.sin(dLat / 2);
+        double sinLon = Math.sin(dLon / 2);
+        double a = sinLat * sinLat + sinLon * sinLon * cosLat[from] * toCosLat;
+        double km = GeoMath.EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return km * minutesPerKm;
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.Model;
+
+/**
+ * Lower bound on the travel time between two nodes, used to direct a search.
+ * Implementations must never overestimate and must be consistent
+ * ({@code estimate(u, t) <= time(u, v) + estimate(v, t)} for every edge).
+ */
+public interface Heuristic {
+
+    /**
+     * @return a lower bound on the fastest travel time from {@code from} to {@code to}, in minutes
+     */
+    double estimate(int from, int to);
+}
@@ -0,0 +1,125 @@
+package org.example.Model;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over node indices {@code [0, capacity)} with O(log n) decrease-key.
+ * Keys live in a parallel primitive array, so nothing is boxed and nothing is allocated
+ * after construction.
+ */
+public final class IndexedMinHeap {
+    private final int[] heap; // heap slot -> node
+    private final double[] keys; // heap slot -> key
+    private final int[] positions; // node -> heap slot, -1 if absent
+    private int size = 0;
+
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int node) {
+        return positions[node] >= 0;
+    }
+
+    public double peekKey() {
+        return keys[0];
+    }
+
+    public int peek() {
+        return heap[0];
+    }
+
+    /**
+     * Inserts the node, or lowers its key if it is already queued with a larger one.
+     */
+    public void insertOrDecrease(int node, double key) {
+        int slot = positions[node];
+        if (slot < 0) {
+            slot = size++;
+            heap[slot] = node;
+            positions[node] = slot;
+        } else if (key >= keys[slot]) {
+            return;
+        }
+        keys[slot] = key;
+        siftUp(slot);
+    }
+
+    public int poll() {
+        int min = heap[0];
+        positions[min] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            keys[0] = keys[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Empties the heap in O(size) so it can be reused by the next query.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int slot) {
+        int node = heap[slot];
+        double key = keys[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            move(parent, slot);
+            slot = parent;
+        }
+        place(node, key, slot);
+    }
+
+    private void siftDown(int slot) {
+        int node = heap[slot];
+        double key = keys[slot];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            move(child, slot);
+            slot = child;
+        }
+        place(node, key, slot);
+    }
+
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        keys[to] = keys[from];
+        positions[heap[to]] = to;
+    }
+
+    private void place(int node, double key, int slot) {
+        heap[slot] = node;
+        keys[slot] = key;
+        positions[node] = slot;
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.Model;
+
+/**
+ * Result of a {@link RaptorEngine} query: the CSR edges travelled, in order, with the clock
+ * time (seconds since midnight) at which each one is left and arrived at. Transit legs start
+ * when the trip departs, so any waiting happens before them.
+ */
+public final class Journey {
+    private static final int[] EMPTY = new int[0];
+
+    private final int[] edges;
+    private final int[] departures;
+    private final int[] arrivals;
+    private final int departureTime;
+    private final int arrivalTime;
+    private final int trips;
+
+    public Journey(int[] edges, int[] departures, int[] arrivals, int departureTime, int arrivalTime, int trips) {
+        this.edges = edges;
+        this.departures = departures;
+        this.arrivals = arrivals;
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+        this.trips = trips;
+    }
+
+    public static Journey notFound(int departureTime) {
+        return new Journey(EMPTY, EMPTY, EMPTY, departureTime, Integer.MAX_VALUE, 0);
+    }
+
+    public boolean isFound() {
+        return arrivalTime != Integer.MAX_VALUE;
+    }
+
+    public int[] getEdges() {
+        return edges;
+    }
+
+    public int getDeparture(int leg) {
+        return departures[leg];
+    }
+
+    public int getArrival(int leg) {
+        return arrivals[leg];
+    }
+
+    // Requested departure, in seconds since midnight
+    public int getDepartureTime() {
+        return departureTime;
+    }
+
+    public int getArrivalTime() {
+        return arrivalTime;
+    }
+
+    // Number of scheduled trips boarded
+    public int getTrips() {
+        return trips;
+    }
+}
@@ -0,0 +1,180 @@
+package org.example.Model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * ALT heuristic (A*, landmarks, triangle inequality).
+ * <p>
+ * For a few landmarks {@code L} the exact travel times {@code d(L, v)} and {@code d(v, L)} to
+ * every node are precomputed. By the triangle inequality both {@code d(L, t) - d(L, v)} and
+ * {@code d(v, L) - d(t, L)} are lower bounds on {@code d(v, t)}, and their maximum over all
+ * landmarks is a consistent heuristic that follows the actual network rather than the map.
+ * <p>
+ * Landmarks are chosen by farthest-point selection: each new landmark is the node farthest
+ * (in travel time) from all landmarks picked so far, which spreads them to the edges of the
+ * network where they give the tightest bounds.
+ */
+public final class LandmarkHeuristic implements Heuristic {
+    private static final int FILE_MAGIC = 0x414C5431; // "ALT1"
+
+    private final int[] landmarks;
+    private final float[][] fromLandmark; // [k][n] d(L, v), infinite if unreachable
+    private final float[][] toLandmark; // [k][n] d(v, L)
+
+    private LandmarkHeuristic(int[] landmarks, float[][] fromLandmark, float[][] toLandmark) {
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Picks up to {@code landmarkCount} landmarks and runs a forward and a backward
+     * one-to-all search from each of them.
+     */
+    public static LandmarkHeuristic compute(CompactGraph graph, int landmarkCount) {
+        int n = graph.getNodeCount();
+        int k = Math.min(landmarkCount, n);
+        int[] landmarks = new int[k];
+        float[][] fromLandmark = new float[k][];
+        float[][] toLandmark = new float[k][];
+        SearchState state = new SearchState(n);
+
+        // Distance from the landmark set; the first landmark is the node farthest from node 0
+        float[] nearest = new float[n];
+        if (k > 0) {
+            fillDistances(graph, 0, false, state, nearest);
+        }
+        for (int i = 0; i < k; i++) {
+            int landmark = farthestNode(nearest, landmarks, i);
+            landmarks[i] = landmark;
+            fromLandmark[i] = new float[n];
+            toLandmark[i] = new float[n];
+            fillDistances(graph, landmark, false, state, fromLandmark[i]);
+            fillDistances(graph, landmark, true, state, toLandmark[i]);
+            for (int v = 0; v < n; v++) {
+                nearest[v] = i == 0 ? fromLandmark[i][v] : Math.min(nearest[v], fromLandmark[i][v]);
+            }
+        }
+        return new LandmarkHeuristic(landmarks, fromLandmark, toLandmark);
+    }
+
+    // Unreachable nodes count as farthest, so disconnected parts of the network get a landmark too
+    private static int farthestNode(float[] distances, int[] chosen, int chosenCount) {
+        int best = 0;
+        float bestDistance = -1f;
+        for (int v = 0; v < distances.length; v++) {
+            if (distances[v] > bestDistance && !contains(chosen, chosenCount, v)) {
+                best = v;
+                bestDistance = distances[v];
+            }
+        }
+        return best;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void fillDistances(CompactGraph graph, int source, boolean backward,
+                                      SearchState state, float[] out) {
+        Arrays.fill(out, Float.POSITIVE_INFINITY);
+        state.reset();
+        IndexedMinHeap heap = state.getHeap();
+        state.update(source, 0.0, -1, -1, 0.0);
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            state.settle(current);
+            double currentDist = state.getDistance(current);
+            out[current] = (float) currentDist;
+            int start = backward ? graph.inEdgesStart(current) : graph.edgesStart(current);
+            int end = backward ? graph.inEdgesEnd(current) : graph.edgesEnd(current);
+            for (int i = start; i < end; i++) {
+                int edge = backward ? graph.getInEdge(i) : i;
+                int neighbor = backward ? graph.getInSource(i) : graph.getTarget(i);
+                if (state.isSettled(neighbor)) {
+                    continue;
+                }
+                double newDist = currentDist + graph.getTime(edge);
+                if (newDist < state.getDistance(neighbor)) {
+                    state.update(neighbor, newDist, current, edge, newDist);
+                }
+            }
+        }
+    }
+
+    @Override
+    public double estimate(int from, int to) {
+        double best = 0.0;
+        for (int i = 0; i < landmarks.length; i++) {
+            float[] fromL = fromLandmark[i];
+            float[] toL = toLandmark[i];
+            // Terms with an unreachable side carry no information and are skipped
+            if (fromL[to] != Float.POSITIVE_INFINITY && fromL[from] != Float.POSITIVE_INFINITY) {
+                best = Math.max(best, (double) fromL[to] - fromL[from]);
+            }
+            if (toL[from] != Float.POSITIVE_INFINITY && toL[to] != Float.POSITIVE_INFINITY) {
+                best = Math.max(best, (double) toL[from] - toL[to]);
+            }
+        }
+        return best;
+    }
+
+    public int getLandmarkCount() {
+        return landmarks.length;
+    }
+
+    public int getLandmark(int i) {
+        return landmarks[i];
+    }
+
+    /**
+     * Writes the tables tagged with the graph fingerprint, see {@link #readFrom}.
+     */
+    public void writeTo(DataOutputStream out, CompactGraph graph) throws IOException {
+        out.writeInt(FILE_MAGIC);
+        out.writeLong(graph.fingerprint());
+        out.writeInt(graph.getNodeCount());
+        out.writeInt(landmarks.length);
+        for (int i = 0; i < landmarks.length; i++) {
+            out.writeInt(landmarks[i]);
+            for (float distance : fromLandmark[i]) {
+                out.writeFloat(distance);
+            }
+            for (float distance : toLandmark[i]) {
+                out.writeFloat(distance);
+            }
+        }
+    }
+
+    /**
+     * @return the stored tables, or {@code null} if they were written for a different graph
+     */
+    public static LandmarkHeuristic readFrom(DataInputStream in, CompactGraph graph) throws IOException {
+        int n = graph.getNodeCount();
+        if (in.readInt() != FILE_MAGIC || in.readLong() != graph.fingerprint() || in.readInt() != n) {
+            return null;
+        }
+        int k = in.readInt();
+        int[] landmarks = new int[k];
+        float[][] fromLandmark = new float[k][n];
+        float[][] toLandmark = new float[k][n];
+        for (int i = 0; i < k; i++) {
+            landmarks[i] = in.readInt();
+            for (int v = 0; v < n; v++) {
+                fromLandmark[i][v] = in.readFloat();
+            }
+            for (int v = 0; v < n; v++) {
+                toLandmark[i][v] = in.readFloat();
+            }
+        }
+        return new LandmarkHeuristic(landmarks, fromLandmark, toLandmark);
+    }
+}
@@ -2,6 +2,8 @@ package org.example.Model;
 
 import org.jxmapviewer.viewer.GeoPosition;
 
+import java.util.Objects;
+
 public class Node {
     private final String id;
     private final GeoPosition position;
@@ -28,4 +30,27 @@ public class Node {
     public void setType(String type) {
         this.type = type;
     }
+
+    // Identity is the station id, so nodes loaded twice (e.g. by the UI and the service) compare equal
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Node)) {
+            return false;
+        }
+        return Objects.equals(id, ((Node) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
 }
+
@@ -0,0 +1,124 @@
+package org.example.Model;
+
+import java.util.Arrays;
+
+/**
+ * One-to-many searches: travel times from one source to a set of targets, which stops as
+ * soon as every target is settled, and everything reachable within a time budget, which
+ * never expands past the budget. Either way the cost grows with the explored area rather
+ * than with the whole network. Thread-safe: each thread works on its own pooled search state.
+ */
+public class OneToManyEngine {
+    private final CompactGraph graph;
+    private final ThreadLocal<Workspace> workspaces;
+
+    public OneToManyEngine(CompactGraph graph) {
+        this(graph, new SearchPools(graph.getNodeCount()));
+    }
+
+    public OneToManyEngine(CompactGraph graph, SearchPools pools) {
+        this.graph = graph;
+        this.workspaces = pools.get(OneToManyEngine.class, () -> new Workspace(pools.getNodeCount()));
+    }
+
+    /**
+     * Fills {@code times[i]} with the travel time from {@code source} to {@code targets[i]},
+     * or {@link Double#POSITIVE_INFINITY} if the target cannot be reached.
+     */
+    public void travelTimes(int source, int[] targets, double[] times) {
+        Workspace workspace = workspaces.get();
+        SearchState state = workspace.state;
+        int stamp = workspace.nextStamp();
+        int remaining = 0;
+        for (int target : targets) {
+            if (workspace.targetMarks[target] != stamp) {
+                workspace.targetMarks[target] = stamp;
+                remaining++;
+            }
+        }
+
+        state.reset();
+        IndexedMinHeap heap = state.getHeap();
+        state.update(source, 0.0, -1, -1, 0.0);
+        while (remaining > 0 && !heap.isEmpty()) {
+            int current = heap.poll();
+            state.settle(current);
+            if (workspace.targetMarks[current] == stamp) {
+                remaining--;
+            }
+
+            double currentDist = state.getDistance(current);
+            for (int e = graph.edgesStart(current); e < graph.edgesEnd(current); e++) {
+                int neighbor = graph.getTarget(e);
+                if (state.isSettled(neighbor)) {
+                    continue;
+                }
+                double newDist = currentDist + graph.getTime(e);
+                if (newDist < state.getDistance(neighbor)) {
+                    state.update(neighbor, newDist, current, e, newDist);
+                }
+            }
+        }
+
+        for (int i = 0; i < targets.length; i++) {
+            times[i] = state.isSettled(targets[i]) ? state.getDistance(targets[i]) : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * All nodes reachable from {@code source} within {@code maxTime} minutes, in order of
+     * increasing travel time.
+     */
+    public ReachableSet reachableWithin(int source, double maxTime) {
+        SearchState state = workspaces.get().state;
+        state.reset();
+        IndexedMinHeap heap = state.getHeap();
+        state.update(source, 0.0, -1, -1, 0.0);
+        int[] nodes = new int[16];
+        double[] times = new double[16];
+        int count = 0;
+        while (!heap.isEmpty() && heap.peekKey() <= maxTime) {
+            int current = heap.poll();
+            state.settle(current);
+            double currentDist = state.getDistance(current);
+            if (count == nodes.length) {
+                nodes = Arrays.copyOf(nodes, count * 2);
+                times = Arrays.copyOf(times, count * 2);
+            }
+            nodes[count] = current;
+            times[count] = currentDist;
+            count++;
+
+            for (int e = graph.edgesStart(current); e < graph.edgesEnd(current); e++) {
+                int neighbor = graph.getTarget(e);
+                if (state.isSettled(neighbor)) {
+                    continue;
+                }
+                double newDist = currentDist + graph.getTime(e);
+                if (newDist <= maxTime && newDist < state.getDistance(neighbor)) {
+                    state.update(neighbor, newDist, current, e, newDist);
+                }
+            }
+        }
+        return new ReachableSet(Arrays.copyOf(nodes, count), Arrays.copyOf(times, count));
+    }
+
+    private static final class Workspace {
+        private final SearchState state;
+        private final int[] targetMarks;
+        private int stamp = 0;
+
+        private Workspace(int nodeCount) {
+            this.state = new SearchState(nodeCount);
+            this.targetMarks = new int[nodeCount];
+        }
+
+        private int nextStamp() {
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(targetMarks, 0);
+                stamp = 1;
+            }
+            return stamp;
+        }
+    }
+}
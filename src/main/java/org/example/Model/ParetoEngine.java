@@ -0,0 +1,386 @@
+package org.example.Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Multi-criteria label-setting search: every journey from source to target that is not beaten
+ * on total time, number of transfers and walking time at once.
+ * <p>
+ * A node keeps a bag of labels, one per non-dominated way of reaching it. A ride is a run of
+ * edges on the same line (or the same unscheduled mode, e.g. one taxi); boarding a ride other
+ * than the current one costs a transfer, so a label also remembers its ride. Labels leave the
+ * queue in order of {@code time + heuristic}, which with a consistent {@link Heuristic} means
+ * a label is never dominated by one created after it. The search prunes labels that
+ * <ul>
+ *     <li>are dominated by a label in the target bag, using the heuristic as a lower bound on
+ *     the remaining time,</li>
+ *     <li>could only arrive later than {@code maxTimeFactor} times the fastest journey,</li>
+ *     <li>do not fit into their node's bag of at most {@code maxLabelsPerNode} labels (the
+ *     target's bag is not limited); a full bag drops its slowest label for a faster one, so
+ *     the fastest journey is always found but slow journeys with little walking may be
+ *     missed.</li>
+ * </ul>
+ * Thread-safe: each thread works on its own pooled workspace.
+ */
+public class ParetoEngine {
+    private static final int NO_RIDE = CompactGraph.NO_RIDE;
+
+    private final CompactGraph graph;
+    private final Heuristic heuristic;
+    private final int maxLabelsPerNode;
+    private final double maxTimeFactor;
+    private final ThreadLocal<Workspace> workspaces;
+
+    /**
+     * @param maxTimeFactor journeys slower than this multiple of the fastest one are not
+     *                      searched; {@code <= 0} disables the limit
+     */
+    public ParetoEngine(CompactGraph graph, Heuristic heuristic, int maxLabelsPerNode, double maxTimeFactor) {
+        this(graph, heuristic, maxLabelsPerNode, maxTimeFactor, new SearchPools(graph.getNodeCount()));
+    }
+
+    public ParetoEngine(CompactGraph graph, Heuristic heuristic, int maxLabelsPerNode, double maxTimeFactor,
+                        SearchPools pools) {
+        this.graph = graph;
+        this.heuristic = heuristic;
+        this.maxLabelsPerNode = Math.max(1, maxLabelsPerNode);
+        this.maxTimeFactor = maxTimeFactor > 0 ? maxTimeFactor : Double.POSITIVE_INFINITY;
+        this.workspaces = pools.get(ParetoEngine.class, () -> new Workspace(pools.getNodeCount()));
+    }
+
+    /**
+     * @return the Pareto set ordered by total time, empty if the target is unreachable
+     */
+    public List<ParetoRoute> findRoutes(int source, int target) {
+        return findRoutes(source, target, null);
+    }
+
+    /**
+     * Same as {@link #findRoutes(int, int)}, only using edges accepted by {@code filter}
+     * (null for all edges).
+     */
+    public List<ParetoRoute> findRoutes(int source, int target, EdgeFilter filter) {
+        Workspace ws = workspaces.get();
+        ws.reset();
+        int first = ws.newLabel(source, 0.0, 0.0, 0, NO_RIDE, -1, -1);
+        ws.addToBag(first);
+        ws.push(first, heuristic.estimate(source, target));
+
+        double timeLimit = Double.POSITIVE_INFINITY;
+        boolean targetReached = false;
+        while (ws.heapSize > 0) {
+            int label = ws.poll();
+            if (ws.dead[label]) {
+                continue;
+            }
+            int node = ws.node[label];
+            if (node == target) {
+                if (!targetReached) {
+                    targetReached = true; // the first label at the target is the fastest
+                    timeLimit = Double.isInfinite(maxTimeFactor) ? timeLimit : ws.time[label] * maxTimeFactor;
+                }
+                continue;
+            }
+
+            double time = ws.time[label];
+            double walking = ws.walking[label];
+            int boardings = ws.boardings[label];
+            int ride = ws.ride[label];
+            for (int e = graph.edgesStart(node); e < graph.edgesEnd(node); e++) {
+                // Closed edges are skipped explicitly: while no option is known the time limit is infinite
+                if ((filter != null && !filter.accepts(e)) || graph.isClosed(e)) {
+                    continue;
+                }
+                int neighbor = graph.getTarget(e);
+                double newTime = time + graph.getTime(e);
+                double estimate = heuristic.estimate(neighbor, target);
+                if (newTime + estimate > timeLimit) {
+                    continue;
+                }
+                TransportMode mode = graph.getMode(e);
+                double newWalking = mode == TransportMode.WALKING ? walking + graph.getTime(e) : walking;
+                int newRide = graph.getRide(e);
+                int newBoardings = newRide != NO_RIDE && newRide != ride ? boardings + 1 : boardings;
+                if (ws.isDominatedAtTarget(target, newTime + estimate, newWalking, newBoardings)
+                        || !ws.fitsBag(neighbor, newTime, newWalking, newBoardings, newRide,
+                        neighbor == target ? Integer.MAX_VALUE : maxLabelsPerNode)) {
+                    continue;
+                }
+                int created = ws.newLabel(neighbor, newTime, newWalking, newBoardings, newRide, label, e);
+                ws.addToBag(created);
+                ws.push(created, newTime + estimate);
+            }
+        }
+        return collect(ws, source, target, timeLimit);
+    }
+
+    /**
+     * Number of labels the last query on this thread created, useful to compare bag limits.
+     */
+    public int getLastLabelCount() {
+        return workspaces.get().labelCount;
+    }
+
+    // Labels reaching the target before the fastest one was known may still exceed the limit
+    private List<ParetoRoute> collect(Workspace ws, int source, int target, double timeLimit) {
+        List<Integer> labels = new ArrayList<>();
+        if (ws.bagEpoch[target] == ws.epoch) {
+            for (int label = ws.bagHead[target]; label >= 0; label = ws.nextInBag[label]) {
+                if (!ws.dead[label] && ws.time[label] <= timeLimit) {
+                    labels.add(label);
+                }
+            }
+        }
+        // The ride only matters while a journey can still be extended, at the target it is ignored
+        List<ParetoRoute> routes = new ArrayList<>(labels.size());
+        for (int label : labels) {
+            boolean dominated = false;
+            for (int other : labels) {
+                if (other != label && dominatesAtTarget(ws, other, label)) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) {
+                routes.add(new ParetoRoute(extractRoute(ws, source, label),
+                        Math.max(0, ws.boardings[label] - 1), ws.walking[label]));
+            }
+        }
+        routes.sort((a, b) -> Double.compare(a.getTotalTime(), b.getTotalTime()));
+        return routes;
+    }
+
+    // Compared on transfers, as reported: no ride at all is no better than one. Ties are broken
+    // by label index, so of two identical journeys exactly one survives.
+    private static boolean dominatesAtTarget(Workspace ws, int a, int b) {
+        int transfersA = Math.max(0, ws.boardings[a] - 1);
+        int transfersB = Math.max(0, ws.boardings[b] - 1);
+        boolean noWorse = ws.time[a] <= ws.time[b] && ws.walking[a] <= ws.walking[b] && transfersA <= transfersB;
+        boolean equal = ws.time[a] == ws.time[b] && ws.walking[a] == ws.walking[b] && transfersA == transfersB;
+        return noWorse && (!equal || a < b);
+    }
+
+    private Route extractRoute(Workspace ws, int source, int label) {
+        int length = 1;
+        for (int crawl = label; ws.parent[crawl] >= 0; crawl = ws.parent[crawl]) {
+            length++;
+        }
+        int[] nodes = new int[length];
+        int[] edges = new int[length - 1];
+        int crawl = label;
+        for (int i = length - 1; i > 0; i--) {
+            nodes[i] = ws.node[crawl];
+            edges[i - 1] = ws.edge[crawl];
+            crawl = ws.parent[crawl];
+        }
+        nodes[0] = source;
+        return new Route(nodes, edges, ws.time[label], ws.labelCount);
+    }
+
+    /**
+     * Labels live in parallel growable arrays; bags are singly linked lists through
+     * {@code nextInBag}, valid for nodes stamped with the current epoch.
+     */
+    private static final class Workspace {
+        private int[] node = new int[1024];
+        private double[] time = new double[1024];
+        private double[] walking = new double[1024];
+        private int[] boardings = new int[1024];
+        private int[] ride = new int[1024];
+        private int[] parent = new int[1024];
+        private int[] edge = new int[1024];
+        private int[] nextInBag = new int[1024];
+        private boolean[] dead = new boolean[1024];
+        private double[] key = new double[1024];
+        private int labelCount = 0;
+
+        private final int[] bagHead;
+        private final int[] bagSize;
+        private final int[] bagEpoch;
+        private int epoch = 0;
+
+        private int[] heap = new int[1024];
+        private int heapSize = 0;
+
+        private Workspace(int nodeCount) {
+            this.bagHead = new int[nodeCount];
+            this.bagSize = new int[nodeCount];
+            this.bagEpoch = new int[nodeCount];
+        }
+
+        private void reset() {
+            labelCount = 0;
+            heapSize = 0;
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(bagEpoch, 0);
+                epoch = 1;
+            }
+        }
+
+        private int newLabel(int at, double labelTime, double labelWalking, int labelBoardings,
+                             int labelRide, int labelParent, int labelEdge) {
+            if (labelCount == node.length) {
+                int capacity = labelCount * 2;
+                node = Arrays.copyOf(node, capacity);
+                time = Arrays.copyOf(time, capacity);
+                walking = Arrays.copyOf(walking, capacity);
+                boardings = Arrays.copyOf(boardings, capacity);
+                ride = Arrays.copyOf(ride, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                edge = Arrays.copyOf(edge, capacity);
+                nextInBag = Arrays.copyOf(nextInBag, capacity);
+                dead = Arrays.copyOf(dead, capacity);
+                key = Arrays.copyOf(key, capacity);
+            }
+            int label = labelCount++;
+            node[label] = at;
+            time[label] = labelTime;
+            walking[label] = labelWalking;
+            boardings[label] = labelBoardings;
+            ride[label] = labelRide;
+            parent[label] = labelParent;
+            edge[label] = labelEdge;
+            dead[label] = false;
+            return label;
+        }
+
+        private void addToBag(int label) {
+            int at = node[label];
+            if (bagEpoch[at] != epoch) {
+                bagEpoch[at] = epoch;
+                bagHead[at] = -1;
+                bagSize[at] = 0;
+            }
+            nextInBag[label] = bagHead[at];
+            bagHead[at] = label;
+            bagSize[at]++;
+        }
+
+        /**
+         * Rejects a candidate dominated by a label at {@code at}; otherwise unlinks the labels it
+         * dominates and reports whether the bag has room left, making room by dropping its
+         * slowest label if the candidate is faster. A label that already rides
+         * {@code candidateRide} dominates with as many boardings, any other needs one fewer.
+         */
+        private boolean fitsBag(int at, double candidateTime, double candidateWalking, int candidateBoardings,
+                                int candidateRide, int maxLabels) {
+            if (bagEpoch[at] != epoch) {
+                return true;
+            }
+            int previous = -1;
+            for (int label = bagHead[at]; label >= 0; label = nextInBag[label]) {
+                if (time[label] <= candidateTime && walking[label] <= candidateWalking
+                        && (boardings[label] < candidateBoardings
+                        || (boardings[label] == candidateBoardings && ride[label] == candidateRide))) {
+                    return false;
+                }
+                if (candidateTime <= time[label] && candidateWalking <= walking[label]
+                        && (candidateBoardings < boardings[label]
+                        || (candidateBoardings == boardings[label] && candidateRide == ride[label]))) {
+                    dead[label] = true;
+                    bagSize[at]--;
+                    if (previous < 0) {
+                        bagHead[at] = nextInBag[label];
+                    } else {
+                        nextInBag[previous] = nextInBag[label];
+                    }
+                    continue;
+                }
+                previous = label;
+            }
+            if (bagSize[at] < maxLabels) {
+                return true;
+            }
+            int slowest = -1;
+            int beforeSlowest = -1;
+            previous = -1;
+            for (int label = bagHead[at]; label >= 0; label = nextInBag[label]) {
+                if (slowest < 0 || time[label] > time[slowest]) {
+                    slowest = label;
+                    beforeSlowest = previous;
+                }
+                previous = label;
+            }
+            if (slowest < 0 || time[slowest] <= candidateTime) {
+                return false;
+            }
+            dead[slowest] = true;
+            bagSize[at]--;
+            if (beforeSlowest < 0) {
+                bagHead[at] = nextInBag[slowest];
+            } else {
+                nextInBag[beforeSlowest] = nextInBag[slowest];
+            }
+            return true;
+        }
+
+        // Whether a journey through this label can no longer beat any journey found so far
+        private boolean isDominatedAtTarget(int target, double arrivalBound, double candidateWalking,
+                                            int candidateBoardings) {
+            if (bagEpoch[target] != epoch) {
+                return false;
+            }
+            for (int label = bagHead[target]; label >= 0; label = nextInBag[label]) {
+                if (time[label] <= arrivalBound && walking[label] <= candidateWalking
+                        && boardings[label] <= candidateBoardings) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void push(int label, double labelKey) {
+            key[label] = labelKey;
+            if (heapSize == heap.length) {
+                heap = Arrays.copyOf(heap, heapSize * 2);
+            }
+            int slot = heapSize++;
+            while (slot > 0) {
+                int parentSlot = (slot - 1) >>> 1;
+                if (!before(label, heap[parentSlot])) {
+                    break;
+                }
+                heap[slot] = heap[parentSlot];
+                slot = parentSlot;
+            }
+            heap[slot] = label;
+        }
+
+        private int poll() {
+            int min = heap[0];
+            int last = heap[--heapSize];
+            int slot = 0;
+            while (true) {
+                int child = 2 * slot + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && before(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!before(heap[child], last)) {
+                    break;
+                }
+                heap[slot] = heap[child];
+                slot = child;
+            }
+            if (heapSize > 0) {
+                heap[slot] = last;
+            }
+            return min;
+        }
+
+        // Lexicographic on (key, boardings, walking), so equal-time labels settle the better one first
+        private boolean before(int a, int b) {
+            if (key[a] != key[b]) {
+                return key[a] < key[b];
+            }
+            if (boardings[a] != boardings[b]) {
+                return boardings[a] < boardings[b];
+            }
+            return walking[a] < walking[b];
+        }
+    }
+}
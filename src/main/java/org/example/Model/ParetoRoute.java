@@ -0,0 +1,34 @@
+package org.example.Model;
+
+/**
+ * One journey of a Pareto set returned by {@link ParetoEngine}: the route and the criteria it
+ * was compared on besides its total time.
+ */
+public final class ParetoRoute {
+    private final Route route;
+    private final int transfers;
+    private final double walkingTime; // minutes
+
+    public ParetoRoute(Route route, int transfers, double walkingTime) {
+        this.route = route;
+        this.transfers = transfers;
+        this.walkingTime = walkingTime;
+    }
+
+    public Route getRoute() {
+        return route;
+    }
+
+    public double getTotalTime() {
+        return route.getTotalTime();
+    }
+
+    // Changes between vehicles; walking between two rides does not count as a ride
+    public int getTransfers() {
+        return transfers;
+    }
+
+    public double getWalkingTime() {
+        return walkingTime;
+    }
+}
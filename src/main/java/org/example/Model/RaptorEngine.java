@@ -0,0 +1,420 @@
+package org.example.Model;
+
+import java.util.Arrays;
+
+/**
+ * Earliest-arrival queries on a {@link TransitTimetable} with RAPTOR (Delling, Pajor and
+ * Werneck, "Round-Based Public Transit Routing").
+ * <p>
+ * Round {@code k} computes the earliest arrival at every stop using at most {@code k} trips:
+ * it scans each pattern serving a stop improved in round {@code k - 1}, hopping on the
+ * earliest catchable trip, and then relaxes the unscheduled edges (walking, taxi) from every
+ * stop improved in this round with a multi-source Dijkstra. Arrivals are kept per round so
+ * the journey can be reconstructed. A stop is only improved if, at the fastest pace of any
+ * edge, it could still beat the best known arrival at the target and an arrival limit that
+ * starts near the lower bound and doubles until the answer falls below it; without that
+ * every round would flood the whole walking network. Thread-safe: each thread works on its own
+ * pooled workspace.
+ */
+public class RaptorEngine {
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int MIN_SLACK_SECONDS = 15 * 60;
+    private static final long MAX_LIMIT = 7 * 24 * 3600; // beyond this the limit is dropped
+
+    // How a stop's arrival in a round was reached
+    private static final byte NONE = 0; // carried over from the previous round
+    private static final byte SOURCE = 1;
+    private static final byte TRIP = 2;
+    private static final byte TRANSFER = 3;
+
+    private final TransitTimetable timetable;
+    private final CompactGraph graph;
+    private final int maxRounds;
+    private final GreatCircleHeuristic lowerBound;
+    private final ThreadLocal<Workspace> workspaces;
+
+    /**
+     * @param maxTransfers transfers between trips allowed in a journey; it boards at most
+     *                     {@code maxTransfers + 1} trips
+     */
+    public RaptorEngine(TransitTimetable timetable, int maxTransfers) {
+        this(timetable, maxTransfers, new SearchPools(timetable.getGraph().getNodeCount()));
+    }
+
+    public RaptorEngine(TransitTimetable timetable, int maxTransfers, SearchPools pools) {
+        this.timetable = timetable;
+        this.graph = timetable.getGraph();
+        this.maxRounds = Math.max(0, maxTransfers) + 1;
+        this.lowerBound = new GreatCircleHeuristic(graph, minPace(graph));
+        int nodeCount = pools.getNodeCount();
+        int patternCount = timetable.getPatternCount();
+        this.workspaces = pools.get(RaptorEngine.class, () -> new Workspace(maxRounds + 1, nodeCount, patternCount));
+    }
+
+    /**
+     * Smallest minutes per great-circle km over all edges, using the rounded seconds the engine
+     * runs on, so the bound holds for the integer clock as well.
+     */
+    private static double minPace(CompactGraph graph) {
+        double pace = Double.POSITIVE_INFINITY;
+        for (int u = 0; u < graph.getNodeCount(); u++) {
+            for (int e = graph.edgesStart(u); e < graph.edgesEnd(u); e++) {
+                int v = graph.getTarget(e);
+                double km = GeoMath.haversineKm(graph.getLatitude(u), graph.getLongitude(u),
+                        graph.getLatitude(v), graph.getLongitude(v));
+                if (km > 0) {
+                    pace = Math.min(pace, TransitTimetable.toSeconds(graph.getTime(e)) / 60.0 / km);
+                }
+            }
+        }
+        return Double.isInfinite(pace) ? 0.0 : pace;
+    }
+
+    /**
+     * @param departureTime seconds since midnight at which the traveller is at {@code source}
+     */
+    public Journey earliestArrival(int source, int target, int departureTime) {
+        Workspace ws = workspaces.get();
+        if (!ws.fits(maxRounds + 1, timetable.getPatternCount())) {
+            // Pooled for an earlier timetable of the same stops with fewer patterns or rounds
+            ws = new Workspace(maxRounds + 1, graph.getNodeCount(), timetable.getPatternCount());
+            workspaces.set(ws);
+        }
+        ws.nextQuery();
+        // Until the target is reached nothing bounds the walking search, so the search first
+        // assumes an arrival limit and widens it while the answer is not below it
+        long slack = Math.max(MIN_SLACK_SECONDS, 2L * boundSeconds(source, target));
+        while (true) {
+            long limit = departureTime + slack;
+            ws.limit = limit < MAX_LIMIT ? (int) limit : INFINITY;
+            search(ws, source, target, departureTime);
+            if (ws.limit == INFINITY || (ws.isTouched(target) && ws.best[target] < ws.limit)) {
+                return reconstruct(ws, source, target, departureTime);
+            }
+            slack *= 2;
+        }
+    }
+
+    private void search(Workspace ws, int source, int target, int departureTime) {
+        ws.reset();
+        ws.touch(source);
+        ws.arrivals[0][source] = departureTime;
+        ws.kinds[0][source] = SOURCE;
+        ws.best[source] = departureTime;
+        ws.mark(source);
+        relaxTransfers(ws, 0, target);
+
+        for (int k = 1; k <= maxRounds && ws.markedCount > 0; k++) {
+            int[] previous = ws.arrivals[k - 1];
+            int[] current = ws.arrivals[k];
+            for (int i = 0; i < ws.touchedCount; i++) {
+                int stop = ws.touched[i];
+                current[stop] = previous[stop];
+                ws.kinds[k][stop] = NONE;
+            }
+            collectPatterns(ws);
+            for (int i = 0; i < ws.queuedCount; i++) {
+                int pattern = ws.queued[i];
+                scanPattern(ws, k, pattern, ws.queuePosition[pattern], target);
+                ws.queuePosition[pattern] = -1;
+            }
+            ws.queuedCount = 0;
+            relaxTransfers(ws, k, target);
+        }
+    }
+
+    /**
+     * Queues every pattern serving a stop marked in the previous round, from the earliest such
+     * position, and turns the marks into the boarding stops of this round.
+     */
+    private void collectPatterns(Workspace ws) {
+        if (++ws.boardStamp == Integer.MAX_VALUE) {
+            Arrays.fill(ws.boardable, 0);
+            ws.boardStamp = 1;
+        }
+        for (int i = 0; i < ws.markedCount; i++) {
+            int stop = ws.marked[i];
+            ws.markedRound[stop] = -1;
+            ws.boardable[stop] = ws.boardStamp;
+            for (int entry = timetable.stopPatternsStart(stop); entry < timetable.stopPatternsEnd(stop); entry++) {
+                int pattern = timetable.getStopPattern(entry);
+                int position = timetable.getStopPatternPosition(entry);
+                int queuedAt = ws.queuePosition[pattern];
+                if (queuedAt < 0) {
+                    ws.queuePosition[pattern] = position;
+                    ws.queued[ws.queuedCount++] = pattern;
+                } else if (position < queuedAt) {
+                    ws.queuePosition[pattern] = position;
+                }
+            }
+        }
+        ws.markedCount = 0;
+        ws.markRound++;
+    }
+
+    private void scanPattern(Workspace ws, int k, int pattern, int fromPosition, int target) {
+        int[] previous = ws.arrivals[k - 1];
+        int[] current = ws.arrivals[k];
+        int start = timetable.patternStart(pattern);
+        int length = timetable.patternEnd(pattern) - start;
+        int trip = -1;
+        int boardPosition = -1;
+        for (int position = fromPosition; position < length; position++) {
+            int stop = timetable.getPatternStop(start + position);
+            int tripTime = INFINITY;
+            if (trip >= 0) {
+                tripTime = timetable.getStopTime(pattern, trip, position);
+                if (tripTime >= Math.min(ws.best[target], ws.limit)) {
+                    // Arrivals only get later along the trip, so it cannot improve anything further on
+                    trip = -1;
+                    tripTime = INFINITY;
+                } else if (tripTime < ws.best[stop] && isUseful(ws, stop, tripTime, target)) {
+                    ws.touch(stop);
+                    current[stop] = tripTime;
+                    ws.best[stop] = tripTime;
+                    ws.kinds[k][stop] = TRIP;
+                    ws.parentA[k][stop] = pattern;
+                    ws.parentB[k][stop] = boardPosition;
+                    ws.parentC[k][stop] = trip;
+                    ws.parentD[k][stop] = position;
+                    ws.mark(stop);
+                }
+            }
+            // A stop not improved in the previous round was already boarded from in an earlier
+            // one, so only the improved stops can catch an earlier trip
+            if (ws.boardable[stop] == ws.boardStamp && previous[stop] < tripTime) {
+                int earlier = timetable.earliestTrip(pattern, position, previous[stop], trip < 0 ? -1 : trip);
+                if (earlier >= 0) {
+                    trip = earlier;
+                    boardPosition = position;
+                }
+            }
+        }
+    }
+
+    /**
+     * Multi-source Dijkstra over the unscheduled edges, seeded with the stops improved in round
+     * {@code k}. Walking and taxi are not bound to departures, so their cost is just their time.
+     */
+    private void relaxTransfers(Workspace ws, int k, int target) {
+        int[] current = ws.arrivals[k];
+        IndexedMinHeap heap = ws.heap;
+        for (int i = 0; i < ws.markedCount; i++) {
+            heap.insertOrDecrease(ws.marked[i], current[ws.marked[i]]);
+        }
+        while (!heap.isEmpty()) {
+            int stop = heap.poll();
+            int time = current[stop];
+            for (int e = graph.edgesStart(stop); e < graph.edgesEnd(stop); e++) {
+                if (graph.getLine(e) >= 0 || graph.isClosed(e)) {
+                    continue;
+                }
+                int neighbor = graph.getTarget(e);
+                int arrival = time + TransitTimetable.toSeconds(graph.getTime(e));
+                if (arrival < ws.best[neighbor] && isUseful(ws, neighbor, arrival, target)) {
+                    ws.touch(neighbor);
+                    current[neighbor] = arrival;
+                    ws.best[neighbor] = arrival;
+                    ws.kinds[k][neighbor] = TRANSFER;
+                    ws.parentA[k][neighbor] = stop;
+                    ws.parentB[k][neighbor] = e;
+                    ws.mark(neighbor);
+                    heap.insertOrDecrease(neighbor, arrival);
+                }
+            }
+        }
+    }
+
+    /**
+     * Target pruning: whether arriving at {@code stop} at {@code time} could still beat both the
+     * best arrival at the target and the arrival limit of the search.
+     */
+    private boolean isUseful(Workspace ws, int stop, int time, int target) {
+        if (ws.boundStamp[stop] != ws.queryStamp) {
+            ws.boundStamp[stop] = ws.queryStamp;
+            ws.bounds[stop] = boundSeconds(stop, target);
+        }
+        return (long) time + ws.bounds[stop] < Math.min(ws.best[target], ws.limit);
+    }
+
+    private int boundSeconds(int stop, int target) {
+        // Floored with a little slack, the estimate is a double over float coordinates
+        return (int) Math.max(0.0, Math.floor(lowerBound.estimate(stop, target) * 60.0 - 1e-6));
+    }
+
+    private Journey reconstruct(Workspace ws, int source, int target, int departureTime) {
+        if (!ws.isTouched(target)) {
+            return Journey.notFound(departureTime);
+        }
+        int arrival = ws.best[target];
+        int round = 0;
+        while (ws.arrivals[round][target] != arrival) {
+            round++;
+        }
+
+        // Walks backwards, so the legs are collected in reverse and flipped at the end
+        int[] edges = new int[8];
+        int[] departures = new int[8];
+        int[] arrivals = new int[8];
+        int count = 0;
+        int trips = 0;
+        int stop = target;
+        while (true) {
+            byte kind = ws.kinds[round][stop];
+            if (kind == SOURCE) {
+                break;
+            }
+            if (kind == NONE) {
+                round--;
+                continue;
+            }
+            int legs = kind == TRANSFER ? 1 : ws.parentD[round][stop] - ws.parentB[round][stop];
+            if (count + legs > edges.length) {
+                int capacity = Math.max(edges.length * 2, count + legs);
+                edges = Arrays.copyOf(edges, capacity);
+                departures = Arrays.copyOf(departures, capacity);
+                arrivals = Arrays.copyOf(arrivals, capacity);
+            }
+            if (kind == TRANSFER) {
+                int from = ws.parentA[round][stop];
+                edges[count] = ws.parentB[round][stop];
+                departures[count] = ws.arrivals[round][from];
+                arrivals[count] = ws.arrivals[round][stop];
+                count++;
+                stop = from;
+            } else {
+                int pattern = ws.parentA[round][stop];
+                int board = ws.parentB[round][stop];
+                int trip = ws.parentC[round][stop];
+                int start = timetable.patternStart(pattern);
+                for (int position = ws.parentD[round][stop] - 1; position >= board; position--) {
+                    edges[count] = timetable.getHopEdge(start + position);
+                    departures[count] = timetable.getStopTime(pattern, trip, position);
+                    arrivals[count] = timetable.getStopTime(pattern, trip, position + 1);
+                    count++;
+                }
+                stop = timetable.getPatternStop(start + board);
+                trips++;
+                round--;
+            }
+        }
+        if (stop != source) {
+            throw new IllegalStateException("Journey reconstruction did not end at the source");
+        }
+        reverse(edges, count);
+        reverse(departures, count);
+        reverse(arrivals, count);
+        return new Journey(Arrays.copyOf(edges, count), Arrays.copyOf(departures, count),
+                Arrays.copyOf(arrivals, count), departureTime, arrival, trips);
+    }
+
+    private static void reverse(int[] values, int count) {
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    /**
+     * Per-thread query state. Only stops touched by the previous query are reset, and round
+     * rows are only read for touched stops, so a query costs what it explores.
+     */
+    private static final class Workspace {
+        private final int[][] arrivals; // round -> stop -> arrival, valid for touched stops
+        private final byte[][] kinds;
+        private final int[][] parentA; // TRIP: pattern, TRANSFER: previous stop
+        private final int[][] parentB; // TRIP: boarding position, TRANSFER: edge
+        private final int[][] parentC; // TRIP: trip
+        private final int[][] parentD; // TRIP: alighting position
+        private final int[] best;
+        private int limit = INFINITY; // arrivals at or after this are not searched
+        private final int[] bounds; // lower bound to the target, valid where boundStamp matches
+        private final int[] boundStamp;
+        private int queryStamp = 0;
+        private final boolean[] touchedFlags;
+        private final int[] touched;
+        private int touchedCount = 0;
+        private final int[] marked;
+        private final int[] markedRound;
+        private int markedCount = 0;
+        private int markRound = 0;
+        private final int[] queuePosition;
+        private final int[] queued;
+        private int queuedCount = 0;
+        private final int[] boardable; // stop -> boardStamp of the round it may be boarded in
+        private int boardStamp = 0;
+        private final IndexedMinHeap heap;
+
+        private Workspace(int rounds, int nodeCount, int patternCount) {
+            this.arrivals = new int[rounds][nodeCount];
+            this.kinds = new byte[rounds][nodeCount];
+            this.parentA = new int[rounds][nodeCount];
+            this.parentB = new int[rounds][nodeCount];
+            this.parentC = new int[rounds][nodeCount];
+            this.parentD = new int[rounds][nodeCount];
+            this.best = new int[nodeCount];
+            Arrays.fill(best, INFINITY);
+            this.bounds = new int[nodeCount];
+            this.boundStamp = new int[nodeCount];
+            this.touchedFlags = new boolean[nodeCount];
+            this.touched = new int[nodeCount];
+            this.marked = new int[nodeCount];
+            this.markedRound = new int[nodeCount];
+            Arrays.fill(markedRound, -1);
+            this.queuePosition = new int[patternCount];
+            Arrays.fill(queuePosition, -1);
+            this.queued = new int[patternCount];
+            this.boardable = new int[nodeCount];
+            this.heap = new IndexedMinHeap(nodeCount);
+        }
+
+        private void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                int stop = touched[i];
+                touchedFlags[stop] = false;
+                best[stop] = INFINITY;
+                markedRound[stop] = -1;
+            }
+            touchedCount = 0;
+            markedCount = 0;
+            markRound = 0;
+            heap.clear();
+        }
+
+        // Lower bounds depend on the target only, so they survive a widened arrival limit
+        private void nextQuery() {
+            if (++queryStamp == Integer.MAX_VALUE) {
+                Arrays.fill(boundStamp, 0);
+                queryStamp = 1;
+            }
+        }
+
+        private boolean fits(int rounds, int patternCount) {
+            return arrivals.length >= rounds && queuePosition.length >= patternCount;
+        }
+
+        private boolean isTouched(int stop) {
+            return touchedFlags[stop];
+        }
+
+        // First reach of a stop in this query: every round row starts out unreached
+        private void touch(int stop) {
+            if (!touchedFlags[stop]) {
+                touchedFlags[stop] = true;
+                touched[touchedCount++] = stop;
+                for (int round = 0; round < arrivals.length; round++) {
+                    arrivals[round][stop] = INFINITY;
+                    kinds[round][stop] = NONE;
+                }
+            }
+        }
+
+        private void mark(int stop) {
+            if (markedRound[stop] != markRound) {
+                markedRound[stop] = markRound;
+                marked[markedCount++] = stop;
+            }
+        }
+    }
+}
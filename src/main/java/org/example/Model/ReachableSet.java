@@ -0,0 +1,27 @@
+package org.example.Model;
+
+/**
+ * Result of a budgeted one-to-all search: node indices in order of increasing travel time,
+ * with {@code times[i]} the travel time to {@code nodes[i]} in minutes.
+ */
+public final class ReachableSet {
+    private final int[] nodes;
+    private final double[] times;
+
+    public ReachableSet(int[] nodes, double[] times) {
+        this.nodes = nodes;
+        this.times = times;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public int getNode(int i) {
+        return nodes[i];
+    }
+
+    public double getTime(int i) {
+        return times[i];
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.Model;
+
+/**
+ * Result of a {@link RoutingEngine} query: the node indices of the path, the CSR edge
+ * indices between them ({@code edges[i]} leads from {@code nodes[i]} to {@code nodes[i + 1]})
+ * and the total time.
+ */
+public final class Route {
+    private static final int[] EMPTY = new int[0];
+
+    private final int[] nodes;
+    private final int[] edges;
+    private final double totalTime; // minutes
+    private final int settledNodes;
+
+    public Route(int[] nodes, int[] edges, double totalTime, int settledNodes) {
+        this.nodes = nodes;
+        this.edges = edges;
+        this.totalTime = totalTime;
+        this.settledNodes = settledNodes;
+    }
+
+    public static Route notFound(int settledNodes) {
+        return new Route(EMPTY, EMPTY, Double.POSITIVE_INFINITY, settledNodes);
+    }
+
+    public boolean isFound() {
+        return nodes.length > 0;
+    }
+
+    public int[] getNodes() {
+        return nodes;
+    }
+
+    public int[] getEdges() {
+        return edges;
+    }
+
+    public double getTotalTime() {
+        return totalTime;
+    }
+
+    // Number of nodes the search settled, useful to compare engines
+    public int getSettledNodes() {
+        return settledNodes;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.Model;
+
+/**
+ * Routing engines selectable per request on {@code /api/map/route?algorithm=...}.
+ */
+public enum RoutingAlgorithm {
+    DIJKSTRA,
+    ASTAR,
+    BIDIRECTIONAL,
+    BIDIRECTIONAL_ASTAR,
+    ALT,
+    BIDIRECTIONAL_ALT,
+    CONTRACTION_HIERARCHY;
+
+    /**
+     * Case-insensitive lookup that also accepts spellings like {@code a-star} or {@code A_STAR}.
+     *
+     * @throws IllegalArgumentException if the name matches no algorithm
+     */
+    public static RoutingAlgorithm fromParameter(String value) {
+        String normalized = value.replace("-", "").replace("_", "").trim();
+        for (RoutingAlgorithm algorithm : values()) {
+            if (algorithm.name().replace("_", "").equalsIgnoreCase(normalized)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unknown routing algorithm: " + value);
+    }
+}
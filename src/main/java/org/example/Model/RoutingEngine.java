@@ -0,0 +1,41 @@
+package org.example.Model;
+
+/**
+ * Point-to-point shortest path search over a {@link CompactGraph}, minimising edge time.
+ * Implementations must be safe to call from several request threads at once.
+ */
+public interface RoutingEngine {
+
+    /**
+     * @param source index of the start node
+     * @param target index of the destination node
+     * @return the fastest route, or {@link Route#isFound()} == false if the target is unreachable
+     */
+    default Route findRoute(int source, int target) {
+        return findRoute(source, target, null, null);
+    }
+
+    /**
+     * Same as {@link #findRoute(int, int)}, additionally streaming every settled node to
+     * {@code listener} (may be null). Tracing is off unless a listener is passed.
+     */
+    default Route findRoute(int source, int target, SettleListener listener) {
+        return findRoute(source, target, null, listener);
+    }
+
+    /**
+     * Same as {@link #findRoute(int, int, SettleListener)}, only using edges accepted by
+     * {@code filter} (null for all edges).
+     *
+     * @throws IllegalArgumentException if a filter is passed to an engine that does not
+     *                                  {@link #supportsEdgeFilter() support} one
+     */
+    Route findRoute(int source, int target, EdgeFilter filter, SettleListener listener);
+
+    /**
+     * Engines working on preprocessed shortcuts cannot leave out individual edges.
+     */
+    default boolean supportsEdgeFilter() {
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.Model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-thread search workspaces for every engine running on graphs of one topology. The
+ * workspaces only depend on the node count, so the engines of each graph version borrow them
+ * from here instead of allocating their own: a live time update builds new engines but no new
+ * {@code O(n)} arrays.
+ * <p>
+ * Each engine class gets a pool of its own, so an engine that calls another one in the middle
+ * of a query (alternatives around the fastest route, for instance) never shares its state.
+ */
+public final class SearchPools {
+    private final int nodeCount;
+    private final ConcurrentMap<Class<?>, ThreadLocal<?>> pools = new ConcurrentHashMap<>();
+
+    public SearchPools(int nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * The pool of {@code owner}, created with {@code factory} on first use; every call for the
+     * same owner must produce the same type of workspace.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ThreadLocal<T> get(Class<?> owner, Supplier<T> factory) {
+        return (ThreadLocal<T>) pools.computeIfAbsent(owner, key -> ThreadLocal.withInitial(factory));
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.Model;
+
+import java.util.Arrays;
+
+/**
+ * Reusable per-query state of a label-setting search over node indices.
+ * <p>
+ * Instead of clearing {@code O(n)} arrays before every query, entries are tagged with the
+ * epoch of the query that wrote them; anything stamped with an older epoch reads as
+ * "unreached". One instance is owned by one thread at a time (see {@link SearchPools}).
+ */
+public final class SearchState {
+    private final double[] distances;
+    private final int[] predecessors;
+    private final int[] predecessorEdges;
+    private final int[] reachedEpoch;
+    private final int[] settledEpoch;
+    private final IndexedMinHeap heap;
+    private int epoch = 0;
+
+    public SearchState(int nodeCount) {
+        this.distances = new double[nodeCount];
+        this.predecessors = new int[nodeCount];
+        this.predecessorEdges = new int[nodeCount];
+        this.reachedEpoch = new int[nodeCount];
+        this.settledEpoch = new int[nodeCount];
+        this.heap = new IndexedMinHeap(nodeCount);
+    }
+
+    public int capacity() {
+        return distances.length;
+    }
+
+    /**
+     * Starts a new query, invalidating everything recorded by the previous one.
+     */
+    public void reset() {
+        heap.clear();
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(reachedEpoch, 0);
+            Arrays.fill(settledEpoch, 0);
+            epoch = 1;
+        }
+    }
+
+    public boolean isReached(int node) {
+        return reachedEpoch[node] == epoch;
+    }
+
+    public double getDistance(int node) {
+        return reachedEpoch[node] == epoch ? distances[node] : Double.POSITIVE_INFINITY;
+    }
+
+    public int getPredecessor(int node) {
+        return reachedEpoch[node] == epoch ? predecessors[node] : -1;
+    }
+
+    // Edge the node was reached over, or -1 for the source
+    public int getPredecessorEdge(int node) {
+        return reachedEpoch[node] == epoch ? predecessorEdges[node] : -1;
+    }
+
+    public boolean isSettled(int node) {
+        return settledEpoch[node] == epoch;
+    }
+
+    public void settle(int node) {
+        settledEpoch[node] = epoch;
+    }
+
+    /**
+     * Records a tentative distance and queues the node with the given heap key
+     * (the distance itself for Dijkstra, distance plus potential for goal-directed searches).
+     */
+    public void update(int node, double distance, int predecessor, int predecessorEdge, double key) {
+        distances[node] = distance;
+        predecessors[node] = predecessor;
+        predecessorEdges[node] = predecessorEdge;
+        reachedEpoch[node] = epoch;
+        heap.insertOrDecrease(node, key);
+    }
+
+    /**
+     * Walks the predecessor chain back from {@code target} in O(path length); the only
+     * allocation of a query.
+     */
+    public Route extractRoute(int source, int target, int settledNodes) {
+        int length = 1;
+        for (int crawl = target; crawl != source; crawl = predecessors[crawl]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int[] edges = new int[length - 1];
+        int crawl = target;
+        for (int i = length - 1; i > 0; i--) {
+            path[i] = crawl;
+            edges[i - 1] = predecessorEdges[crawl];
+            crawl = predecessors[crawl];
+        }
+        path[0] = source;
+        return new Route(path, edges, distances[target], settledNodes);
+    }
+
+    public IndexedMinHeap getHeap() {
+        return heap;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.Model;
+
+/**
+ * Opt-in trace of a {@link RoutingEngine} search: called once per settled node, in settle order.
+ * Each call is a delta; consumers that need the whole visited set accumulate it themselves.
+ */
+public interface SettleListener {
+
+    /**
+     * @param node        index of the node that was just settled
+     * @param distance    its final distance from the source (minutes)
+     * @param predecessor node it was reached from, or -1 for the source
+     */
+    void onSettled(int node, double distance, int predecessor);
+}
@@ -0,0 +1,33 @@
+package org.example.Model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Path found by {@link Dijkstra} and its total travel time.
+ */
+public class ShortestPath {
+    private final List<Node> nodes;
+    private final double totalTime; // minutes
+
+    public ShortestPath(List<Node> nodes, double totalTime) {
+        this.nodes = nodes;
+        this.totalTime = totalTime;
+    }
+
+    public static ShortestPath empty() {
+        return new ShortestPath(Collections.emptyList(), Double.POSITIVE_INFINITY);
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public double getTotalTime() {
+        return totalTime;
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+}
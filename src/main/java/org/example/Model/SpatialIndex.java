@@ -0,0 +1,273 @@
+package org.example.Model;
+
+import java.util.Arrays;
+
+/**
+ * Static KD-tree over node positions for nearest-station and radius lookups.
+ * <p>
+ * Positions are stored as points on the unit sphere ({@code x, y, z}), where the straight-line
+ * (chord) distance grows monotonically with the great-circle distance, so the tree needs no
+ * special cases for the antimeridian or the poles. The tree is implicit: the subtree over the
+ * slots {@code [lo, hi)} has its splitting point at {@code (lo + hi) / 2}, split along the
+ * axis with the widest spread, with the points of the lower half before it. Immutable and safe
+ * to share between threads.
+ */
+public final class SpatialIndex {
+    private final int[] nodes; // node index stored in each slot
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final byte[] axes; // splitting axis of the subtree whose median is this slot
+
+    /**
+     * @param latitudes  node latitudes in degrees, indexed by node
+     * @param longitudes node longitudes in degrees, indexed by node
+     */
+    public SpatialIndex(double[] latitudes, double[] longitudes) {
+        int n = latitudes.length;
+        this.nodes = new int[n];
+        double[][] points = new double[3][n];
+        for (int i = 0; i < n; i++) {
+            nodes[i] = i;
+            double lat = Math.toRadians(latitudes[i]);
+            double lon = Math.toRadians(longitudes[i]);
+            points[0][i] = Math.cos(lat) * Math.cos(lon);
+            points[1][i] = Math.cos(lat) * Math.sin(lon);
+            points[2][i] = Math.sin(lat);
+        }
+        this.axes = new byte[n];
+        build(points, 0, n);
+        this.xs = new double[n];
+        this.ys = new double[n];
+        this.zs = new double[n];
+        for (int slot = 0; slot < n; slot++) {
+            xs[slot] = points[0][nodes[slot]];
+            ys[slot] = points[1][nodes[slot]];
+            zs[slot] = points[2][nodes[slot]];
+        }
+    }
+
+    public static SpatialIndex of(CompactGraph graph) {
+        int n = graph.getNodeCount();
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            latitudes[i] = graph.getLatitude(i);
+            longitudes[i] = graph.getLongitude(i);
+        }
+        return new SpatialIndex(latitudes, longitudes);
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * @param maxKm only nodes at most this far away are returned; infinite for no limit
+     * @return up to {@code k} node indices, nearest first
+     */
+    public int[] nearest(double latitude, double longitude, int k, double maxKm) {
+        if (k <= 0 || nodes.length == 0) {
+            return new int[0];
+        }
+        Search search = new Search(latitude, longitude, maxKm, Math.min(k, nodes.length));
+        nearest(search, 0, nodes.length);
+        return search.sortedResult();
+    }
+
+    /**
+     * @return every node index at most {@code radiusKm} away, nearest first
+     */
+    public int[] withinRadius(double latitude, double longitude, double radiusKm) {
+        Search search = new Search(latitude, longitude, radiusKm, Integer.MAX_VALUE);
+        nearest(search, 0, nodes.length);
+        return search.sortedResult();
+    }
+
+    private void nearest(Search search, int lo, int hi) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double dx = xs[mid] - search.x;
+        double dy = ys[mid] - search.y;
+        double dz = zs[mid] - search.z;
+        search.offer(nodes[mid], dx * dx + dy * dy + dz * dz);
+
+        int axis = axes[mid];
+        double diff = axis == 0 ? -dx : axis == 1 ? -dy : -dz; // query minus split coordinate
+        if (diff < 0) {
+            nearest(search, lo, mid);
+            if (diff * diff <= search.bound()) {
+                nearest(search, mid + 1, hi);
+            }
+        } else {
+            nearest(search, mid + 1, hi);
+            if (diff * diff <= search.bound()) {
+                nearest(search, lo, mid);
+            }
+        }
+    }
+
+    private void build(double[][] points, int lo, int hi) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int axis = widestAxis(points, lo, hi);
+        int mid = (lo + hi) >>> 1;
+        select(points[axis], lo, hi - 1, mid);
+        axes[mid] = (byte) axis;
+        build(points, lo, mid);
+        build(points, mid + 1, hi);
+    }
+
+    private int widestAxis(double[][] points, int lo, int hi) {
+        int best = 0;
+        double bestSpread = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int slot = lo; slot < hi; slot++) {
+                double value = points[axis][nodes[slot]];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > bestSpread) {
+                bestSpread = max - min;
+                best = axis;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Quickselect on the slots {@code [lo, hi]}: afterwards slot {@code k} holds the node with
+     * the k-th smallest coordinate, nodes before it are not larger and nodes after it not smaller.
+     */
+    private void select(double[] coordinates, int lo, int hi, int k) {
+        while (lo < hi) {
+            double pivot = coordinates[nodes[(lo + hi) >>> 1]];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (coordinates[nodes[i]] < pivot) {
+                    i++;
+                }
+                while (coordinates[nodes[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = nodes[i];
+                    nodes[i] = nodes[j];
+                    nodes[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Best candidates of one query, kept in a binary max-heap on the squared chord distance
+     * while at most {@code capacity} are wanted.
+     */
+    private static final class Search {
+        private final double x;
+        private final double y;
+        private final double z;
+        private final double maxChordSquared;
+        private final int capacity;
+        private int[] heapNodes;
+        private double[] heapDistances;
+        private int size = 0;
+
+        private Search(double latitude, double longitude, double maxKm, int capacity) {
+            double lat = Math.toRadians(latitude);
+            double lon = Math.toRadians(longitude);
+            this.x = Math.cos(lat) * Math.cos(lon);
+            this.y = Math.cos(lat) * Math.sin(lon);
+            this.z = Math.sin(lat);
+            // Chord of the great-circle arc; beyond half the circumference every point qualifies
+            double angle = maxKm / GeoMath.EARTH_RADIUS_KM;
+            double chord = angle >= Math.PI ? 2.0 : 2.0 * Math.sin(angle / 2);
+            this.maxChordSquared = chord * chord;
+            this.capacity = capacity;
+            int initial = Math.min(capacity, 16);
+            this.heapNodes = new int[initial];
+            this.heapDistances = new double[initial];
+        }
+
+        // Squared chord a candidate has to beat
+        private double bound() {
+            return size == capacity ? Math.min(heapDistances[0], maxChordSquared) : maxChordSquared;
+        }
+
+        private void offer(int node, double distance) {
+            if (distance > maxChordSquared) {
+                return;
+            }
+            if (size < capacity) {
+                if (size == heapNodes.length) {
+                    heapNodes = Arrays.copyOf(heapNodes, Math.min(capacity, size * 2));
+                    heapDistances = Arrays.copyOf(heapDistances, heapNodes.length);
+                }
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (heapDistances[parent] >= distance) {
+                        break;
+                    }
+                    heapNodes[i] = heapNodes[parent];
+                    heapDistances[i] = heapDistances[parent];
+                    i = parent;
+                }
+                heapNodes[i] = node;
+                heapDistances[i] = distance;
+            } else if (distance < heapDistances[0]) {
+                siftDown(node, distance);
+            }
+        }
+
+        // Replaces the farthest candidate
+        private void siftDown(int node, double distance) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heapDistances[child + 1] > heapDistances[child]) {
+                    child++;
+                }
+                if (heapDistances[child] <= distance) {
+                    break;
+                }
+                heapNodes[i] = heapNodes[child];
+                heapDistances[i] = heapDistances[child];
+                i = child;
+            }
+            heapNodes[i] = node;
+            heapDistances[i] = distance;
+        }
+
+        private int[] sortedResult() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(heapDistances[a], heapDistances[b]));
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = heapNodes[order[i]];
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package org.example.Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Route patterns and stop times for {@link RaptorEngine}, in flat arrays.
+ * <p>
+ * A pattern is a stop sequence served by one line in one direction. The stops of pattern
+ * {@code p} occupy {@code [patternStart(p), patternEnd(p))} of {@code patternStops}. Trips
+ * within a pattern are sorted by departure and never overtake each other, so the earliest
+ * catchable trip is found by binary search; the times are stored stop by stop (all trips at
+ * the first stop, then all at the second, ...) so that search, the hot path of a query, reads
+ * one contiguous run of ints.
+ * <p>
+ * The feed only has run times per segment, so trips are synthesized from a per-mode headway
+ * over a daily service window. Edges without a line (walking, taxi) are not part of any
+ * pattern; the engine uses them as time-independent transfers.
+ */
+public final class TransitTimetable {
+    private final CompactGraph graph;
+
+    private final int[] patternOffsets; // pattern -> first slot in patternStops
+    private final int[] patternStops;
+    private final int[] hopEdges; // edge from the stop in this slot to the next one, -1 in the last slot
+    private final int[] tripOffsets; // pattern -> first entry in stopTimes
+    private final int[] tripCounts;
+    private final int[] stopTimes; // seconds since midnight, arrival == departure, stop-major
+
+    private final int[] stopPatternOffsets; // stop -> first entry in stopPatterns
+    private final int[] stopPatterns;
+    private final int[] stopPatternPositions; // position of the stop within that pattern
+
+    private TransitTimetable(CompactGraph graph, int[] patternOffsets, int[] patternStops, int[] hopEdges,
+                             int[] tripOffsets, int[] tripCounts, int[] stopTimes) {
+        this.graph = graph;
+        this.patternOffsets = patternOffsets;
+        this.patternStops = patternStops;
+        this.hopEdges = hopEdges;
+        this.tripOffsets = tripOffsets;
+        this.tripCounts = tripCounts;
+        this.stopTimes = stopTimes;
+
+        int n = graph.getNodeCount();
+        this.stopPatternOffsets = new int[n + 1];
+        for (int stop : patternStops) {
+            stopPatternOffsets[stop + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            stopPatternOffsets[v + 1] += stopPatternOffsets[v];
+        }
+        this.stopPatterns = new int[patternStops.length];
+        this.stopPatternPositions = new int[patternStops.length];
+        int[] cursor = Arrays.copyOf(stopPatternOffsets, n);
+        for (int p = 0; p < getPatternCount(); p++) {
+            for (int slot = patternOffsets[p]; slot < patternOffsets[p + 1]; slot++) {
+                int entry = cursor[patternStops[slot]]++;
+                stopPatterns[entry] = p;
+                stopPatternPositions[entry] = slot - patternOffsets[p];
+            }
+        }
+    }
+
+    /**
+     * Builds patterns from the line edges of {@code graph} and runs one trip every
+     * {@code headwayMinutes} of the line's mode from {@code serviceStart} until
+     * {@code serviceEnd} (seconds since midnight, first-stop departures).
+     *
+     * @param defaultHeadway headway in minutes for modes missing from {@code headwayMinutes}
+     */
+    public static TransitTimetable fromHeadways(CompactGraph graph, Map<TransportMode, Integer> headwayMinutes,
+                                                int defaultHeadway, int serviceStart, int serviceEnd) {
+        List<int[]> patterns = buildPatterns(graph); // hop edges of each pattern
+
+        int stopCount = 0;
+        int timeCount = 0;
+        int[] tripCounts = new int[patterns.size()];
+        for (int p = 0; p < patterns.size(); p++) {
+            int[] hops = patterns.get(p);
+            int headway = headwaySeconds(graph.getMode(hops[0]), headwayMinutes, defaultHeadway);
+            tripCounts[p] = serviceEnd >= serviceStart ? (serviceEnd - serviceStart) / headway + 1 : 0;
+            stopCount += hops.length + 1;
+            timeCount += tripCounts[p] * (hops.length + 1);
+        }
+
+        int[] patternOffsets = new int[patterns.size() + 1];
+        int[] patternStops = new int[stopCount];
+        int[] hopEdges = new int[stopCount];
+        int[] tripOffsets = new int[patterns.size()];
+        int[] stopTimes = new int[timeCount];
+        int slot = 0;
+        int timeSlot = 0;
+        int[] runTimes = new int[16];
+        for (int p = 0; p < patterns.size(); p++) {
+            int[] hops = patterns.get(p);
+            int length = hops.length + 1;
+            patternOffsets[p] = slot;
+            if (runTimes.length < length) {
+                runTimes = new int[length];
+            }
+            patternStops[slot] = graph.getEdgeSource(hops[0]);
+            runTimes[0] = 0;
+            for (int i = 0; i < hops.length; i++) {
+                hopEdges[slot + i] = hops[i];
+                patternStops[slot + i + 1] = graph.getTarget(hops[i]);
+                runTimes[i + 1] = runTimes[i] + toSeconds(graph.getTime(hops[i]));
+            }
+            hopEdges[slot + hops.length] = -1;
+            slot += length;
+
+            int headway = headwaySeconds(graph.getMode(hops[0]), headwayMinutes, defaultHeadway);
+            tripOffsets[p] = timeSlot;
+            for (int i = 0; i < length; i++) {
+                for (int trip = 0; trip < tripCounts[p]; trip++) {
+                    stopTimes[timeSlot++] = serviceStart + trip * headway + runTimes[i];
+                }
+            }
+        }
+        patternOffsets[patterns.size()] = slot;
+        return new TransitTimetable(graph, patternOffsets, patternStops, hopEdges, tripOffsets, tripCounts, stopTimes);
+    }
+
+    private static int headwaySeconds(TransportMode mode, Map<TransportMode, Integer> headwayMinutes,
+                                      int defaultHeadway) {
+        return Math.max(1, headwayMinutes.getOrDefault(mode, defaultHeadway)) * 60;
+    }
+
+    static int toSeconds(float minutes) {
+        return Math.round(minutes * 60f);
+    }
+
+    /**
+     * Splits every line into simple stop sequences (walking its segments as an undirected
+     * graph from the line ends inwards) and emits each sequence in both directions, as far
+     * as the directed line edges exist. Each pattern is returned as its hop edges.
+     */
+    private static List<int[]> buildPatterns(CompactGraph graph) {
+        Map<Integer, TreeMap<Integer, List<Integer>>> adjacencyByLine = new TreeMap<>();
+        for (int u = 0; u < graph.getNodeCount(); u++) {
+            for (int e = graph.edgesStart(u); e < graph.edgesEnd(u); e++) {
+                int line = graph.getLine(e);
+                int v = graph.getTarget(e);
+                if (line < 0 || u == v) {
+                    continue;
+                }
+                TreeMap<Integer, List<Integer>> adjacency = adjacencyByLine.computeIfAbsent(line, key -> new TreeMap<>());
+                addNeighbor(adjacency, u, v);
+                addNeighbor(adjacency, v, u);
+            }
+        }
+
+        List<int[]> patterns = new ArrayList<>();
+        for (Map.Entry<Integer, TreeMap<Integer, List<Integer>>> entry : adjacencyByLine.entrySet()) {
+            int line = entry.getKey();
+            TreeMap<Integer, List<Integer>> adjacency = entry.getValue();
+            Set<Long> used = new HashSet<>();
+            List<Integer> starts = new ArrayList<>();
+            for (Map.Entry<Integer, List<Integer>> stop : adjacency.entrySet()) {
+                if (stop.getValue().size() != 2) {
+                    starts.add(stop.getKey()); // line ends and branching stops first
+                }
+            }
+            starts.addAll(adjacency.keySet()); // then whatever is left, i.e. loops
+
+            for (int start : starts) {
+                while (true) {
+                    List<Integer> path = new ArrayList<>();
+                    path.add(start);
+                    int current = start;
+                    int next;
+                    while ((next = unusedNeighbor(adjacency.get(current), current, used)) >= 0) {
+                        used.add(pairKey(current, next));
+                        path.add(next);
+                        current = next;
+                    }
+                    if (path.size() < 2) {
+                        break;
+                    }
+                    addDirectedRuns(graph, line, path, patterns);
+                    List<Integer> reversed = new ArrayList<>(path);
+                    Collections.reverse(reversed);
+                    addDirectedRuns(graph, line, reversed, patterns);
+                }
+            }
+        }
+        return patterns;
+    }
+
+    private static void addNeighbor(Map<Integer, List<Integer>> adjacency, int from, int to) {
+        List<Integer> neighbors = adjacency.computeIfAbsent(from, key -> new ArrayList<>());
+        if (!neighbors.contains(to)) {
+            neighbors.add(to);
+        }
+    }
+
+    private static int unusedNeighbor(List<Integer> neighbors, int stop, Set<Long> used) {
+        for (int neighbor : neighbors) {
+            if (!used.contains(pairKey(stop, neighbor))) {
+                return neighbor;
+            }
+        }
+        return -1;
+    }
+
+    private static long pairKey(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+
+    // One-way and closed segments break a sequence into the runs that can actually be travelled
+    private static void addDirectedRuns(CompactGraph graph, int line, List<Integer> path, List<int[]> patterns) {
+        int[] hops = new int[path.size() - 1];
+        int count = 0;
+        for (int i = 1; i <= path.size(); i++) {
+            int edge = i < path.size() ? graph.findLineEdge(path.get(i - 1), path.get(i), line) : -1;
+            if (edge >= 0 && !graph.isClosed(edge)) {
+                hops[count++] = edge;
+            } else if (count > 0) {
+                patterns.add(Arrays.copyOf(hops, count));
+                count = 0;
+            }
+        }
+    }
+
+    /**
+     * The same trips on {@code graph}, which must have the same edges as this timetable's graph
+     * and the same times on every line edge; only the other (walking, taxi) edges may differ.
+     */
+    public TransitTimetable withGraph(CompactGraph graph) {
+        return new TransitTimetable(graph, patternOffsets, patternStops, hopEdges, tripOffsets, tripCounts, stopTimes);
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    public int getPatternCount() {
+        return tripOffsets.length;
+    }
+
+    public int patternStart(int pattern) {
+        return patternOffsets[pattern];
+    }
+
+    public int patternEnd(int pattern) {
+        return patternOffsets[pattern + 1];
+    }
+
+    public int getPatternStop(int slot) {
+        return patternStops[slot];
+    }
+
+    /**
+     * @return the graph edge from the stop in {@code slot} to the next stop of the pattern
+     */
+    public int getHopEdge(int slot) {
+        return hopEdges[slot];
+    }
+
+    public int getTripCount(int pattern) {
+        return tripCounts[pattern];
+    }
+
+    /**
+     * @param position index of the stop within the pattern
+     * @return arrival (and departure) time in seconds since midnight
+     */
+    public int getStopTime(int pattern, int trip, int position) {
+        return stopTimes[tripOffsets[pattern] + position * tripCounts[pattern] + trip];
+    }
+
+    /**
+     * @return the first trip leaving the stop at {@code position} at or after {@code time},
+     * or -1 if the last one has already left
+     */
+    public int earliestTrip(int pattern, int position, int time) {
+        return earliestTrip(pattern, position, time, -1);
+    }
+
+    /**
+     * Like {@link #earliestTrip(int, int, int)} but only considers trips before
+     * {@code beforeTrip} (all trips if negative), for a scan already holding that trip.
+     */
+    public int earliestTrip(int pattern, int position, int time, int beforeTrip) {
+        int end = beforeTrip >= 0 ? Math.min(beforeTrip, tripCounts[pattern]) : tripCounts[pattern];
+        int base = tripOffsets[pattern] + position * tripCounts[pattern];
+        int low = 0;
+        int high = end;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (stopTimes[base + mid] >= time) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low < end ? low : -1;
+    }
+
+    public int stopPatternsStart(int stop) {
+        return stopPatternOffsets[stop];
+    }
+
+    public int stopPatternsEnd(int stop) {
+        return stopPatternOffsets[stop + 1];
+    }
+
+    public int getStopPattern(int entry) {
+        return stopPatterns[entry];
+    }
+
+    public int getStopPatternPosition(int entry) {
+        return stopPatternPositions[entry];
+    }
+}
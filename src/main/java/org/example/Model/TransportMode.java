@@ -0,0 +1,84 @@
+package org.example.Model;
+
+import java.util.Collection;
+
+/**
+ * Transport modes known to the router. The ordinal doubles as the compact byte code
+ * stored per edge in {@link CompactGraph}, so new modes must be appended, never inserted.
+ */
+public enum TransportMode {
+    WALKING("walking"),
+    BUS("bus"),
+    METRO("metro"),
+    TRAIN("train"),
+    TAXI("taxi"),
+    UNKNOWN("unknown");
+
+    private static final TransportMode[] BY_CODE = values();
+
+    // Mode bits with every mode set, see bitsOf
+    public static final int ALL_BITS = (1 << BY_CODE.length) - 1;
+
+    private final String label;
+
+    TransportMode(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public byte getCode() {
+        return (byte) ordinal();
+    }
+
+    public static TransportMode fromCode(byte code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : UNKNOWN;
+    }
+
+    /**
+     * @return one bit per mode, at the position of its code
+     */
+    public static int bitsOf(Collection<TransportMode> modes) {
+        int bits = 0;
+        for (TransportMode mode : modes) {
+            bits |= 1 << mode.getCode();
+        }
+        return bits;
+    }
+
+    /**
+     * Inverse of {@link #getLabel()}, ignoring case; null for an unknown label.
+     */
+    public static TransportMode fromLabel(String label) {
+        for (TransportMode mode : BY_CODE) {
+            if (mode.label.equalsIgnoreCase(label)) {
+                return mode;
+            }
+        }
+        return null;
+    }
+
+    // Maps the "tip" values used in Transports.json
+    public static TransportMode fromTip(String tip) {
+        if (tip == null) {
+            return UNKNOWN;
+        }
+        switch (tip.toLowerCase()) {
+            case "yurume":
+                return WALKING;
+            case "otobus":
+                return BUS;
+            case "metro":
+                return METRO;
+            // Assuming "train" is not in current JSON, but can be added
+            case "train":
+                return TRAIN;
+            case "taksi":
+                return TAXI; // Or handle as a special case if not part of public transport
+            default:
+                return UNKNOWN;
+        }
+    }
+}
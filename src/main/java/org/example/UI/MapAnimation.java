@@ -1,5 +1,6 @@
 package org.example.UI;
 
+import org.example.Model.Dijkstra;
 import org.example.Model.Node;
 import org.jxmapviewer.JXMapViewer;
 import org.jxmapviewer.painter.CompoundPainter;
@@ -20,11 +21,12 @@ import java.util.stream.Collectors;
 
 /**
  * MapAnimation sınıfı, Dijkstra algoritmasının adımlarını görselleştirmek için kullanılır.
+ * Dijkstra'ya dinleyici olarak verilir; her adımda yalnızca yeni kesinleşen düğüm kaydedilir.
  */
-public class MapAnimation {
+public class MapAnimation implements Dijkstra.ExplorationListener {
     private final JXMapViewer mapViewer;
-    private final List<List<Node>> steps;
-    private final List<GeoPosition> finalPath;
+    private final List<Node> settledNodes = new ArrayList<>(); // Kesinleşme sırasına göre düğümler
+    private List<GeoPosition> finalPath = new ArrayList<>();
     private int currentStep = 0;
     private javax.swing.Timer animationTimer; // her adım arasında 1 saniye bekleme
     private final int ANIMATION_DELAY = 1000;
@@ -41,15 +43,10 @@ public class MapAnimation {
      * MapAnimation sınıfının yapıcısı
      *
      * @param mapViewer Animasyonun gösterileceği harita görüntüleyici
-     * @param steps Dijkstra algoritmasının adımları
-     * @param finalPath Son bulunan yol
      * @param basePainters Temel harita elemanları (düğümler, kenarlar vs.)
      */
-    public MapAnimation(JXMapViewer mapViewer, List<List<Node>> steps, List<GeoPosition> finalPath,
-                        List<Painter<JXMapViewer>> basePainters) {
+    public MapAnimation(JXMapViewer mapViewer, List<Painter<JXMapViewer>> basePainters) {
         this.mapViewer = mapViewer;
-        this.steps = steps;
-        this.finalPath = finalPath;
         this.basePainters = basePainters;
 
         // Kontrol paneli oluşturma
@@ -57,7 +54,7 @@ public class MapAnimation {
         controlPanel.setLayout(new FlowLayout(FlowLayout.CENTER));
 
         // Durum etiketi
-        statusLabel = new JLabel("Adım 0/" + steps.size());
+        statusLabel = new JLabel("Adım 0/0");
 
         // Kontrol düğmeleri
         playPauseButton = new JButton("►");
@@ -76,6 +73,36 @@ public class MapAnimation {
         setupListeners();
     }
 
+    /**
+     * Dijkstra bir düğümü kesinleştirdiğinde çağrılır
+     *
+     * @param node Kesinleşen düğüm
+     * @param distance Başlangıçtan uzaklığı (dakika)
+     * @param predecessor Düğüme gelinen önceki düğüm
+     */
+    @Override
+    public void onSettled(Node node, double distance, Node predecessor) {
+        settledNodes.add(node);
+        updateStatusLabel();
+    }
+
+    /**
+     * Son bulunan yolu ayarlar; animasyonun son adımında gösterilir
+     *
+     * @param finalPath Son bulunan yol
+     */
+    public void setFinalPath(List<GeoPosition> finalPath) {
+        this.finalPath = finalPath;
+        updateStatusLabel();
+    }
+
+    /**
+     * Toplam adım sayısı: her kesinleşen düğüm için bir adım ve son yol için bir adım
+     */
+    private int stepCount() {
+        return settledNodes.size() + 1;
+    }
+
     /**
      * Kontrol düğmelerine olay dinleyicilerini ekler
      */
@@ -129,7 +156,7 @@ public class MapAnimation {
         animationTimer = new javax.swing.Timer(ANIMATION_DELAY, new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (currentStep < steps.size()) {
+                if (currentStep < stepCount()) {
                     visualizeStep(currentStep);
                     currentStep++;
                     updateStatusLabel();
@@ -158,7 +185,7 @@ public class MapAnimation {
      * Bir sonraki adımı gösterir
      */
     public void showNextStep() {
-        if (currentStep < steps.size()) {
+        if (currentStep < stepCount()) {
             visualizeStep(currentStep);
             currentStep++;
             updateStatusLabel();
@@ -193,7 +220,7 @@ public class MapAnimation {
      * Durum etiketini günceller
      */
     private void updateStatusLabel() {
-        statusLabel.setText("Adım " + currentStep + "/" + steps.size());
+        statusLabel.setText("Adım " + currentStep + "/" + stepCount());
     }
 
     /**
@@ -202,28 +229,25 @@ public class MapAnimation {
      * @param stepIndex Görselleştirilecek adımın indeksi
      */
     private void visualizeStep(int stepIndex) {
-        if (stepIndex < 0 || stepIndex >= steps.size()) {
-            return;
-        }
-
-        List<Node> currentStepNodes = steps.get(stepIndex);
-        if (currentStepNodes == null) {
+        if (stepIndex < 0 || stepIndex >= stepCount()) {
             return;
         }
 
         List<Painter<JXMapViewer>> painters = new ArrayList<>(basePainters);
 
-        if (stepIndex < steps.size() - 1) {
-            WaypointPainter<Waypoint> visitedPainter = createWaypointPainter(currentStepNodes, Color.ORANGE);
+        if (stepIndex < settledNodes.size()) {
+            // Bu adıma kadar kesinleşen düğümler, kopyalanmadan alt liste olarak gösterilir
+            List<Node> visitedSoFar = settledNodes.subList(0, stepIndex + 1);
+            WaypointPainter<Waypoint> visitedPainter = createWaypointPainter(visitedSoFar, Color.ORANGE);
             painters.add(visitedPainter);
-            String description = "Ziyaret edilen düğümler: " +
-                    currentStepNodes.stream().map(Node::getId).collect(Collectors.joining(", "));
-            statusLabel.setText("Adım " + stepIndex + "/" + (steps.size() - 1) + ": " + description);
+            String description = "Ziyaret edilen düğüm: " + settledNodes.get(stepIndex).getId() +
+                    " (toplam " + visitedSoFar.size() + ")";
+            statusLabel.setText("Adım " + stepIndex + "/" + (stepCount() - 1) + ": " + description);
         } else {
             if (!finalPath.isEmpty()) {
                 RoutePainter routePainter = new RoutePainter(finalPath, Color.RED);
                 painters.add(routePainter);
-                statusLabel.setText("Adım " + stepIndex + "/" + (steps.size() - 1) + ": En kısa yol bulundu!");
+                statusLabel.setText("Adım " + stepIndex + "/" + (stepCount() - 1) + ": En kısa yol bulundu!");
             }
         }
 
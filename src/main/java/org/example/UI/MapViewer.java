@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties; // Added import
 import org.example.Model.Dijkstra;
 import org.example.Model.Edge;
 import org.example.Model.Node;
+import org.example.Model.SpatialIndex;
 import org.jxmapviewer.JXMapViewer;
 import org.jxmapviewer.OSMTileFactoryInfo;
 import org.jxmapviewer.input.PanMouseInputListener;
@@ -29,6 +30,7 @@ import java.util.stream.Collectors;
 public class MapViewer {
     private final Map<Node, List<Edge>> graph = new HashMap<>();
     private final List<Node> nodes = new ArrayList<>();
+    private SpatialIndex spatialIndex; // over nodes, built once they are loaded
     private Node startNode = null;
     private Node endNode = null;
     private List<GeoPosition> selectedRoute = new ArrayList<>();
@@ -186,19 +188,11 @@ public class MapViewer {
     }
 
     private Node findNearestNode(GeoPosition position, double maxDistance) {
-        Node nearest = null;
-        double minDistance = Double.MAX_VALUE;
-        for (Node node : nodes) {
-            double distance = calculateHaversineDistance(
-                    position.getLatitude(), position.getLongitude(),
-                    node.getPosition().getLatitude(), node.getPosition().getLongitude()
-            );
-            if (distance < minDistance && distance < maxDistance) {
-                minDistance = distance;
-                nearest = node;
-            }
+        if (spatialIndex == null) {
+            return null;
         }
-        return nearest;
+        int[] nearest = spatialIndex.nearest(position.getLatitude(), position.getLongitude(), 1, maxDistance);
+        return nearest.length > 0 ? nodes.get(nearest[0]) : null;
     }
 
     private double calculateHaversineDistance(double lat1, double lon1, double lat2, double lon2) {
@@ -243,6 +237,13 @@ public class MapViewer {
                 nodeMapByName.put(name, node);
                 graph.put(node, new ArrayList<>());
             }
+            double[] latitudes = new double[nodes.size()];
+            double[] longitudes = new double[nodes.size()];
+            for (int i = 0; i < nodes.size(); i++) {
+                latitudes[i] = nodes.get(i).getPosition().getLatitude();
+                longitudes[i] = nodes.get(i).getPosition().getLongitude();
+            }
+            spatialIndex = new SpatialIndex(latitudes, longitudes);
 
             InputStream transportsStream = getClass().getResourceAsStream("/Transports.json");
             if (transportsStream == null) throw new RuntimeException("Transports.json not found in resources");
@@ -355,13 +356,9 @@ public class MapViewer {
         }
 
         Dijkstra dijkstra = new Dijkstra(graph);
-        List<List<Node>> steps = dijkstra.findShortestPath(startNode, endNode);
-        List<Node> shortestPathNodes = null;
-        if (steps != null && !steps.isEmpty()) {
-            shortestPathNodes = steps.get(steps.size() - 1);
-        }
+        List<Node> shortestPathNodes = dijkstra.findShortestPath(startNode, endNode).getNodes();
 
-        if (shortestPathNodes == null || shortestPathNodes.size() < 2) {
+        if (shortestPathNodes.size() < 2) {
             JOptionPane.showMessageDialog(null, "Bu noktalar arasında rota bulunamadı.", "Rota Bulunamadı", JOptionPane.WARNING_MESSAGE);
             statusLabel.setText("Rota bulunamadı. Lütfen tekrar deneyin.");
             endNode = null; // Allow user to re-select end node
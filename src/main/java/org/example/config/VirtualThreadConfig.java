@@ -0,0 +1,45 @@
+package org.example.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves Tomcat requests on virtual threads when {@code routing.virtual-threads.enabled=true}.
+ * <p>
+ * The build targets Java 11, so the JDK 21 factory is looked up reflectively: on an older
+ * runtime the switch only logs a warning and Tomcat keeps its platform thread pool. Route
+ * computation itself stays on {@link org.example.service.RoutingExecutor}'s core-sized pool,
+ * virtual threads only help with the blocking parts of request handling.
+ */
+@Configuration
+@ConditionalOnProperty(name = "routing.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = newVirtualThreadExecutor();
+        return protocolHandler -> {
+            if (executor != null) {
+                protocolHandler.setExecutor(executor);
+            }
+        };
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            System.out.println("Serving requests on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            System.err.println("Virtual threads need Java 21 or newer (running "
+                    + System.getProperty("java.version") + "), keeping the default Tomcat thread pool");
+            return null;
+        }
+    }
+}
@@ -1,34 +1,516 @@
 package org.example.controller;
 
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.example.Model.CoordinateEncoding;
+import org.example.Model.RoutingAlgorithm;
+import org.example.Model.TransportMode;
+import org.example.dto.EdgeUpdateDTO;
+import org.example.dto.EdgeUpdateResultDTO;
+import org.example.dto.GraphVersionDTO;
+import org.example.dto.IsochroneDTO;
+import org.example.dto.MatrixRequestDTO;
+import org.example.dto.NearbyStopDTO;
 import org.example.dto.NodeDTO;
+import org.example.dto.RouteCacheStatsDTO;
+import org.example.dto.RouteOptionDTO;
+import org.example.dto.RouteQueryDTO;
 import org.example.dto.RouteSegmentDTO; // Added import
+import org.example.service.CompactRouteEncoder;
 import org.example.service.GraphService;
+import org.example.service.MatrixService;
+import org.example.service.NodeCatalogue;
+import org.example.service.RoutingExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/map")
 public class MapController {
 
+    /**
+     * Route responses in {@link org.example.dto.CompactRouteDTO} form; {@code application/cbor}
+     * gets the same form in binary.
+     */
+    public static final String COMPACT_JSON_VALUE = "application/vnd.maprouting.compact+json";
+    public static final MediaType COMPACT_JSON = MediaType.parseMediaType(COMPACT_JSON_VALUE);
+    // Batch results as a sequence of CBOR items (RFC 8742)
+    public static final MediaType CBOR_SEQUENCE = MediaType.parseMediaType("application/cbor-seq");
+
+    private static final int MAX_ZOOM = 22;
+
     private final GraphService graphService;
+    private final MatrixService matrixService;
+    private final RoutingExecutor routingExecutor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    @Value("${routing.default-algorithm:dijkstra}")
+    private String defaultAlgorithm;
+
+    @Value("${routing.executor.max-batch:1000}")
+    private int maxBatchSize;
+
+    @Value("${routing.alternatives.max-count:10}")
+    private int maxAlternatives;
+
+    @Value("${routing.nearest.max-count:100}")
+    private int maxNearest;
+
+    @Value("${routing.live.max-batch:10000}")
+    private int maxEdgeUpdates;
 
     @Autowired
-    public MapController(GraphService graphService) {
+    public MapController(GraphService graphService, MatrixService matrixService, RoutingExecutor routingExecutor) {
         this.graphService = graphService;
+        this.matrixService = matrixService;
+        this.routingExecutor = routingExecutor;
     }
 
+    /**
+     * Every station, served from the bytes serialized when the feeds were loaded, gzipped if the
+     * client accepts it, and answered with 304 when {@code If-None-Match} names the current tag.
+     * <p>
+     * With {@code bbox=minLon,minLat,maxLon,maxLat} only the stations in the box are returned,
+     * and with {@code zoom} (web map zoom level) they are thinned out to about one per 32 pixels,
+     * keeping the best connected ones.
+     */
     @GetMapping("/nodes")
-    public List<NodeDTO> getAllNodes() {
-        return graphService.getAllNodes();
+    public ResponseEntity<?> getAllNodes(@RequestParam(required = false) String bbox,
+                                         @RequestParam(required = false) Integer zoom,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                         String acceptEncoding,
+                                         WebRequest request, HttpServletResponse servletResponse) {
+        NodeCatalogue catalogue = graphService.getNodeCatalogue();
+        if (bbox == null && zoom == null) {
+            boolean gzipped = acceptsGzip(acceptEncoding);
+            // Also on a 304, so caches keep the two encodings apart
+            servletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (request.checkNotModified(catalogue.getETag(gzipped))) {
+                return null;
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(CacheControl.noCache());
+            if (gzipped) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(catalogue.getGzip());
+            }
+            return response.body(catalogue.getJson());
+        }
+
+        if (zoom != null && (zoom < 0 || zoom > MAX_ZOOM)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "zoom must be between 0 and " + MAX_ZOOM);
+        }
+        double[] box = bbox != null ? parseBoundingBox(bbox) : new double[]{-180, -90, 180, 90};
+        String etag = catalogue.getSelectionETag(box[1], box[0], box[3], box[2], zoom);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<NodeDTO> nodes = catalogue.select(box[1], box[0], box[3], box[2], zoom);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(nodes);
     }
 
+    /**
+     * Whether an {@code Accept-Encoding} header allows gzip: named with a non-zero quality, or
+     * not named and {@code *} has a non-zero quality (RFC 9110, section 12.5.3).
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0.0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = gzip == null ? quality : Math.max(gzip, quality);
+            } else if (name.equals("*")) {
+                any = quality;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return any != null && any > 0;
+    }
+
+    /**
+     * With a {@code departureTime} (HH:mm) the route follows the timetable and the algorithm is
+     * ignored; without one it is the fastest route assuming no waiting. With
+     * {@code alternatives=k} the response is a list of up to k distinct routes
+     * ({@link RouteOptionDTO}) instead of the segments of one. {@code modes} (e.g.
+     * {@code metro,bus,walking}) restricts the route to these transport modes.
+     * <p>
+     * Instead of two stations the route may be requested between two positions
+     * ({@code fromLat}, {@code fromLon}, {@code toLat}, {@code toLon}); it then starts and ends
+     * with a walk to and from the stations that give the fastest route, and the algorithm is
+     * ignored.
+     * <p>
+     * Clients accepting {@value #COMPACT_JSON_VALUE} or {@code application/cbor} get the route as
+     * one {@link org.example.dto.CompactRouteDTO} whose node table lists every station once, with
+     * {@code coordinates} ({@code plain}, {@code delta} or {@code polyline}) choosing how its
+     * positions are written.
+     */
     @GetMapping("/route")
-    public List<RouteSegmentDTO> getRoute(@RequestParam String startNodeId, @RequestParam String endNodeId) {
-        return graphService.findShortestPath(startNodeId, endNodeId);
+    public Object getRoute(@RequestParam(required = false) String startNodeId,
+                           @RequestParam(required = false) String endNodeId,
+                           @RequestParam(defaultValue = "${routing.default-algorithm:dijkstra}") String algorithm,
+                           @RequestParam(required = false) String departureTime,
+                           @RequestParam(required = false) Integer alternatives,
+                           @RequestParam(required = false) String modes,
+                           @RequestParam(required = false) Double fromLat, @RequestParam(required = false) Double fromLon,
+                           @RequestParam(required = false) Double toLat, @RequestParam(required = false) Double toLon,
+                           @RequestParam(defaultValue = "plain") String coordinates,
+                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        CoordinateEncoding encoding = parseCoordinateEncoding(coordinates);
+        List<?> route = findRoute(startNodeId, endNodeId, algorithm, departureTime, alternatives, modes,
+                fromLat, fromLon, toLat, toLon);
+        if (!accepts(accept, COMPACT_JSON) && !accepts(accept, MediaType.APPLICATION_CBOR)) {
+            return route;
+        }
+        if (alternatives != null) {
+            @SuppressWarnings("unchecked")
+            List<RouteOptionDTO> options = (List<RouteOptionDTO>) route;
+            return CompactRouteEncoder.encodeOptions(options, encoding);
+        }
+        @SuppressWarnings("unchecked")
+        List<RouteSegmentDTO> segments = (List<RouteSegmentDTO>) route;
+        return CompactRouteEncoder.encodeSegments(segments, encoding);
+    }
+
+    private List<?> findRoute(String startNodeId, String endNodeId, String algorithm, String departureTime,
+                              Integer alternatives, String modes, Double fromLat, Double fromLon,
+                              Double toLat, Double toLon) {
+        int modeBits = modes != null ? parseModes(Arrays.asList(modes.split(","))) : TransportMode.ALL_BITS;
+        boolean byPosition = fromLat != null || fromLon != null || toLat != null || toLon != null;
+        boolean complete = byPosition
+                ? startNodeId == null && endNodeId == null
+                        && fromLat != null && fromLon != null && toLat != null && toLon != null
+                : startNodeId != null && endNodeId != null;
+        if (!complete) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Give either startNodeId and endNodeId or fromLat, fromLon, toLat and toLon");
+        }
+        if (byPosition) {
+            if (alternatives != null || departureTime != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "alternatives and departureTime need startNodeId and endNodeId");
+            }
+            if (!isValidPosition(fromLat, fromLon) || !isValidPosition(toLat, toLon)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lat/lon must be a valid position");
+            }
+            return graphService.findRouteBetween(fromLat, fromLon, toLat, toLon, modeBits);
+        }
+        if (alternatives != null) {
+            if (departureTime != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "alternatives cannot be combined with departureTime");
+            }
+            if (alternatives < 1 || alternatives > maxAlternatives) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "alternatives must be between 1 and " + maxAlternatives);
+            }
+            return graphService.findAlternativeRoutes(startNodeId, endNodeId, parseAlgorithm(algorithm, modeBits),
+                    modeBits, alternatives);
+        }
+        if (departureTime != null) {
+            if (modes != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "modes cannot be combined with departureTime");
+            }
+            return graphService.findTimetableRoute(startNodeId, endNodeId, parseDepartureTime(departureTime));
+        }
+        return graphService.findShortestPath(startNodeId, endNodeId, parseAlgorithm(algorithm, modeBits), modeBits);
+    }
+
+    /**
+     * The Pareto set of journeys over total time, transfers and walking time, fastest first,
+     * optionally restricted to some transport {@code modes}.
+     */
+    @GetMapping("/route/options")
+    public List<RouteOptionDTO> getRouteOptions(@RequestParam String startNodeId, @RequestParam String endNodeId,
+                                                @RequestParam(required = false) String modes) {
+        int modeBits = modes != null ? parseModes(Arrays.asList(modes.split(","))) : TransportMode.ALL_BITS;
+        return graphService.findRouteOptions(startNodeId, endNodeId, modeBits);
+    }
+
+    /**
+     * Routes a batch of queries on the routing worker pool and streams one JSON result per line
+     * (NDJSON) in the order the queries finish; each result carries its index in the request.
+     * Accepting {@value #COMPACT_JSON_VALUE} streams compact results, one per line, and
+     * {@code application/cbor-seq} the same as a sequence of CBOR items.
+     */
+    @PostMapping("/routes")
+    public ResponseEntity<StreamingResponseBody> getRoutes(@RequestBody List<RouteQueryDTO> queries,
+                                                           @RequestParam(defaultValue = "plain") String coordinates,
+                                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                           String accept) {
+        CoordinateEncoding encoding = parseCoordinateEncoding(coordinates);
+        if (queries.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxBatchSize + " queries per batch");
+        }
+        List<RoutingExecutor.Query> batch = new ArrayList<>(queries.size());
+        for (RouteQueryDTO query : queries) {
+            if (query.getStartNodeId() == null || query.getEndNodeId() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Every query needs startNodeId and endNodeId");
+            }
+            String algorithm = query.getAlgorithm() != null ? query.getAlgorithm() : defaultAlgorithm;
+            int modeBits = query.getModes() != null ? parseModes(query.getModes()) : TransportMode.ALL_BITS;
+            batch.add(new RoutingExecutor.Query(query.getStartNodeId(), query.getEndNodeId(),
+                    parseAlgorithm(algorithm, modeBits), modeBits));
+        }
+
+        boolean cbor = accepts(accept, CBOR_SEQUENCE);
+        boolean compact = cbor || accepts(accept, COMPACT_JSON);
+        StreamingResponseBody body = out -> {
+            try {
+                routingExecutor.routeAll(batch, result -> {
+                    if (cbor) {
+                        out.write(cborMapper.writeValueAsBytes(CompactRouteEncoder.encodeResult(result, encoding)));
+                    } else {
+                        out.write(objectMapper.writeValueAsBytes(
+                                compact ? CompactRouteEncoder.encodeResult(result, encoding) : result));
+                        out.write('\n');
+                    }
+                    out.flush();
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        MediaType contentType = cbor ? CBOR_SEQUENCE
+                : compact ? COMPACT_JSON : MediaType.parseMediaType("application/x-ndjson");
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    /**
+     * Stations nearest to a position, nearest first: the {@code k} nearest, optionally only
+     * within {@code radiusKm}, or with only a radius every station within it (at most
+     * {@code routing.nearest.max-count}).
+     */
+    @GetMapping("/nearest")
+    public List<NearbyStopDTO> getNearest(@RequestParam double lat, @RequestParam double lon,
+                                          @RequestParam(required = false) Integer k,
+                                          @RequestParam(required = false) Double radiusKm) {
+        if (!isValidPosition(lat, lon)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lat/lon must be a valid position");
+        }
+        if (k != null && (k < 1 || k > maxNearest)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "k must be between 1 and " + maxNearest);
+        }
+        if (radiusKm != null && !(radiusKm >= 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "radiusKm must be a non-negative number");
+        }
+        int count = k != null ? k : radiusKm != null ? maxNearest : 1;
+        return graphService.findNearestStops(lat, lon, count, radiusKm != null ? radiusKm : Double.POSITIVE_INFINITY);
+    }
+
+    @GetMapping("/isochrone")
+    public IsochroneDTO getIsochrone(@RequestParam String from, @RequestParam double maxMinutes,
+                                     @RequestParam(defaultValue = "true") boolean hull) {
+        if (!(maxMinutes >= 0) || Double.isInfinite(maxMinutes)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxMinutes must be a non-negative number");
+        }
+        IsochroneDTO isochrone = graphService.findIsochrone(from, maxMinutes, hull);
+        if (isochrone == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown station: " + from);
+        }
+        return isochrone;
+    }
+
+    /**
+     * Travel-time matrix in minutes between the given stations, streamed while it is computed.
+     */
+    @PostMapping("/matrix")
+    public ResponseEntity<StreamingResponseBody> getMatrix(@RequestBody MatrixRequestDTO request) {
+        MatrixService.MatrixQuery query;
+        try {
+            query = matrixService.prepare(request.getSources(), request.getTargets());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        StreamingResponseBody body = out -> matrixService.writeMatrix(query, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/cache/stats")
+    public RouteCacheStatsDTO getRouteCacheStats() {
+        return graphService.getRouteCacheStats();
+    }
+
+    /**
+     * Live delays and closures: each update sets the time of the edges of one mode from one
+     * station to another, closes them, or (neither time nor closed) restores the feed time.
+     * Updates naming no edge are reported back, not rejected, so one stale entry does not hold
+     * up a feed.
+     */
+    @PostMapping("/edges/updates")
+    public EdgeUpdateResultDTO updateEdges(@RequestBody List<EdgeUpdateDTO> updates) {
+        if (updates.size() > maxEdgeUpdates) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxEdgeUpdates + " updates per batch");
+        }
+        for (EdgeUpdateDTO update : updates) {
+            if (update.getFrom() == null || update.getTo() == null || update.getMode() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Every update needs from, to and mode");
+            }
+            if (TransportMode.fromLabel(update.getMode()) == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown transport mode: " + update.getMode());
+            }
+            if (update.getTime() != null && (update.isClosed() || !(update.getTime() >= 0)
+                    || Double.isInfinite(update.getTime()))) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "time must be a non-negative number and cannot be combined with closed");
+            }
+        }
+        return graphService.applyEdgeUpdates(updates);
+    }
+
+    @GetMapping("/admin/graph")
+    public GraphVersionDTO getGraphVersion() {
+        return graphService.getGraphVersion();
+    }
+
+    /**
+     * Reloads the feeds in the background; the current graph keeps serving until the new one
+     * is ready. Poll {@code /admin/graph} for the new version or a load error.
+     */
+    @PostMapping("/admin/reload")
+    public ResponseEntity<GraphVersionDTO> reloadGraph() {
+        graphService.requestReload();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(graphService.getGraphVersion());
+    }
+
+    /**
+     * True if the Accept header names {@code type} itself; wildcards keep the default format.
+     */
+    private static boolean accepts(String accept, MediaType type) {
+        if (accept == null) {
+            return false;
+        }
+        try {
+            for (MediaType accepted : MediaType.parseMediaTypes(accept)) {
+                if (accepted.equalsTypeAndSubtype(type)) {
+                    return true;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Accept header: " + accept);
+        }
+        return false;
+    }
+
+    // minLon, minLat, maxLon, maxLat
+    private static double[] parseBoundingBox(String bbox) {
+        String[] parts = bbox.split(",");
+        double[] box = new double[4];
+        try {
+            if (parts.length != 4) {
+                throw new NumberFormatException();
+            }
+            for (int i = 0; i < 4; i++) {
+                box[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bbox must be minLon,minLat,maxLon,maxLat");
+        }
+        if (!isValidPosition(box[1], box[0]) || !isValidPosition(box[3], box[2]) || box[0] > box[2] || box[1] > box[3]) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "bbox must be minLon,minLat,maxLon,maxLat with valid positions and min <= max");
+        }
+        return box;
+    }
+
+    private CoordinateEncoding parseCoordinateEncoding(String coordinates) {
+        try {
+            return CoordinateEncoding.fromParameter(coordinates);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private int parseDepartureTime(String departureTime) {
+        try {
+            return LocalTime.parse(departureTime).toSecondOfDay();
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "departureTime must be HH:mm: " + departureTime);
+        }
+    }
+
+    private static boolean isValidPosition(double lat, double lon) {
+        return Math.abs(lat) <= 90 && Math.abs(lon) <= 180;
+    }
+
+    private int parseModes(Collection<String> labels) {
+        List<TransportMode> modes = new ArrayList<>();
+        for (String label : labels) {
+            if (label.trim().isEmpty()) {
+                continue;
+            }
+            TransportMode mode = TransportMode.fromLabel(label.trim());
+            if (mode == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown transport mode: " + label);
+            }
+            modes.add(mode);
+        }
+        if (modes.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "modes must name at least one transport mode");
+        }
+        return TransportMode.bitsOf(modes);
+    }
+
+    private RoutingAlgorithm parseAlgorithm(String algorithm, int modeBits) {
+        RoutingAlgorithm parsed = parseAlgorithm(algorithm);
+        if (modeBits != TransportMode.ALL_BITS && !graphService.supportsModeFilter(parsed)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Routing algorithm cannot filter modes: " + algorithm);
+        }
+        return parsed;
+    }
+
+    private RoutingAlgorithm parseAlgorithm(String algorithm) {
+        RoutingAlgorithm parsed;
+        try {
+            parsed = RoutingAlgorithm.fromParameter(algorithm);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (!graphService.isAvailable(parsed)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Routing algorithm not enabled: " + algorithm);
+        }
+        return parsed;
     }
 }
@@ -0,0 +1,102 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Route response without repeated stations: every station of the route appears once in the
+ * node table, in order of first use, and segments refer to it by index. Exactly one of
+ * {@code coordinates}, {@code coordinateDeltas} and {@code polyline} is set, as chosen by
+ * {@code coordinateEncoding}.
+ */
+public class CompactRouteDTO {
+    private String coordinateEncoding; // plain, delta or polyline
+    private List<String> nodeIds;
+    private List<String> nodeTypes;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private double[] coordinates; // plain: lat, lon pairs in degrees
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private int[] coordinateDeltas; // delta: lat, lon pairs in 1e-5 degrees, relative to the previous node
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String polyline; // polyline: Google encoded polyline, precision 5
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CompactSegmentDTO> segments; // a single route
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CompactRouteOptionDTO> options; // alternatives instead of a single route
+
+    public CompactRouteDTO() {
+    }
+
+    // Coordinates and segments or options are set by the encoder
+    public CompactRouteDTO(String coordinateEncoding, List<String> nodeIds, List<String> nodeTypes) {
+        this.coordinateEncoding = coordinateEncoding;
+        this.nodeIds = nodeIds;
+        this.nodeTypes = nodeTypes;
+    }
+
+    // Getters and Setters
+    public String getCoordinateEncoding() {
+        return coordinateEncoding;
+    }
+
+    public void setCoordinateEncoding(String coordinateEncoding) {
+        this.coordinateEncoding = coordinateEncoding;
+    }
+
+    public List<String> getNodeIds() {
+        return nodeIds;
+    }
+
+    public void setNodeIds(List<String> nodeIds) {
+        this.nodeIds = nodeIds;
+    }
+
+    public List<String> getNodeTypes() {
+        return nodeTypes;
+    }
+
+    public void setNodeTypes(List<String> nodeTypes) {
+        this.nodeTypes = nodeTypes;
+    }
+
+    public double[] getCoordinates() {
+        return coordinates;
+    }
+
+    public void setCoordinates(double[] coordinates) {
+        this.coordinates = coordinates;
+    }
+
+    public int[] getCoordinateDeltas() {
+        return coordinateDeltas;
+    }
+
+    public void setCoordinateDeltas(int[] coordinateDeltas) {
+        this.coordinateDeltas = coordinateDeltas;
+    }
+
+    public String getPolyline() {
+        return polyline;
+    }
+
+    public void setPolyline(String polyline) {
+        this.polyline = polyline;
+    }
+
+    public List<CompactSegmentDTO> getSegments() {
+        return segments;
+    }
+
+    public void setSegments(List<CompactSegmentDTO> segments) {
+        this.segments = segments;
+    }
+
+    public List<CompactRouteOptionDTO> getOptions() {
+        return options;
+    }
+
+    public void setOptions(List<CompactRouteOptionDTO> options) {
+        this.options = options;
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.dto;
+
+import java.util.List;
+
+public class CompactRouteOptionDTO {
+    private double totalTime; // in minutes
+    private int transfers;
+    private double walkingTime; // in minutes
+    private List<CompactSegmentDTO> segments;
+
+    public CompactRouteOptionDTO() {
+    }
+
+    public CompactRouteOptionDTO(double totalTime, int transfers, double walkingTime,
+                                 List<CompactSegmentDTO> segments) {
+        this.totalTime = totalTime;
+        this.transfers = transfers;
+        this.walkingTime = walkingTime;
+        this.segments = segments;
+    }
+
+    // Getters and Setters
+    public double getTotalTime() {
+        return totalTime;
+    }
+
+    public void setTotalTime(double totalTime) {
+        this.totalTime = totalTime;
+    }
+
+    public int getTransfers() {
+        return transfers;
+    }
+
+    public void setTransfers(int transfers) {
+        this.transfers = transfers;
+    }
+
+    public double getWalkingTime() {
+        return walkingTime;
+    }
+
+    public void setWalkingTime(double walkingTime) {
+        this.walkingTime = walkingTime;
+    }
+
+    public List<CompactSegmentDTO> getSegments() {
+        return segments;
+    }
+
+    public void setSegments(List<CompactSegmentDTO> segments) {
+        this.segments = segments;
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.dto;
+
+public class CompactRouteResultDTO {
+    private int index; // position of the query in the request
+    private String startNodeId;
+    private String endNodeId;
+    private CompactRouteDTO route;
+    private String error; // set instead of route when the query failed
+
+    public CompactRouteResultDTO() {
+    }
+
+    public CompactRouteResultDTO(int index, String startNodeId, String endNodeId, CompactRouteDTO route, String error) {
+        this.index = index;
+        this.startNodeId = startNodeId;
+        this.endNodeId = endNodeId;
+        this.route = route;
+        this.error = error;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getStartNodeId() {
+        return startNodeId;
+    }
+
+    public void setStartNodeId(String startNodeId) {
+        this.startNodeId = startNodeId;
+    }
+
+    public String getEndNodeId() {
+        return endNodeId;
+    }
+
+    public void setEndNodeId(String endNodeId) {
+        this.endNodeId = endNodeId;
+    }
+
+    public CompactRouteDTO getRoute() {
+        return route;
+    }
+
+    public void setRoute(CompactRouteDTO route) {
+        this.route = route;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
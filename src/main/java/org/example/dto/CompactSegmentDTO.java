@@ -0,0 +1,86 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class CompactSegmentDTO {
+    private int from; // index into the node table
+    private int to;
+    private String transportType;
+    private double time; // in minutes
+    private double distance; // in km
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String departureTime; // HH:mm, only for timetable routes
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String arrivalTime;
+
+    public CompactSegmentDTO() {
+    }
+
+    public CompactSegmentDTO(int from, int to, String transportType, double time, double distance,
+                             String departureTime, String arrivalTime) {
+        this.from = from;
+        this.to = to;
+        this.transportType = transportType;
+        this.time = time;
+        this.distance = distance;
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+    }
+
+    // Getters and Setters
+    public int getFrom() {
+        return from;
+    }
+
+    public void setFrom(int from) {
+        this.from = from;
+    }
+
+    public int getTo() {
+        return to;
+    }
+
+    public void setTo(int to) {
+        this.to = to;
+    }
+
+    public String getTransportType() {
+        return transportType;
+    }
+
+    public void setTransportType(String transportType) {
+        this.transportType = transportType;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    public void setTime(double time) {
+        this.time = time;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+
+    public String getDepartureTime() {
+        return departureTime;
+    }
+
+    public void setDepartureTime(String departureTime) {
+        this.departureTime = departureTime;
+    }
+
+    public String getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public void setArrivalTime(String arrivalTime) {
+        this.arrivalTime = arrivalTime;
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.dto;
+
+public class EdgeUpdateDTO {
+    private String from; // station id
+    private String to; // station id
+    private String mode; // transport mode label, e.g. "metro"
+    private Double time; // new travel time in minutes; with closed false and no time the feed time is restored
+    private boolean closed;
+
+    public EdgeUpdateDTO() {
+    }
+
+    public EdgeUpdateDTO(String from, String to, String mode, Double time, boolean closed) {
+        this.from = from;
+        this.to = to;
+        this.mode = mode;
+        this.time = time;
+        this.closed = closed;
+    }
+
+    // Getters and Setters
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public Double getTime() {
+        return time;
+    }
+
+    public void setTime(Double time) {
+        this.time = time;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void setClosed(boolean closed) {
+        this.closed = closed;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EdgeUpdateResultDTO {
+    private long version; // graph version the updates are live in
+    private int changedEdges;
+    private List<String> unmatched = new ArrayList<>(); // updates naming no existing edge
+    private int invalidatedRoutes;
+    private List<String> rebuilt = new ArrayList<>(); // preprocessing redone for the new times
+
+    public EdgeUpdateResultDTO() {
+    }
+
+    public EdgeUpdateResultDTO(long version, int changedEdges, List<String> unmatched, int invalidatedRoutes,
+                               List<String> rebuilt) {
+        this.version = version;
+        this.changedEdges = changedEdges;
+        this.unmatched = unmatched;
+        this.invalidatedRoutes = invalidatedRoutes;
+        this.rebuilt = rebuilt;
+    }
+
+    // Getters and Setters
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public int getChangedEdges() {
+        return changedEdges;
+    }
+
+    public void setChangedEdges(int changedEdges) {
+        this.changedEdges = changedEdges;
+    }
+
+    public List<String> getUnmatched() {
+        return unmatched;
+    }
+
+    public void setUnmatched(List<String> unmatched) {
+        this.unmatched = unmatched;
+    }
+
+    public int getInvalidatedRoutes() {
+        return invalidatedRoutes;
+    }
+
+    public void setInvalidatedRoutes(int invalidatedRoutes) {
+        this.invalidatedRoutes = invalidatedRoutes;
+    }
+
+    public List<String> getRebuilt() {
+        return rebuilt;
+    }
+
+    public void setRebuilt(List<String> rebuilt) {
+        this.rebuilt = rebuilt;
+    }
+}
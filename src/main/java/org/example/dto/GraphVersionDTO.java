@@ -0,0 +1,72 @@
+package org.example.dto;
+
+public class GraphVersionDTO {
+    private long version;
+    private int nodeCount;
+    private int edgeCount;
+    private String loadedAt; // ISO-8601 instant
+    private boolean reloading; // a reload is scheduled or running
+    private String lastReloadError; // null if the last reload succeeded
+
+    public GraphVersionDTO() {
+    }
+
+    public GraphVersionDTO(long version, int nodeCount, int edgeCount, String loadedAt, boolean reloading,
+                           String lastReloadError) {
+        this.version = version;
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.loadedAt = loadedAt;
+        this.reloading = reloading;
+        this.lastReloadError = lastReloadError;
+    }
+
+    // Getters and Setters
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public void setNodeCount(int nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public void setEdgeCount(int edgeCount) {
+        this.edgeCount = edgeCount;
+    }
+
+    public String getLoadedAt() {
+        return loadedAt;
+    }
+
+    public void setLoadedAt(String loadedAt) {
+        this.loadedAt = loadedAt;
+    }
+
+    public boolean isReloading() {
+        return reloading;
+    }
+
+    public void setReloading(boolean reloading) {
+        this.reloading = reloading;
+    }
+
+    public String getLastReloadError() {
+        return lastReloadError;
+    }
+
+    public void setLastReloadError(String lastReloadError) {
+        this.lastReloadError = lastReloadError;
+    }
+}
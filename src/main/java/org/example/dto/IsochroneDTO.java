@@ -0,0 +1,53 @@
+package org.example.dto;
+
+import java.util.List;
+
+public class IsochroneDTO {
+    private NodeDTO origin;
+    private double maxMinutes;
+    private List<ReachableStopDTO> stops; // ordered by travel time
+    private List<GeoPositionDTO> hull; // convex hull of the stops, counter-clockwise; empty if not requested
+
+    public IsochroneDTO() {
+    }
+
+    public IsochroneDTO(NodeDTO origin, double maxMinutes, List<ReachableStopDTO> stops, List<GeoPositionDTO> hull) {
+        this.origin = origin;
+        this.maxMinutes = maxMinutes;
+        this.stops = stops;
+        this.hull = hull;
+    }
+
+    // Getters and Setters
+    public NodeDTO getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(NodeDTO origin) {
+        this.origin = origin;
+    }
+
+    public double getMaxMinutes() {
+        return maxMinutes;
+    }
+
+    public void setMaxMinutes(double maxMinutes) {
+        this.maxMinutes = maxMinutes;
+    }
+
+    public List<ReachableStopDTO> getStops() {
+        return stops;
+    }
+
+    public void setStops(List<ReachableStopDTO> stops) {
+        this.stops = stops;
+    }
+
+    public List<GeoPositionDTO> getHull() {
+        return hull;
+    }
+
+    public void setHull(List<GeoPositionDTO> hull) {
+        this.hull = hull;
+    }
+}
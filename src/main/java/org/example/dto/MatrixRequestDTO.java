@@ -0,0 +1,34 @@
+package org.example.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MatrixRequestDTO {
+    private List<String> sources = new ArrayList<>(); // station ids, one matrix row each
+    private List<String> targets = new ArrayList<>(); // station ids, one matrix column each
+
+    public MatrixRequestDTO() {
+    }
+
+    public MatrixRequestDTO(List<String> sources, List<String> targets) {
+        this.sources = sources;
+        this.targets = targets;
+    }
+
+    // Getters and Setters
+    public List<String> getSources() {
+        return sources;
+    }
+
+    public void setSources(List<String> sources) {
+        this.sources = sources;
+    }
+
+    public List<String> getTargets() {
+        return targets;
+    }
+
+    public void setTargets(List<String> targets) {
+        this.targets = targets;
+    }
+}
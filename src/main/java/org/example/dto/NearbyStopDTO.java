@@ -0,0 +1,31 @@
+package org.example.dto;
+
+public class NearbyStopDTO {
+    private NodeDTO node;
+    private double distance; // in km from the queried position
+
+    public NearbyStopDTO() {
+    }
+
+    public NearbyStopDTO(NodeDTO node, double distance) {
+        this.node = node;
+        this.distance = distance;
+    }
+
+    // Getters and Setters
+    public NodeDTO getNode() {
+        return node;
+    }
+
+    public void setNode(NodeDTO node) {
+        this.node = node;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.dto;
+
+public class ReachableStopDTO {
+    private NodeDTO node;
+    private double time; // in minutes from the isochrone origin
+
+    public ReachableStopDTO() {
+    }
+
+    public ReachableStopDTO(NodeDTO node, double time) {
+        this.node = node;
+        this.time = time;
+    }
+
+    // Getters and Setters
+    public NodeDTO getNode() {
+        return node;
+    }
+
+    public void setNode(NodeDTO node) {
+        this.node = node;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    public void setTime(double time) {
+        this.time = time;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.dto;
+
+import java.util.List;
+
+public class RouteQueryDTO {
+    private String startNodeId;
+    private String endNodeId;
+    private String algorithm; // optional, the configured default when missing
+    private List<String> modes; // optional, all modes when missing
+
+    public RouteQueryDTO() {
+    }
+
+    public RouteQueryDTO(String startNodeId, String endNodeId, String algorithm, List<String> modes) {
+        this.startNodeId = startNodeId;
+        this.endNodeId = endNodeId;
+        this.algorithm = algorithm;
+        this.modes = modes;
+    }
+
+    // Getters and Setters
+    public String getStartNodeId() {
+        return startNodeId;
+    }
+
+    public void setStartNodeId(String startNodeId) {
+        this.startNodeId = startNodeId;
+    }
+
+    public String getEndNodeId() {
+        return endNodeId;
+    }
+
+    public void setEndNodeId(String endNodeId) {
+        this.endNodeId = endNodeId;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public List<String> getModes() {
+        return modes;
+    }
+
+    public void setModes(List<String> modes) {
+        this.modes = modes;
+    }
+}
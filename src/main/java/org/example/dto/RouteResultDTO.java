@@ -0,0 +1,63 @@
+package org.example.dto;
+
+import java.util.List;
+
+public class RouteResultDTO {
+    private int index; // position of the query in the request
+    private String startNodeId;
+    private String endNodeId;
+    private List<RouteSegmentDTO> segments;
+    private String error; // set instead of segments when the query failed
+
+    public RouteResultDTO() {
+    }
+
+    public RouteResultDTO(int index, String startNodeId, String endNodeId, List<RouteSegmentDTO> segments, String error) {
+        this.index = index;
+        this.startNodeId = startNodeId;
+        this.endNodeId = endNodeId;
+        this.segments = segments;
+        this.error = error;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getStartNodeId() {
+        return startNodeId;
+    }
+
+    public void setStartNodeId(String startNodeId) {
+        this.startNodeId = startNodeId;
+    }
+
+    public String getEndNodeId() {
+        return endNodeId;
+    }
+
+    public void setEndNodeId(String endNodeId) {
+        this.endNodeId = endNodeId;
+    }
+
+    public List<RouteSegmentDTO> getSegments() {
+        return segments;
+    }
+
+    public void setSegments(List<RouteSegmentDTO> segments) {
+        this.segments = segments;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -1,11 +1,17 @@
 package org.example.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class RouteSegmentDTO {
     private NodeDTO fromNode;
     private NodeDTO toNode;
     private String transportType;
     private double time; // in minutes
     private double distance; // in km
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String departureTime; // HH:mm, only for timetable routes
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String arrivalTime;
 
     // Constructors
     public RouteSegmentDTO() {
@@ -19,6 +25,13 @@ public class RouteSegmentDTO {
         this.distance = distance;
     }
 
+    public RouteSegmentDTO(NodeDTO fromNode, NodeDTO toNode, String transportType, double time, double distance,
+                           String departureTime, String arrivalTime) {
+        this(fromNode, toNode, transportType, time, distance);
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+    }
+
     // Getters and Setters
     public NodeDTO getFromNode() {
         return fromNode;
@@ -59,4 +72,20 @@ public class RouteSegmentDTO {
     public void setDistance(double distance) {
         this.distance = distance;
     }
+
+    public String getDepartureTime() {
+        return departureTime;
+    }
+
+    public void setDepartureTime(String departureTime) {
+        this.departureTime = departureTime;
+    }
+
+    public String getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public void setArrivalTime(String arrivalTime) {
+        this.arrivalTime = arrivalTime;
+    }
 }
@@ -0,0 +1,116 @@
+package org.example.service;
+
+import org.example.Model.CoordinateEncoding;
+import org.example.Model.GeoMath;
+import org.example.dto.CompactRouteDTO;
+import org.example.dto.CompactRouteOptionDTO;
+import org.example.dto.CompactRouteResultDTO;
+import org.example.dto.CompactSegmentDTO;
+import org.example.dto.NodeDTO;
+import org.example.dto.RouteOptionDTO;
+import org.example.dto.RouteResultDTO;
+import org.example.dto.RouteSegmentDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Turns route responses into their compact form ({@link CompactRouteDTO}): each station goes
+ * into the node table once, however many segments touch it, and the segments only carry
+ * indices into it.
+ */
+public final class CompactRouteEncoder {
+    private final CoordinateEncoding encoding;
+    private final Map<String, Integer> indexById = new HashMap<>();
+    private final List<String> nodeIds = new ArrayList<>();
+    private final List<String> nodeTypes = new ArrayList<>();
+    private double[] latitudes = new double[16];
+    private double[] longitudes = new double[16];
+
+    private CompactRouteEncoder(CoordinateEncoding encoding) {
+        this.encoding = encoding;
+    }
+
+    public static CompactRouteDTO encodeSegments(List<RouteSegmentDTO> segments, CoordinateEncoding encoding) {
+        CompactRouteEncoder encoder = new CompactRouteEncoder(encoding);
+        List<CompactSegmentDTO> compactSegments = encoder.addSegments(segments);
+        CompactRouteDTO route = encoder.finish();
+        route.setSegments(compactSegments);
+        return route;
+    }
+
+    /**
+     * Alternatives share one node table, so stations common to several of them are sent once.
+     */
+    public static CompactRouteDTO encodeOptions(List<RouteOptionDTO> options, CoordinateEncoding encoding) {
+        CompactRouteEncoder encoder = new CompactRouteEncoder(encoding);
+        List<CompactRouteOptionDTO> compactOptions = new ArrayList<>(options.size());
+        for (RouteOptionDTO option : options) {
+            compactOptions.add(new CompactRouteOptionDTO(option.getTotalTime(), option.getTransfers(),
+                    option.getWalkingTime(), encoder.addSegments(option.getSegments())));
+        }
+        CompactRouteDTO route = encoder.finish();
+        route.setOptions(compactOptions);
+        return route;
+    }
+
+    public static CompactRouteResultDTO encodeResult(RouteResultDTO result, CoordinateEncoding encoding) {
+        CompactRouteDTO route = result.getSegments() != null ? encodeSegments(result.getSegments(), encoding) : null;
+        return new CompactRouteResultDTO(result.getIndex(), result.getStartNodeId(), result.getEndNodeId(), route,
+                result.getError());
+    }
+
+    private List<CompactSegmentDTO> addSegments(List<RouteSegmentDTO> segments) {
+        List<CompactSegmentDTO> compactSegments = new ArrayList<>(segments.size());
+        for (RouteSegmentDTO segment : segments) {
+            compactSegments.add(new CompactSegmentDTO(indexOf(segment.getFromNode()), indexOf(segment.getToNode()),
+                    segment.getTransportType(), segment.getTime(), segment.getDistance(),
+                    segment.getDepartureTime(), segment.getArrivalTime()));
+        }
+        return compactSegments;
+    }
+
+    private int indexOf(NodeDTO node) {
+        Integer index = indexById.get(node.getId());
+        if (index != null) {
+            return index;
+        }
+        int added = nodeIds.size();
+        if (added == latitudes.length) {
+            latitudes = Arrays.copyOf(latitudes, added * 2);
+            longitudes = Arrays.copyOf(longitudes, added * 2);
+        }
+        latitudes[added] = node.getPosition().getLatitude();
+        longitudes[added] = node.getPosition().getLongitude();
+        nodeIds.add(node.getId());
+        nodeTypes.add(node.getType());
+        indexById.put(node.getId(), added);
+        return added;
+    }
+
+    private CompactRouteDTO finish() {
+        CompactRouteDTO route = new CompactRouteDTO(encoding.name().toLowerCase(Locale.ROOT), nodeIds, nodeTypes);
+        double[] lats = Arrays.copyOf(latitudes, nodeIds.size());
+        double[] lons = Arrays.copyOf(longitudes, nodeIds.size());
+        switch (encoding) {
+            case DELTA:
+                route.setCoordinateDeltas(GeoMath.deltaEncode(lats, lons));
+                break;
+            case POLYLINE:
+                route.setPolyline(GeoMath.encodePolyline(lats, lons));
+                break;
+            default:
+                double[] coordinates = new double[lats.length * 2];
+                for (int i = 0; i < lats.length; i++) {
+                    coordinates[2 * i] = lats[i];
+                    coordinates[2 * i + 1] = lons[i];
+                }
+                route.setCoordinates(coordinates);
+        }
+        return route;
+    }
+}
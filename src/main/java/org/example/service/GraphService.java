@@ -1,188 +1,1234 @@
 package org.example.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.Model.AStarEngine;
+import org.example.Model.AccessEgressEngine;
+import org.example.Model.AccessEgressRoute;
+import org.example.Model.AlternativeRoutesEngine;
+import org.example.Model.BidirectionalEngine;
+import org.example.Model.CompactGraph;
+import org.example.Model.ContractionHierarchy;
+import org.example.Model.ContractionHierarchyBuilder;
+import org.example.Model.ContractionHierarchyEngine;
+import org.example.Model.CustomizableHierarchy;
+import org.example.Model.DijkstraEngine;
+import org.example.Model.EdgeFilter;
 import org.example.Model.Edge;
+import org.example.Model.GeoMath;
+import org.example.Model.GraphSnapshot;
+import org.example.Model.GreatCircleHeuristic;
+import org.example.Model.Journey;
+import org.example.Model.LandmarkHeuristic;
 import org.example.Model.Node; // Assuming this is your existing Node model
-import org.example.Model.Dijkstra; // Added import
+import org.example.Model.OneToManyEngine;
+import org.example.Model.ParetoEngine;
+import org.example.Model.ParetoRoute;
+import org.example.Model.RaptorEngine;
+import org.example.Model.ReachableSet;
+import org.example.Model.Route;
+import org.example.Model.RoutingAlgorithm;
+import org.example.Model.RoutingEngine;
+import org.example.Model.SearchPools;
+import org.example.Model.SpatialIndex;
+import org.example.Model.TransitTimetable;
+import org.example.Model.TransportMode;
 import org.example.dto.GeoPositionDTO;
+import org.example.dto.EdgeUpdateDTO;
+import org.example.dto.EdgeUpdateResultDTO;
+import org.example.dto.GraphVersionDTO;
+import org.example.dto.IsochroneDTO;
+import org.example.dto.NearbyStopDTO;
 import org.example.dto.NodeDTO;
+import org.example.dto.ReachableStopDTO;
+import org.example.dto.RouteCacheStatsDTO;
+import org.example.dto.RouteOptionDTO;
 import org.example.dto.RouteSegmentDTO; // Added import
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32;
 
+/**
+ * Routing over the current {@link GraphVersion}. The feeds can be reloaded while the service
+ * runs ({@link #requestReload}): the new version is built on a background thread and published
+ * with one reference swap, and queries already running finish on the version they started with.
+ */
 @Service
 public class GraphService {
 
-    private final List<Node> nodes = new ArrayList<>();
-    private final Map<Node, List<Edge>> graph = new HashMap<>();
+    private static final List<String> FEED_FILES = Arrays.asList("StopsAndStations.json", "Transports.json");
+    // Above this many edges getting faster in one batch, checking every cached route costs more than it saves
+    // (two bound lookups per edge and route)
+    private static final int MAX_FASTER_EDGES_CHECKED = 32;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final static double EARTH_RADIUS_KM = 6371.0;
+    private final AtomicReference<GraphVersion> current = new AtomicReference<>();
+    private final AtomicBoolean reloadPending = new AtomicBoolean();
+    // Serializes reloads and edge updates; queries never take it
+    private final Object writeLock = new Object();
+    // Live times by edge, kept across reloads; guarded by writeLock
+    private final Map<LiveEdgeKey, Float> liveEdgeTimes = new LinkedHashMap<>();
+    private final ScheduledExecutorService reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "graph-reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean reloading;
+    private volatile String lastReloadError;
+    private Thread feedWatcher;
+    // Parallel preprocessing (hierarchy customization), sized by routing.preprocessing.threads
+    private ExecutorService preprocessingWorkers;
+
+    @Value("${routing.feed-dir:}")
+    private String feedDirectory;
+
+    @Value("${routing.reload.watch-feeds:false}")
+    private boolean watchFeeds;
+
+    @Value("${routing.reload.debounce-ms:500}")
+    private long reloadDebounceMillis;
+
+    @Value("${routing.contraction-hierarchies.enabled:false}")
+    private boolean contractionHierarchiesEnabled;
+
+    @Value("${routing.contraction-hierarchies.customizable:true}")
+    private boolean customizableHierarchy;
+
+    @Value("${routing.alt.landmarks:0}")
+    private int landmarkCount;
+
+    @Value("${routing.preprocessing.threads:0}")
+    private int preprocessingThreads;
+
+    @Value("${routing.snapshot.enabled:false}")
+    private boolean snapshotEnabled;
+
+    @Value("${routing.data-dir:data}")
+    private String dataDirectory;
+
+    @Value("${routing.cache.max-entries:0}")
+    private int cacheMaxEntries;
+
+    @Value("${routing.cache.ttl-seconds:600}")
+    private long cacheTtlSeconds;
+
+    @Value("${routing.access.candidates:3}")
+    private int accessCandidates;
+
+    @Value("${routing.access.max-walk-km:2.0}")
+    private double accessMaxWalkKm;
+
+    @Value("${routing.access.walking-speed-kmh:5.0}")
+    private double walkingSpeedKmh;
+
+    @Value("${routing.alternatives.max-overlap:0.7}")
+    private double alternativesMaxOverlap;
+
+    @Value("${routing.alternatives.max-stretch:1.5}")
+    private double alternativesMaxStretch;
+
+    @Value("${routing.pareto.max-labels:16}")
+    private int paretoMaxLabels;
+
+    @Value("${routing.pareto.max-time-factor:1.5}")
+    private double paretoMaxTimeFactor;
+
+    @Value("${routing.timetable.headway.metro:5}")
+    private int metroHeadwayMinutes;
+
+    @Value("${routing.timetable.headway.bus:10}")
+    private int busHeadwayMinutes;
+
+    @Value("${routing.timetable.headway.train:15}")
+    private int trainHeadwayMinutes;
+
+    @Value("${routing.timetable.service-start:05:00}")
+    private String serviceStart;
+
+    @Value("${routing.timetable.service-end:23:59}")
+    private String serviceEnd;
+
+    @Value("${routing.timetable.max-transfers:4}")
+    private int maxTransfers;
+
+    private RouteCache routeCache;
 
     @PostConstruct
     private void initializeGraph() throws IOException {
-        loadNodes();
-        loadEdges();
+        this.routeCache = new RouteCache(cacheMaxEntries, cacheTtlSeconds);
+        AtomicInteger workerCounter = new AtomicInteger();
+        this.preprocessingWorkers = Executors.newFixedThreadPool(
+                preprocessingThreads > 0 ? preprocessingThreads : Runtime.getRuntime().availableProcessors(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "preprocessing-worker-" + workerCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        synchronized (writeLock) {
+            current.set(loadVersion(1, 1));
+        }
+        if (watchFeeds) {
+            if (feedDirectory.isEmpty()) {
+                System.err.println("routing.reload.watch-feeds needs routing.feed-dir, not watching the bundled feeds");
+            } else {
+                startFeedWatcher(Paths.get(feedDirectory));
+            }
+        }
     }
 
-    private void loadNodes() throws IOException {
-        try (InputStream stopsStream = new ClassPathResource("/StopsAndStations.json").getInputStream()) {
-            if (stopsStream == null) {
-                throw new RuntimeException("StopsAndStations.json not found in resources");
+    @PreDestroy
+    private void shutdown() {
+        reloader.shutdownNow();
+        preprocessingWorkers.shutdownNow();
+        if (feedWatcher != null) {
+            feedWatcher.interrupt();
+        }
+    }
+
+    /**
+     * Loads the feeds, lays the live edge times over them and builds every engine and index on
+     * the result; nothing shared is touched. Called with the write lock held.
+     */
+    private GraphVersion loadVersion(long version, long feedVersion) throws IOException {
+        List<Node> nodes = new ArrayList<>();
+        CompactGraph feedGraph = loadGraph(nodes);
+        float[] times = feedGraph.copyTimes();
+        BitSet overridden = new BitSet(times.length);
+        for (Map.Entry<LiveEdgeKey, Float> live : liveEdgeTimes.entrySet()) {
+            LiveEdgeKey key = live.getKey();
+            forEachEdge(feedGraph, key.from, key.to, key.mode, edge -> {
+                times[edge] = live.getValue();
+                overridden.set(edge);
+            });
+        }
+        CompactGraph graph = overridden.isEmpty() ? feedGraph : feedGraph.withTimes(times);
+        return buildVersion(null, version, feedVersion, Collections.unmodifiableList(nodes), feedGraph, graph,
+                overridden, new ArrayList<>());
+    }
+
+    /**
+     * Builds a version on {@code graph}. With a {@code previous} version of the same feeds,
+     * {@code changed} holds the edges whose time differs from it and whatever these changes
+     * leave valid is reused; otherwise {@code changed} holds the edges whose time differs from
+     * the feed. The names of the preprocessing steps that had to be redone are added to
+     * {@code rebuilt}.
+     */
+    private GraphVersion buildVersion(GraphVersion previous, long version, long feedVersion, List<Node> nodes,
+                                      CompactGraph feedGraph, CompactGraph graph, BitSet changed,
+                                      List<String> rebuilt) {
+        // Lower bounds stay valid as long as no edge got faster than on the graph they were computed
+        // on. That graph takes the faster of the feed and the live time of each edge, so delays,
+        // closures and their lifting never invalidate the bounds; only an edge below it does.
+        CompactGraph boundsGraph;
+        GreatCircleHeuristic greatCircle;
+        LandmarkHeuristic landmarks;
+        boolean landmarksPending = false;
+        if (!anyFaster(graph, previous != null ? previous.getBoundsGraph() : feedGraph, changed)) {
+            if (previous != null) {
+                boundsGraph = previous.getBoundsGraph();
+                greatCircle = previous.getGreatCircle();
+                landmarks = previous.getLandmarks();
+            } else {
+                boundsGraph = feedGraph;
+                greatCircle = new GreatCircleHeuristic(feedGraph);
+                landmarks = landmarkCount > 0 ? loadOrComputeLandmarks(feedGraph) : null;
             }
-            List<Map<String, Object>> stopsAndStations = objectMapper.readValue(
-                    stopsStream, new TypeReference<List<Map<String, Object>>>() {}
-            );
+        } else {
+            boundsGraph = fasterOfFeedAndLive(feedGraph, graph);
+            greatCircle = new GreatCircleHeuristic(boundsGraph);
+            if (previous == null || landmarkCount <= 0) {
+                // Not saved: the tables on disk are those of the feed graph
+                landmarks = landmarkCount > 0 ? LandmarkHeuristic.compute(boundsGraph, landmarkCount) : null;
+                rebuilt.add(landmarkCount > 0 ? "landmarks" : "great-circle-bound");
+            } else {
+                // Too slow for the request that brought the change; ALT runs on the great-circle
+                // bound until the tables are computed in the background
+                landmarks = null;
+                landmarksPending = true;
+                rebuilt.add("great-circle-bound");
+            }
+        }
 
-            for (Map<String, Object> station : stopsAndStations) {
-                String name = (String) station.get("name");
-                double latitude = ((Number) station.get("latitude")).doubleValue();
-                double longitude = ((Number) station.get("longitude")).doubleValue();
-                String type = (String) station.get("type"); // Read station type
-                Node node = new Node(name, latitude, longitude, type); // Pass type to constructor
-                this.nodes.add(node);
-                this.graph.put(node, new ArrayList<>());
+        // The engines are rebuilt on the new times, but borrow their workspaces from the previous version
+        SearchPools pools = previous != null ? previous.getSearchPools() : new SearchPools(graph.getNodeCount());
+        Map<RoutingAlgorithm, RoutingEngine> routingEngines = new EnumMap<>(RoutingAlgorithm.class);
+        routingEngines.put(RoutingAlgorithm.DIJKSTRA, new DijkstraEngine(graph, pools));
+        routingEngines.put(RoutingAlgorithm.ASTAR, new AStarEngine(graph, greatCircle, pools));
+        routingEngines.put(RoutingAlgorithm.BIDIRECTIONAL, new BidirectionalEngine(graph, null, pools));
+        routingEngines.put(RoutingAlgorithm.BIDIRECTIONAL_ASTAR, new BidirectionalEngine(graph, greatCircle, pools));
+        if (landmarks != null) {
+            routingEngines.put(RoutingAlgorithm.ALT, new AStarEngine(graph, landmarks, pools));
+            routingEngines.put(RoutingAlgorithm.BIDIRECTIONAL_ALT, new BidirectionalEngine(graph, landmarks, pools));
+        } else if (landmarkCount > 0) {
+            routingEngines.put(RoutingAlgorithm.ALT, routingEngines.get(RoutingAlgorithm.ASTAR));
+            routingEngines.put(RoutingAlgorithm.BIDIRECTIONAL_ALT,
+                    routingEngines.get(RoutingAlgorithm.BIDIRECTIONAL_ASTAR));
+        }
+        CustomizableHierarchy hierarchyTopology = null;
+        if (contractionHierarchiesEnabled) {
+            long start = System.currentTimeMillis();
+            ContractionHierarchy hierarchy;
+            if (customizableHierarchy) {
+                // The order and shortcuts only depend on the topology; time changes just re-customize
+                hierarchyTopology = previous != null && previous.getHierarchyTopology() != null
+                        ? previous.getHierarchyTopology()
+                        : CustomizableHierarchy.build(feedGraph);
+                hierarchy = hierarchyTopology.customize(graph, preprocessingWorkers);
+                System.out.println("Contraction hierarchy customized in " + (System.currentTimeMillis() - start)
+                        + " ms with " + hierarchyTopology.getArcCount() + " arcs in "
+                        + hierarchyTopology.getLevelCount() + " levels");
+                if (previous != null) {
+                    rebuilt.add("contraction-hierarchy-weights");
+                }
+            } else {
+                // Shortcut times are baked into the hierarchy, so every time change rebuilds it
+                hierarchy = new ContractionHierarchyBuilder(graph).build();
+                System.out.println("Contraction hierarchy built in " + (System.currentTimeMillis() - start)
+                        + " ms with " + hierarchy.getShortcutCount() + " shortcuts");
+                if (previous != null) {
+                    rebuilt.add("contraction-hierarchy");
+                }
+            }
+            routingEngines.put(RoutingAlgorithm.CONTRACTION_HIERARCHY, new ContractionHierarchyEngine(hierarchy, pools));
+        }
+
+        TransitTimetable timetable;
+        if (previous != null && !anyLineEdge(graph, changed)) {
+            timetable = previous.getTimetable().withGraph(graph);
+        } else {
+            timetable = buildTimetable(graph);
+            if (previous != null) {
+                rebuilt.add("timetable");
+            }
+        }
+
+        if (landmarksPending) {
+            scheduleLandmarks(boundsGraph);
+        }
+        return new GraphVersion(version, feedVersion, System.currentTimeMillis(), nodes, feedGraph, graph,
+                boundsGraph, greatCircle, landmarks, timetable, hierarchyTopology, pools,
+                Collections.unmodifiableMap(routingEngines),
+                new OneToManyEngine(graph, pools),
+                new RaptorEngine(timetable, maxTransfers, pools),
+                new ParetoEngine(graph, greatCircle, paretoMaxLabels, paretoMaxTimeFactor, pools),
+                new AlternativeRoutesEngine(graph, greatCircle, alternativesMaxOverlap, alternativesMaxStretch,
+                        pools),
+                new AccessEgressEngine(graph, greatCircle, pools),
+                previous != null ? previous.getSpatialIndex() : SpatialIndex.of(graph),
+                previous != null ? previous.getNodeCatalogue() : buildNodeCatalogue(nodes, graph));
+    }
+
+    private NodeCatalogue buildNodeCatalogue(List<Node> nodes, CompactGraph graph) {
+        long start = System.currentTimeMillis();
+        List<NodeDTO> dtos = new ArrayList<>(nodes.size());
+        int[] degrees = new int[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            dtos.add(convertToNodeDTO(nodes.get(i)));
+            degrees[i] = graph.edgesEnd(i) - graph.edgesStart(i);
+        }
+        NodeCatalogue catalogue = NodeCatalogue.build(dtos, degrees, objectMapper);
+        System.out.println("Node catalogue serialized in " + (System.currentTimeMillis() - start) + " ms: "
+                + catalogue.getJson().length + " bytes, " + catalogue.getGzip().length + " gzipped");
+        return catalogue;
+    }
+
+    /**
+     * Computes the landmark tables of {@code boundsGraph} on the reloader thread and lays them
+     * over the current version, provided its lower bounds are still those of that graph;
+     * otherwise a later change has scheduled tables of its own.
+     */
+    private void scheduleLandmarks(CompactGraph boundsGraph) {
+        reloader.execute(() -> {
+            // Waits for the version that scheduled the tables to be published
+            synchronized (writeLock) {
+                if (current.get().getBoundsGraph() != boundsGraph) {
+                    return;
+                }
+            }
+            long start = System.currentTimeMillis();
+            LandmarkHeuristic landmarks = LandmarkHeuristic.compute(boundsGraph, landmarkCount);
+            synchronized (writeLock) {
+                GraphVersion version = current.get();
+                if (version.getBoundsGraph() != boundsGraph) {
+                    return;
+                }
+                CompactGraph graph = version.getGraph();
+                current.set(version.withLandmarks(landmarks,
+                        new AStarEngine(graph, landmarks, version.getSearchPools()),
+                        new BidirectionalEngine(graph, landmarks, version.getSearchPools())));
+                System.out.println("Graph version " + version.getVersion() + ": landmarks recomputed in "
+                        + (System.currentTimeMillis() - start) + " ms");
+            }
+        });
+    }
+
+    // Per edge the faster of the feed and the live time
+    private static CompactGraph fasterOfFeedAndLive(CompactGraph feedGraph, CompactGraph graph) {
+        float[] times = graph.copyTimes();
+        for (int e = 0; e < times.length; e++) {
+            times[e] = Math.min(times[e], feedGraph.getTime(e));
+        }
+        return feedGraph.withTimes(times);
+    }
+
+    private static boolean anyFaster(CompactGraph graph, CompactGraph reference, BitSet edges) {
+        for (int e = edges.nextSetBit(0); e >= 0; e = edges.nextSetBit(e + 1)) {
+            if (graph.getTime(e) < reference.getTime(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyLineEdge(CompactGraph graph, BitSet edges) {
+        for (int e = edges.nextSetBit(0); e >= 0; e = edges.nextSetBit(e + 1)) {
+            if (graph.getLine(e) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void forEachEdge(CompactGraph graph, String from, String to, TransportMode mode,
+                                    IntConsumer action) {
+        int u = graph.indexOf(from);
+        int v = graph.indexOf(to);
+        if (u < 0 || v < 0) {
+            return;
+        }
+        for (int e = graph.edgesStart(u); e < graph.edgesEnd(u); e++) {
+            if (graph.getTarget(e) == v && graph.getMode(e) == mode) {
+                action.accept(e);
+            }
+        }
+    }
+
+    /**
+     * Sets the time of every edge from {@code from} to {@code to} of the given mode, closes it, or
+     * restores its feed time. The changes are laid over the feed graph as a new version, which is
+     * published in one swap; they are kept across feed reloads. Only the cached routes that the
+     * changes can affect are dropped, and only the preprocessing they invalidate is redone.
+     */
+    public EdgeUpdateResultDTO applyEdgeUpdates(List<EdgeUpdateDTO> updates) {
+        synchronized (writeLock) {
+            GraphVersion previous = current.get();
+            CompactGraph feedGraph = previous.getFeedGraph();
+            float[] times = previous.getGraph().copyTimes();
+            BitSet changed = new BitSet(times.length);
+            // Laid into liveEdgeTimes once the version is published; null restores the feed time
+            Map<LiveEdgeKey, Float> liveChanges = new LinkedHashMap<>();
+            List<String> unmatched = new ArrayList<>();
+            for (EdgeUpdateDTO update : updates) {
+                TransportMode mode = TransportMode.fromLabel(update.getMode());
+                LiveEdgeKey key = new LiveEdgeKey(update.getFrom(), update.getTo(), mode);
+                int[] matched = new int[1];
+                forEachEdge(feedGraph, key.from, key.to, mode, edge -> {
+                    float time = update.isClosed() ? Float.POSITIVE_INFINITY
+                            : update.getTime() != null ? update.getTime().floatValue() : feedGraph.getTime(edge);
+                    if (times[edge] != time) {
+                        times[edge] = time;
+                        changed.set(edge);
+                    }
+                    matched[0]++;
+                });
+                if (matched[0] == 0) {
+                    unmatched.add(update.getFrom() + " -> " + update.getTo() + " (" + update.getMode() + ")");
+                } else if (update.isClosed() || update.getTime() != null) {
+                    liveChanges.put(key, update.isClosed() ? Float.POSITIVE_INFINITY : update.getTime().floatValue());
+                } else {
+                    liveChanges.put(key, null);
+                }
+            }
+            if (changed.isEmpty()) {
+                applyLiveChanges(liveChanges);
+                return new EdgeUpdateResultDTO(previous.getVersion(), 0, unmatched, 0, new ArrayList<>());
+            }
+
+            long start = System.currentTimeMillis();
+            List<String> rebuilt = new ArrayList<>();
+            GraphVersion next = buildVersion(previous, previous.getVersion() + 1, previous.getFeedVersion(),
+                    previous.getNodes(), feedGraph, feedGraph.withTimes(times), changed, rebuilt);
+            current.set(next);
+            applyLiveChanges(liveChanges);
+            int invalidated = invalidateRoutes(previous, next, changed);
+            System.out.println("Graph version " + next.getVersion() + ": " + changed.cardinality()
+                    + " edge times changed, " + invalidated + " cached routes dropped, rebuilt " + rebuilt
+                    + " in " + (System.currentTimeMillis() - start) + " ms");
+            return new EdgeUpdateResultDTO(next.getVersion(), changed.cardinality(), unmatched, invalidated, rebuilt);
+        }
+    }
+
+    private void applyLiveChanges(Map<LiveEdgeKey, Float> liveChanges) {
+        for (Map.Entry<LiveEdgeKey, Float> change : liveChanges.entrySet()) {
+            if (change.getValue() != null) {
+                liveEdgeTimes.put(change.getKey(), change.getValue());
+            } else {
+                liveEdgeTimes.remove(change.getKey());
+            }
+        }
+    }
+
+    /**
+     * Carries the cached routes of {@code previous} over to {@code next}, which is already
+     * published; until then its readers miss. A cached route is dropped if it uses a changed
+     * edge, or if an edge that got faster could make a route through it beat the cached one
+     * according to the lower bounds. Routes only ever get worse through slower edges they do not
+     * use, so those keep their entries.
+     */
+    private int invalidateRoutes(GraphVersion previous, GraphVersion next, BitSet changed) {
+        CompactGraph graph = next.getGraph();
+        int[] faster = changed.stream()
+                .filter(e -> graph.getTime(e) < previous.getGraph().getTime(e))
+                .toArray();
+        if (faster.length > MAX_FASTER_EDGES_CHECKED) {
+            int size = routeCache.size();
+            routeCache.invalidateAll();
+            return size;
+        }
+        int[] fasterSources = new int[faster.length];
+        for (int i = 0; i < faster.length; i++) {
+            fasterSources[i] = graph.getEdgeSource(faster[i]);
+        }
+        return routeCache.invalidateIf((key, edges) -> {
+            // An unreachable target may become reachable through any edge that got faster
+            double time = edges.length == 0 && key.getSource() != key.getTarget() ? Double.POSITIVE_INFINITY : 0.0;
+            for (int edge : edges) {
+                if (changed.get(edge)) {
+                    return true;
+                }
+                time += graph.getTime(edge);
+            }
+            EdgeFilter filter = graph.edgeFilter(key.getModeBits());
+            for (int i = 0; i < faster.length; i++) {
+                int edge = faster[i];
+                if (filter != null && !filter.accepts(edge)) {
+                    continue;
+                }
+                double via = lowerBound(next, key.getSource(), fasterSources[i]) + graph.getTime(edge)
+                        + lowerBound(next, graph.getTarget(edge), key.getTarget());
+                if (via < time) {
+                    return true;
+                }
+            }
+            return false;
+        }, previous.getVersion(), next.getVersion());
+    }
+
+    private static double lowerBound(GraphVersion version, int from, int to) {
+        double bound = version.getGreatCircle().estimate(from, to);
+        return version.getLandmarks() != null ? Math.max(bound, version.getLandmarks().estimate(from, to)) : bound;
+    }
+
+    /**
+     * Schedules a reload of the feeds after {@code routing.reload.debounce-ms}, so a burst of
+     * file changes loads once. The current version keeps serving until the new one is built;
+     * if loading fails it simply stays.
+     *
+     * @return {@code false} if a reload was already scheduled and not yet started
+     */
+    public boolean requestReload() {
+        if (!reloadPending.compareAndSet(false, true)) {
+            return false;
+        }
+        reloader.schedule(this::reload, reloadDebounceMillis, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    private void reload() {
+        reloading = true;
+        // Changes from here on schedule another reload, which runs after this one
+        reloadPending.set(false);
+        long start = System.currentTimeMillis();
+        try {
+            GraphVersion next;
+            // Edge updates wait for the reload, so none of them is lost in the swap
+            synchronized (writeLock) {
+                GraphVersion previous = current.get();
+                next = loadVersion(previous.getVersion() + 1, previous.getFeedVersion() + 1);
+                current.set(next);
+            }
+            // Stale entries can no longer be hit, as they are stamped with an older version; this just frees them
+            routeCache.invalidateAll();
+            lastReloadError = null;
+            System.out.println("Graph version " + next.getVersion() + " with " + next.getGraph().getNodeCount()
+                    + " stations live after " + (System.currentTimeMillis() - start) + " ms");
+        } catch (IOException | RuntimeException e) {
+            lastReloadError = e.toString();
+            System.err.println("Graph reload failed, keeping version " + current.get().getVersion() + ": " + e);
+        } finally {
+            reloading = false;
+        }
+    }
+
+    private void startFeedWatcher(Path directory) throws IOException {
+        WatchService watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        feedWatcher = new Thread(() -> {
+            try (WatchService service = watchService) {
+                while (true) {
+                    WatchKey key = service.take();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        // Lost events (OVERFLOW) may have been feed changes as well
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                                || FEED_FILES.contains(String.valueOf(event.context()))) {
+                            requestReload();
+                        }
+                    }
+                    if (!key.reset()) {
+                        System.err.println("Feed directory " + directory + " is gone, no longer watching it");
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                System.err.println("Stopped watching " + directory + ": " + e.getMessage());
+            }
+        }, "feed-watcher");
+        feedWatcher.setDaemon(true);
+        feedWatcher.start();
+        System.out.println("Watching " + directory + " for feed changes");
+    }
+
+    // Edges of one mode between two stations, the unit live updates address
+    private static final class LiveEdgeKey {
+        private final String from;
+        private final String to;
+        private final TransportMode mode;
+
+        private LiveEdgeKey(String from, String to, TransportMode mode) {
+            this.from = from;
+            this.to = to;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LiveEdgeKey)) {
+                return false;
             }
+            LiveEdgeKey key = (LiveEdgeKey) o;
+            return from.equals(key.from) && to.equals(key.to) && mode == key.mode;
         }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(from, to, mode);
+        }
+    }
+
+    public GraphVersionDTO getGraphVersion() {
+        GraphVersion version = current.get();
+        return new GraphVersionDTO(version.getVersion(), version.getGraph().getNodeCount(),
+                version.getGraph().getEdgeCount(), Instant.ofEpochMilli(version.getLoadedAt()).toString(),
+                reloading || reloadPending.get(), lastReloadError);
     }
 
-    private void loadEdges() throws IOException {
-        Map<String, Node> nodeMapByName = new HashMap<>();
-        for (Node node : this.nodes) {
-            nodeMapByName.put(node.getId(), node);
+    GraphVersion currentVersion() {
+        return current.get();
+    }
+
+    /**
+     * The feed has run times but no stop times, so every line gets a trip every headway of its
+     * mode across the service window.
+     */
+    private TransitTimetable buildTimetable(CompactGraph graph) {
+        long start = System.currentTimeMillis();
+        Map<TransportMode, Integer> headways = new EnumMap<>(TransportMode.class);
+        headways.put(TransportMode.METRO, metroHeadwayMinutes);
+        headways.put(TransportMode.BUS, busHeadwayMinutes);
+        headways.put(TransportMode.TRAIN, trainHeadwayMinutes);
+        TransitTimetable timetable = TransitTimetable.fromHeadways(graph, headways, busHeadwayMinutes,
+                LocalTime.parse(serviceStart).toSecondOfDay(), LocalTime.parse(serviceEnd).toSecondOfDay());
+        System.out.println("Built timetable with " + timetable.getPatternCount() + " route patterns in "
+                + (System.currentTimeMillis() - start) + " ms");
+        return timetable;
+    }
+
+    /**
+     * The JSON feeds stay the source of truth; the binary snapshot is only used while it was
+     * built from feeds with the same checksum, and is rewritten otherwise.
+     */
+    private CompactGraph loadGraph(List<Node> nodes) throws IOException {
+        long start = System.currentTimeMillis();
+        long sourceChecksum = sourceChecksum();
+        Path snapshotFile = Paths.get(dataDirectory, "graph.snapshot");
+        if (snapshotEnabled && Files.isRegularFile(snapshotFile)) {
+            try {
+                CompactGraph snapshot = GraphSnapshot.read(snapshotFile, sourceChecksum);
+                if (snapshot != null) {
+                    for (int i = 0; i < snapshot.getNodeCount(); i++) {
+                        nodes.add(new Node(snapshot.getId(i), snapshot.getLatitude(i),
+                                snapshot.getLongitude(i), snapshot.getType(i)));
+                    }
+                    System.out.println("Loaded graph snapshot " + snapshotFile + " in "
+                            + (System.currentTimeMillis() - start) + " ms");
+                    return snapshot;
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Ignoring unreadable graph snapshot " + snapshotFile + ": " + e.getMessage());
+            }
+        }
+
+        CompactGraph.Builder builder = new CompactGraph.Builder();
+        loadNodes(builder, nodes);
+        loadEdges(builder, nodes);
+        CompactGraph loaded = builder.build();
+        System.out.println("Loaded graph from JSON in " + (System.currentTimeMillis() - start) + " ms");
+        if (snapshotEnabled) {
+            try {
+                Files.createDirectories(snapshotFile.getParent());
+                GraphSnapshot.write(loaded, sourceChecksum, snapshotFile);
+            } catch (IOException e) {
+                System.err.println("Could not write graph snapshot to " + snapshotFile + ": " + e.getMessage());
+            }
         }
+        return loaded;
+    }
 
-        try (InputStream transportsStream = new ClassPathResource("/Transports.json").getInputStream()) {
-            if (transportsStream == null) {
-                throw new RuntimeException("Transports.json not found in resources");
+    private long sourceChecksum() throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[64 * 1024];
+        for (String feed : FEED_FILES) {
+            try (InputStream stream = openFeed(feed)) {
+                int read;
+                while ((read = stream.read(buffer)) > 0) {
+                    crc.update(buffer, 0, read);
+                }
             }
-            JsonNode root = objectMapper.readTree(transportsStream);
-            JsonNode segmentsNode = root.get("segments");
-            if (segmentsNode != null && segmentsNode.isArray()) {
-                for (JsonNode segmentNode : segmentsNode) {
-                    String fromName = segmentNode.get("from").asText();
-                    String toName = segmentNode.get("to").asText();
-                    String transportTypeJson = segmentNode.get("tip").asText();
-                    double time = segmentNode.get("sure_dk").asDouble();
+        }
+        return crc.getValue();
+    }
 
-                    Node fromNode = nodeMapByName.get(fromName);
-                    Node toNode = nodeMapByName.get(toName);
+    // From routing.feed-dir if set, otherwise the feeds bundled on the classpath
+    private InputStream openFeed(String fileName) throws IOException {
+        if (feedDirectory.isEmpty()) {
+            return new ClassPathResource("/" + fileName).getInputStream();
+        }
+        return Files.newInputStream(Paths.get(feedDirectory, fileName));
+    }
 
-                    String transportType;
-                    switch (transportTypeJson.toLowerCase()) {
-                        case "yurume":
-                            transportType = "walking";
+    private LandmarkHeuristic loadOrComputeLandmarks(CompactGraph graph) {
+        Path file = Paths.get(dataDirectory, "landmarks.bin");
+        if (Files.isRegularFile(file)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                LandmarkHeuristic stored = LandmarkHeuristic.readFrom(in, graph);
+                if (stored != null && stored.getLandmarkCount() == landmarkCount) {
+                    System.out.println("Loaded " + landmarkCount + " landmark tables from " + file);
+                    return stored;
+                }
+            } catch (IOException e) {
+                System.err.println("Could not read landmark tables from " + file + ": " + e.getMessage());
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        LandmarkHeuristic landmarks = LandmarkHeuristic.compute(graph, landmarkCount);
+        System.out.println("Computed " + landmarks.getLandmarkCount() + " landmark tables in "
+                + (System.currentTimeMillis() - start) + " ms");
+        try {
+            Files.createDirectories(file.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                landmarks.writeTo(out, graph);
+            }
+        } catch (IOException e) {
+            // Not fatal, the tables are just recomputed on the next start
+            System.err.println("Could not save landmark tables to " + file + ": " + e.getMessage());
+        }
+        return landmarks;
+    }
+
+    /**
+     * Reads the stations token by token, so no per-station {@code Map} is materialized.
+     */
+    private void loadNodes(CompactGraph.Builder builder, List<Node> nodes) throws IOException {
+        try (InputStream stopsStream = openFeed("StopsAndStations.json");
+             JsonParser parser = objectMapper.getFactory().createParser(stopsStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("StopsAndStations.json must contain an array of stations");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String name = null;
+                String type = null; // Read station type
+                double latitude = Double.NaN;
+                double longitude = Double.NaN;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    switch (field) {
+                        case "name":
+                            name = parser.getValueAsString();
                             break;
-                        case "otobus":
-                            transportType = "bus";
+                        case "latitude":
+                            latitude = parser.getValueAsDouble(Double.NaN);
                             break;
-                        case "metro":
-                            transportType = "metro";
+                        case "longitude":
+                            longitude = parser.getValueAsDouble(Double.NaN);
                             break;
-                        // Assuming "train" is not in current JSON, but can be added
-                        case "train":
-                            transportType = "train";
+                        case "type":
+                            type = value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
                             break;
-                        case "taksi":
-                             transportType = "taxi"; // Or handle as a special case if not part of public transport
-                             break;
                         default:
-                            transportType = "unknown"; // Or skip if type is not recognized
-                            break;
+                            parser.skipChildren();
                     }
+                }
+                if (name == null || Double.isNaN(latitude) || Double.isNaN(longitude)) {
+                    throw new IOException("Station without name or coordinates near " + parser.getCurrentLocation());
+                }
+                Node node = new Node(name, latitude, longitude, type); // Pass type to constructor
+                nodes.add(node);
+                builder.addNode(name, latitude, longitude, type); // Index matches the position in nodes
+            }
+        }
+    }
 
-
-                    if (fromNode != null && toNode != null) {
-                        double distance = calculateHaversineDistance(
-                                fromNode.getPosition().getLatitude(), fromNode.getPosition().getLongitude(),
-                                toNode.getPosition().getLatitude(), toNode.getPosition().getLongitude()
-                        );
-                        // Add edge with transport type and time
-                        this.graph.get(fromNode).add(new Edge(fromNode, toNode, distance, transportType, time));
-                        // Assuming bidirectional for now, adjust if not all transport types are bidirectional
-                        this.graph.get(toNode).add(new Edge(toNode, fromNode, distance, transportType, time));
-                    }
+    /**
+     * Streams the {@code segments} array and adds edges as they are read, without building a
+     * {@code JsonNode} tree of the whole feed.
+     */
+    private void loadEdges(CompactGraph.Builder builder, List<Node> nodes) throws IOException {
+        long start = System.nanoTime();
+        int segmentCount = 0;
+        try (InputStream transportsStream = openFeed("Transports.json");
+             JsonParser parser = objectMapper.getFactory().createParser(transportsStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Transports.json must contain an object with a segments array");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (!"segments".equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    readSegment(parser, builder, nodes);
+                    segmentCount++;
                 }
             }
         }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Loaded %d segments in %.1f ms (%.0f segments/sec)%n",
+                segmentCount, seconds * 1000, seconds > 0 ? segmentCount / seconds : 0.0);
+    }
+
+    private void readSegment(JsonParser parser, CompactGraph.Builder builder, List<Node> nodes) throws IOException {
+        String fromName = null;
+        String toName = null;
+        String tip = null;
+        String line = null; // hat, only present for scheduled lines
+        double time = 0.0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "from":
+                    fromName = parser.getValueAsString();
+                    break;
+                case "to":
+                    toName = parser.getValueAsString();
+                    break;
+                case "tip":
+                    tip = parser.getValueAsString();
+                    break;
+                case "sure_dk":
+                    time = parser.getValueAsDouble();
+                    break;
+                case "hat":
+                    line = parser.getValueAsString();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if (fromName == null || toName == null || tip == null) {
+            throw new IOException("Segment without from/to/tip near " + parser.getCurrentLocation());
+        }
+
+        TransportMode mode = TransportMode.fromTip(tip);
+        int fromIndex = builder.indexOf(fromName);
+        int toIndex = builder.indexOf(toName);
+
+        if (fromIndex >= 0 && toIndex >= 0) {
+            Node fromNode = nodes.get(fromIndex);
+            Node toNode = nodes.get(toIndex);
+            double distance = calculateHaversineDistance(
+                    fromNode.getPosition().getLatitude(), fromNode.getPosition().getLongitude(),
+                    toNode.getPosition().getLatitude(), toNode.getPosition().getLongitude()
+            );
+            // Add edge with transport type and time
+            builder.addEdge(fromIndex, toIndex, time, distance, mode, line);
+            // Assuming bidirectional for now, adjust if not all transport types are bidirectional
+            builder.addEdge(toIndex, fromIndex, time, distance, mode, line);
+        }
     }
 
     public List<NodeDTO> getAllNodes() {
-        return nodes.stream()
+        return current.get().getNodes().stream()
                 .map(this::convertToNodeDTO)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * The station list of the current version, already serialized; it only changes when the
+     * feeds are reloaded.
+     */
+    public NodeCatalogue getNodeCatalogue() {
+        return current.get().getNodeCatalogue();
+    }
     
+    /**
+     * Legacy object view of the network, rebuilt from the CSR graph on every call.
+     */
     public Map<Node, List<Edge>> getGraph() {
-        return graph;
+        GraphVersion version = current.get();
+        return version.getGraph().toAdjacencyMap(version.getNodes());
+    }
+
+    public CompactGraph getCompactGraph() {
+        return current.get().getGraph();
+    }
+
+    public OneToManyEngine getOneToManyEngine() {
+        return current.get().getOneToManyEngine();
     }
 
     public List<Node> getInternalNodes() {
-        return nodes;
+        return current.get().getNodes();
+    }
+
+    /**
+     * Engines needing preprocessing are only registered when enabled in the configuration.
+     */
+    public boolean isAvailable(RoutingAlgorithm algorithm) {
+        return current.get().getEngine(algorithm) != null;
+    }
+
+    /**
+     * Whether {@code algorithm} can be restricted to some transport modes; preprocessed
+     * shortcuts cannot leave out individual edges.
+     */
+    public boolean supportsModeFilter(RoutingAlgorithm algorithm) {
+        return current.get().getEngine(algorithm).supportsEdgeFilter();
     }
 
     public List<RouteSegmentDTO> findShortestPath(String startNodeId, String endNodeId) {
-        Node startNode = nodes.stream().filter(node -> node.getId().equals(startNodeId)).findFirst().orElse(null);
-        Node endNode = nodes.stream().filter(node -> node.getId().equals(endNodeId)).findFirst().orElse(null);
+        return findShortestPath(startNodeId, endNodeId, RoutingAlgorithm.DIJKSTRA);
+    }
+
+    public List<RouteSegmentDTO> findShortestPath(String startNodeId, String endNodeId, RoutingAlgorithm algorithm) {
+        return findShortestPath(startNodeId, endNodeId, algorithm, TransportMode.ALL_BITS);
+    }
+
+    /**
+     * @param modeBits {@link TransportMode#bitsOf modes} the route may use
+     */
+    public List<RouteSegmentDTO> findShortestPath(String startNodeId, String endNodeId, RoutingAlgorithm algorithm,
+                                                  int modeBits) {
+        GraphVersion version = current.get();
+        CompactGraph graph = version.getGraph();
+        int startIndex = graph.indexOf(startNodeId);
+        int endIndex = graph.indexOf(endNodeId);
 
-        if (startNode == null || endNode == null) {
+        if (startIndex < 0 || endIndex < 0) {
             return new ArrayList<>();
         }
 
-        Dijkstra dijkstra = new Dijkstra(this.graph); // graph is Map<Node, List<Edge>>
-        List<List<Node>> allSteps = dijkstra.findShortestPath(startNode, endNode);
+        EdgeFilter filter = graph.edgeFilter(modeBits);
+        RouteCache.Key key = new RouteCache.Key(startIndex, endIndex, algorithm,
+                filter != null ? filter.getModeBits() : TransportMode.ALL_BITS);
+        int[] pathEdges = routeCache.get(key, version.getVersion());
+        if (pathEdges == null) {
+            pathEdges = version.getEngine(algorithm).findRoute(startIndex, endIndex, filter, null).getEdges();
+            routeCache.put(key, version.getVersion(), pathEdges);
+        }
+
+        return toSegments(version, startIndex, pathEdges);
+    }
 
-        if (allSteps.isEmpty()) {
-            return new ArrayList<>(); // No path found or error in Dijkstra
+    /**
+     * Fastest route between two positions: the {@code routing.access.candidates} stations
+     * nearest to each position (within {@code routing.access.max-walk-km}) are reached on foot,
+     * so the route may board at the second-closest station if that is faster overall. The first
+     * and last segments are these walks; a direct walk is returned when it is faster. The walks
+     * are allowed whatever {@code modeBits} says. Not cached.
+     */
+    public List<RouteSegmentDTO> findRouteBetween(double fromLatitude, double fromLongitude,
+                                                  double toLatitude, double toLongitude, int modeBits) {
+        GraphVersion version = current.get();
+        CompactGraph graph = version.getGraph();
+        SpatialIndex spatialIndex = version.getSpatialIndex();
+        int[] accessNodes = spatialIndex.nearest(fromLatitude, fromLongitude, accessCandidates, accessMaxWalkKm);
+        int[] egressNodes = spatialIndex.nearest(toLatitude, toLongitude, accessCandidates, accessMaxWalkKm);
+        double[] accessTimes = new double[accessNodes.length];
+        for (int i = 0; i < accessNodes.length; i++) {
+            accessTimes[i] = walkingMinutes(graph, fromLatitude, fromLongitude, accessNodes[i]);
+        }
+        double[] egressTimes = new double[egressNodes.length];
+        for (int i = 0; i < egressNodes.length; i++) {
+            egressTimes[i] = walkingMinutes(graph, toLatitude, toLongitude, egressNodes[i]);
         }
-        // Assuming Dijkstra.findShortestPath returns List<List<Node>> where the last list is the shortest path
-        List<Node> shortestPathNodes = allSteps.get(allSteps.size() - 1); 
+        double directKm = calculateHaversineDistance(fromLatitude, fromLongitude, toLatitude, toLongitude);
+        // A walk to and a walk from a station may each be max-walk-km long, so may a direct walk of both
+        double directTime = directKm <= 2 * accessMaxWalkKm ? directKm / walkingSpeedKmh * 60 : Double.POSITIVE_INFINITY;
 
-        if (shortestPathNodes.isEmpty() || shortestPathNodes.size() < 2) { // Path needs at least two nodes for a segment
+        AccessEgressRoute result = version.getAccessEgressEngine().findRoute(accessNodes, accessTimes,
+                egressNodes, egressTimes, directTime, toLatitude, toLongitude, graph.edgeFilter(modeBits));
+        List<RouteSegmentDTO> routeSegments = new ArrayList<>();
+        if (!result.isFound()) {
+            return routeSegments;
+        }
+        NodeDTO origin = new NodeDTO("Origin", new GeoPositionDTO(fromLatitude, fromLongitude), "location");
+        NodeDTO destination = new NodeDTO("Destination", new GeoPositionDTO(toLatitude, toLongitude), "location");
+        if (result.isDirectWalk()) {
+            routeSegments.add(new RouteSegmentDTO(origin, destination, TransportMode.WALKING.getLabel(),
+                    result.getTotalTime(), directKm));
+            return routeSegments;
+        }
+
+        List<Node> nodes = version.getNodes();
+        int[] stations = result.getRoute().getNodes();
+        int first = stations[0];
+        int last = stations[stations.length - 1];
+        // No walking segment for a position right on a station
+        if (result.getAccessTime() > 0) {
+            routeSegments.add(new RouteSegmentDTO(origin, convertToNodeDTO(nodes.get(first)),
+                    TransportMode.WALKING.getLabel(), result.getAccessTime(), result.getAccessTime() * walkingSpeedKmh / 60));
+        }
+        routeSegments.addAll(toSegments(version, first, result.getRoute().getEdges()));
+        if (result.getEgressTime() > 0) {
+            routeSegments.add(new RouteSegmentDTO(convertToNodeDTO(nodes.get(last)), destination,
+                    TransportMode.WALKING.getLabel(), result.getEgressTime(), result.getEgressTime() * walkingSpeedKmh / 60));
+        }
+        return routeSegments;
+    }
+
+    private double walkingMinutes(CompactGraph graph, double latitude, double longitude, int node) {
+        double km = calculateHaversineDistance(latitude, longitude, graph.getLatitude(node), graph.getLongitude(node));
+        return km / walkingSpeedKmh * 60;
+    }
+
+    /**
+     * Up to {@code count} distinct routes, fastest first; the first one is the route
+     * {@code algorithm} finds, the others overlap it and each other by at most
+     * {@code routing.alternatives.max-overlap} of their time. Not cached.
+     */
+    public List<RouteOptionDTO> findAlternativeRoutes(String startNodeId, String endNodeId,
+                                                      RoutingAlgorithm algorithm, int modeBits, int count) {
+        GraphVersion version = current.get();
+        CompactGraph graph = version.getGraph();
+        int startIndex = graph.indexOf(startNodeId);
+        int endIndex = graph.indexOf(endNodeId);
+        if (startIndex < 0 || endIndex < 0) {
             return new ArrayList<>();
         }
 
-        List<RouteSegmentDTO> routeSegments = new ArrayList<>();
-        for (int i = 0; i < shortestPathNodes.size() - 1; i++) {
-            Node fromPathNode = shortestPathNodes.get(i);
-            Node toPathNode = shortestPathNodes.get(i + 1);
-
-            // Find the edge in the graph that connects fromPathNode to toPathNode
-            Edge connectingEdge = graph.get(fromPathNode).stream()
-                    .filter(edge -> edge.getTo().equals(toPathNode))
-                    .findFirst()
-                    .orElse(null); // Or throw an exception if an edge is expected but not found
-
-            if (connectingEdge != null) {
-                NodeDTO fromNodeDTO = convertToNodeDTO(fromPathNode);
-                NodeDTO toNodeDTO = convertToNodeDTO(toPathNode);
-                routeSegments.add(new RouteSegmentDTO(
-                        fromNodeDTO,
-                        toNodeDTO,
-                        connectingEdge.getTransportType(),
-                        connectingEdge.getTime(),
-                        connectingEdge.getWeight() // Corrected to use getWeight()
-                ));
-            } else {
-                // Handle case where no direct edge exists in the graph for a path segment from Dijkstra
-                // This might indicate an issue with the graph data or Dijkstra's output
-                // For now, we can skip this segment or log a warning
-                System.err.println("Warning: No direct edge found between " + fromPathNode.getId() + " and " + toPathNode.getId());
+        List<Route> routes = version.getAlternativeRoutesEngine().findRoutes(version.getEngine(algorithm),
+                graph.edgeFilter(modeBits), startIndex, endIndex, count);
+        List<RouteOptionDTO> options = new ArrayList<>(routes.size());
+        for (Route route : routes) {
+            int[] edges = route.getEdges();
+            double walkingTime = 0.0;
+            int boardings = 0;
+            int ride = CompactGraph.NO_RIDE;
+            for (int edge : edges) {
+                if (graph.getMode(edge) == TransportMode.WALKING) {
+                    walkingTime += graph.getTime(edge);
+                }
+                int edgeRide = graph.getRide(edge);
+                if (edgeRide != CompactGraph.NO_RIDE && edgeRide != ride) {
+                    boardings++;
+                }
+                ride = edgeRide;
             }
+            options.add(new RouteOptionDTO(route.getTotalTime(), Math.max(0, boardings - 1), walkingTime,
+                    toSegments(version, startIndex, edges)));
+        }
+        return options;
+    }
+
+    /**
+     * Every journey that is not beaten on total time, transfers and walking time at once,
+     * fastest first, so clients can offer e.g. the fastest, the fewest-transfers and the
+     * least-walking option.
+     */
+    public List<RouteOptionDTO> findRouteOptions(String startNodeId, String endNodeId, int modeBits) {
+        GraphVersion version = current.get();
+        CompactGraph graph = version.getGraph();
+        int startIndex = graph.indexOf(startNodeId);
+        int endIndex = graph.indexOf(endNodeId);
+        if (startIndex < 0 || endIndex < 0) {
+            return new ArrayList<>();
+        }
+
+        List<ParetoRoute> routes = version.getParetoEngine().findRoutes(startIndex, endIndex, graph.edgeFilter(modeBits));
+        List<RouteOptionDTO> options = new ArrayList<>(routes.size());
+        for (ParetoRoute route : routes) {
+            options.add(new RouteOptionDTO(route.getTotalTime(), route.getTransfers(), route.getWalkingTime(),
+                    toSegments(version, startIndex, route.getRoute().getEdges())));
+        }
+        return options;
+    }
+
+    private List<RouteSegmentDTO> toSegments(GraphVersion version, int startIndex, int[] pathEdges) {
+        CompactGraph graph = version.getGraph();
+        List<Node> nodes = version.getNodes();
+        List<RouteSegmentDTO> routeSegments = new ArrayList<>(pathEdges.length);
+        // The edges were recorded by the search, so the path is walked without adjacency lookups
+        int from = startIndex;
+        for (int edge : pathEdges) {
+            int to = graph.getTarget(edge);
+            routeSegments.add(new RouteSegmentDTO(
+                    convertToNodeDTO(nodes.get(from)),
+                    convertToNodeDTO(nodes.get(to)),
+                    graph.getMode(edge).getLabel(),
+                    graph.getTime(edge),
+                    graph.getDistance(edge)
+            ));
+            from = to;
         }
         return routeSegments;
     }
 
+    /**
+     * Earliest-arrival route leaving {@code startNodeId} at {@code departureTime} (seconds since
+     * midnight), riding the timetabled lines; every segment carries its clock times. Not cached,
+     * as the answer depends on the departure time.
+     */
+    public List<RouteSegmentDTO> findTimetableRoute(String startNodeId, String endNodeId, int departureTime) {
+        GraphVersion version = current.get();
+        CompactGraph graph = version.getGraph();
+        List<Node> nodes = version.getNodes();
+        int startIndex = graph.indexOf(startNodeId);
+        int endIndex = graph.indexOf(endNodeId);
+        if (startIndex < 0 || endIndex < 0) {
+            return new ArrayList<>();
+        }
+
+        Journey journey = version.getRaptorEngine().earliestArrival(startIndex, endIndex, departureTime);
+        int[] pathEdges = journey.getEdges();
+        List<RouteSegmentDTO> routeSegments = new ArrayList<>(pathEdges.length);
+        int from = startIndex;
+        for (int i = 0; i < pathEdges.length; i++) {
+            int edge = pathEdges[i];
+            int to = graph.getTarget(edge);
+            routeSegments.add(new RouteSegmentDTO(
+                    convertToNodeDTO(nodes.get(from)),
+                    convertToNodeDTO(nodes.get(to)),
+                    graph.getMode(edge).getLabel(),
+                    graph.getTime(edge),
+                    graph.getDistance(edge),
+                    formatClock(journey.getDeparture(i)),
+                    formatClock(journey.getArrival(i))
+            ));
+            from = to;
+        }
+        return routeSegments;
+    }
+
+    // Arrivals after midnight wrap around to the next day
+    private static String formatClock(int secondsOfDay) {
+        int minutes = secondsOfDay / 60;
+        return String.format("%02d:%02d", (minutes / 60) % 24, minutes % 60);
+    }
+
+    /**
+     * Stations reachable from {@code originId} within {@code maxMinutes}, optionally with the
+     * convex hull of their positions for drawing the area on a map.
+     *
+     * @return {@code null} if the origin is unknown
+     */
+    public IsochroneDTO findIsochrone(String originId, double maxMinutes, boolean includeHull) {
+        GraphVersion version = current.get();
+        CompactGraph graph = version.getGraph();
+        List<Node> nodes = version.getNodes();
+        int origin = graph.indexOf(originId);
+        if (origin < 0) {
+            return null;
+        }
+        ReachableSet reachable = version.getOneToManyEngine().reachableWithin(origin, maxMinutes);
+
+        List<ReachableStopDTO> stops = new ArrayList<>(reachable.size());
+        double[] latitudes = new double[reachable.size()];
+        double[] longitudes = new double[reachable.size()];
+        for (int i = 0; i < reachable.size(); i++) {
+            int node = reachable.getNode(i);
+            stops.add(new ReachableStopDTO(convertToNodeDTO(nodes.get(node)), reachable.getTime(i)));
+            latitudes[i] = graph.getLatitude(node);
+            longitudes[i] = graph.getLongitude(node);
+        }
+
+        List<GeoPositionDTO> hull = new ArrayList<>();
+        if (includeHull) {
+            for (int i : GeoMath.convexHull(latitudes, longitudes)) {
+                hull.add(new GeoPositionDTO(latitudes[i], longitudes[i]));
+            }
+        }
+        return new IsochroneDTO(convertToNodeDTO(nodes.get(origin)), maxMinutes, stops, hull);
+    }
+
+    /**
+     * Up to {@code k} stations nearest to the position, at most {@code maxKm} away
+     * (infinite for no limit), nearest first.
+     */
+    public List<NearbyStopDTO> findNearestStops(double latitude, double longitude, int k, double maxKm) {
+        GraphVersion version = current.get();
+        CompactGraph graph = version.getGraph();
+        int[] found = version.getSpatialIndex().nearest(latitude, longitude, k, maxKm);
+        List<NearbyStopDTO> stops = new ArrayList<>(found.length);
+        for (int node : found) {
+            stops.add(new NearbyStopDTO(convertToNodeDTO(version.getNodes().get(node)),
+                    calculateHaversineDistance(latitude, longitude, graph.getLatitude(node), graph.getLongitude(node))));
+        }
+        return stops;
+    }
+
+    public RouteCacheStatsDTO getRouteCacheStats() {
+        return new RouteCacheStatsDTO(routeCache.getHits(), routeCache.getMisses(),
+                routeCache.getEvictions(), routeCache.size());
+    }
+
     private NodeDTO convertToNodeDTO(Node node) {
         GeoPositionDTO geoPositionDTO = new GeoPositionDTO(
                 node.getPosition().getLatitude(),
@@ -192,13 +1238,6 @@ public class GraphService {
     }
 
     private double calculateHaversineDistance(double lat1, double lon1, double lat2, double lon2) {
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        lat1 = Math.toRadians(lat1);
-        lat2 = Math.toRadians(lat2);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                Math.sin(dLon / 2) * Math.sin(dLon / 2) * Math.cos(lat1) * Math.cos(lat2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return EARTH_RADIUS_KM * c;
+        return GeoMath.haversineKm(lat1, lon1, lat2, lon2);
     }
 }
@@ -0,0 +1,185 @@
+package org.example.service;
+
+import org.example.Model.AccessEgressEngine;
+import org.example.Model.AlternativeRoutesEngine;
+import org.example.Model.CompactGraph;
+import org.example.Model.CustomizableHierarchy;
+import org.example.Model.GreatCircleHeuristic;
+import org.example.Model.LandmarkHeuristic;
+import org.example.Model.Node;
+import org.example.Model.OneToManyEngine;
+import org.example.Model.ParetoEngine;
+import org.example.Model.RaptorEngine;
+import org.example.Model.RoutingAlgorithm;
+import org.example.Model.RoutingEngine;
+import org.example.Model.SearchPools;
+import org.example.Model.SpatialIndex;
+import org.example.Model.TransitTimetable;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One version of the network: the graph with every engine and index built on it.
+ * <p>
+ * Never modified after construction. {@link GraphService} publishes a new instance with a
+ * single reference swap when the feeds are reloaded or live edge times change; a query reads
+ * the reference once and works on that instance to the end, so it never mixes node or edge
+ * indices or travel times of two versions.
+ * <p>
+ * Versions of the same feeds share their topology: {@link #getGraph()} is
+ * {@link #getFeedGraph()} with the live times laid over it, and preprocessing that a change
+ * leaves valid is carried over to the next version instead of being rebuilt.
+ */
+final class GraphVersion {
+    private final long version;
+    private final long feedVersion; // bumped by reloads only; edge indices are stable within one
+    private final long loadedAt; // epoch millis
+    private final List<Node> nodes; // indexed like the graph
+    private final CompactGraph feedGraph; // times as in the feed
+    private final CompactGraph graph; // feed times with live updates applied
+    // The lower bounds hold for any graph whose times are nowhere below those of boundsGraph
+    private final CompactGraph boundsGraph;
+    private final GreatCircleHeuristic greatCircle;
+    private final LandmarkHeuristic landmarks; // null if disabled or still being computed for boundsGraph
+    private final TransitTimetable timetable;
+    private final CustomizableHierarchy hierarchyTopology; // null unless customizable CH is enabled
+    private final SearchPools searchPools; // per-thread workspaces of the engines, shared by the feed's versions
+    private final Map<RoutingAlgorithm, RoutingEngine> routingEngines;
+    private final OneToManyEngine oneToManyEngine;
+    private final RaptorEngine raptorEngine;
+    private final ParetoEngine paretoEngine;
+    private final AlternativeRoutesEngine alternativeRoutesEngine;
+    private final AccessEgressEngine accessEgressEngine;
+    private final SpatialIndex spatialIndex;
+    private final NodeCatalogue nodeCatalogue;
+
+    GraphVersion(long version, long feedVersion, long loadedAt, List<Node> nodes, CompactGraph feedGraph,
+                 CompactGraph graph, CompactGraph boundsGraph, GreatCircleHeuristic greatCircle,
+                 LandmarkHeuristic landmarks, TransitTimetable timetable, CustomizableHierarchy hierarchyTopology,
+                 SearchPools searchPools, Map<RoutingAlgorithm, RoutingEngine> routingEngines, OneToManyEngine oneToManyEngine,
+                 RaptorEngine raptorEngine, ParetoEngine paretoEngine,
+                 AlternativeRoutesEngine alternativeRoutesEngine, AccessEgressEngine accessEgressEngine,
+                 SpatialIndex spatialIndex, NodeCatalogue nodeCatalogue) {
+        this.version = version;
+        this.feedVersion = feedVersion;
+        this.loadedAt = loadedAt;
+        this.nodes = nodes;
+        this.feedGraph = feedGraph;
+        this.graph = graph;
+        this.boundsGraph = boundsGraph;
+        this.greatCircle = greatCircle;
+        this.landmarks = landmarks;
+        this.timetable = timetable;
+        this.hierarchyTopology = hierarchyTopology;
+        this.searchPools = searchPools;
+        this.routingEngines = routingEngines;
+        this.oneToManyEngine = oneToManyEngine;
+        this.raptorEngine = raptorEngine;
+        this.paretoEngine = paretoEngine;
+        this.alternativeRoutesEngine = alternativeRoutesEngine;
+        this.accessEgressEngine = accessEgressEngine;
+        this.spatialIndex = spatialIndex;
+        this.nodeCatalogue = nodeCatalogue;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    long getFeedVersion() {
+        return feedVersion;
+    }
+
+    long getLoadedAt() {
+        return loadedAt;
+    }
+
+    List<Node> getNodes() {
+        return nodes;
+    }
+
+    CompactGraph getFeedGraph() {
+        return feedGraph;
+    }
+
+    CompactGraph getGraph() {
+        return graph;
+    }
+
+    CompactGraph getBoundsGraph() {
+        return boundsGraph;
+    }
+
+    GreatCircleHeuristic getGreatCircle() {
+        return greatCircle;
+    }
+
+    LandmarkHeuristic getLandmarks() {
+        return landmarks;
+    }
+
+    TransitTimetable getTimetable() {
+        return timetable;
+    }
+
+    CustomizableHierarchy getHierarchyTopology() {
+        return hierarchyTopology;
+    }
+
+    SearchPools getSearchPools() {
+        return searchPools;
+    }
+
+    /**
+     * @return {@code null} if the algorithm needs preprocessing that is not enabled
+     */
+    RoutingEngine getEngine(RoutingAlgorithm algorithm) {
+        return routingEngines.get(algorithm);
+    }
+
+    OneToManyEngine getOneToManyEngine() {
+        return oneToManyEngine;
+    }
+
+    RaptorEngine getRaptorEngine() {
+        return raptorEngine;
+    }
+
+    ParetoEngine getParetoEngine() {
+        return paretoEngine;
+    }
+
+    AlternativeRoutesEngine getAlternativeRoutesEngine() {
+        return alternativeRoutesEngine;
+    }
+
+    AccessEgressEngine getAccessEgressEngine() {
+        return accessEgressEngine;
+    }
+
+    SpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    NodeCatalogue getNodeCatalogue() {
+        return nodeCatalogue;
+    }
+
+    /**
+     * This version with the landmark tables of its bounds graph, computed after it was
+     * published, and the ALT engines running on them.
+     */
+    GraphVersion withLandmarks(LandmarkHeuristic landmarks, RoutingEngine alt, RoutingEngine bidirectionalAlt) {
+        Map<RoutingAlgorithm, RoutingEngine> engines = new EnumMap<>(RoutingAlgorithm.class);
+        engines.putAll(routingEngines);
+        engines.put(RoutingAlgorithm.ALT, alt);
+        engines.put(RoutingAlgorithm.BIDIRECTIONAL_ALT, bidirectionalAlt);
+        return new GraphVersion(version, feedVersion, loadedAt, nodes, feedGraph, graph, boundsGraph, greatCircle,
+                landmarks, timetable, hierarchyTopology, searchPools, Collections.unmodifiableMap(engines),
+                oneToManyEngine, raptorEngine, paretoEngine, alternativeRoutesEngine, accessEgressEngine,
+                spatialIndex, nodeCatalogue);
+    }
+}
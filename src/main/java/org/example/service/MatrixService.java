@@ -0,0 +1,142 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.Model.CompactGraph;
+import org.example.Model.OneToManyEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Origin-destination travel-time matrices: one one-to-many search per source, run in
+ * parallel on the {@link RoutingExecutor} workers, with the rows written out chunk by chunk as
+ * they are computed.
+ */
+@Service
+public class MatrixService {
+
+    private final GraphService graphService;
+    private final RoutingExecutor routingExecutor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${routing.matrix.max-cells:1000000}")
+    private long maxCells;
+
+    public MatrixService(GraphService graphService, RoutingExecutor routingExecutor) {
+        this.graphService = graphService;
+        this.routingExecutor = routingExecutor;
+    }
+
+    /**
+     * Resolves the station ids up front, so invalid requests fail before any output is written.
+     *
+     * @throws IllegalArgumentException for unknown ids, empty lists or a matrix above the size limit
+     */
+    public MatrixQuery prepare(List<String> sourceIds, List<String> targetIds) {
+        if (sourceIds == null || sourceIds.isEmpty() || targetIds == null || targetIds.isEmpty()) {
+            throw new IllegalArgumentException("Both sources and targets must be non-empty");
+        }
+        if ((long) sourceIds.size() * targetIds.size() > maxCells) {
+            throw new IllegalArgumentException("Matrix exceeds " + maxCells + " cells");
+        }
+        // Indices and engine must come from the same version, whatever reloads happen meanwhile
+        GraphVersion version = graphService.currentVersion();
+        CompactGraph graph = version.getGraph();
+        List<String> unknown = new ArrayList<>();
+        int[] sources = resolve(graph, sourceIds, unknown);
+        int[] targets = resolve(graph, targetIds, unknown);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown station ids: " + unknown);
+        }
+        return new MatrixQuery(sourceIds, targetIds, sources, targets, version.getOneToManyEngine());
+    }
+
+    private static int[] resolve(CompactGraph graph, List<String> ids, List<String> unknown) {
+        int[] indices = new int[ids.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = graph.indexOf(ids.get(i));
+            if (indices[i] < 0) {
+                unknown.add(ids.get(i));
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Writes {@code {"sources": [...], "targets": [...], "times": [[...], ...]}} with travel
+     * times in minutes and {@code null} for unreachable pairs. Only one chunk of rows is held
+     * in memory at a time.
+     */
+    public void writeMatrix(MatrixQuery query, OutputStream out) throws IOException {
+        int chunkSize = routingExecutor.getWorkerCount() * 4;
+        int targetCount = query.targets.length;
+        double[][] rows = new double[Math.min(chunkSize, query.sources.length)][targetCount];
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            writeIds(generator, "sources", query.sourceIds);
+            writeIds(generator, "targets", query.targetIds);
+            generator.writeArrayFieldStart("times");
+            for (int chunkStart = 0; chunkStart < query.sources.length; chunkStart += chunkSize) {
+                int start = chunkStart;
+                int end = Math.min(start + chunkSize, query.sources.length);
+                try {
+                    routingExecutor.forEach(end - start, i ->
+                            query.engine.travelTimes(query.sources[start + i], query.targets, rows[i]));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Matrix computation interrupted");
+                }
+
+                for (int row = start; row < end; row++) {
+                    generator.writeStartArray();
+                    for (double time : rows[row - start]) {
+                        if (Double.isInfinite(time)) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeNumber(time);
+                        }
+                    }
+                    generator.writeEndArray();
+                }
+                generator.flush();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeIds(JsonGenerator generator, String field, List<String> ids) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (String id : ids) {
+            generator.writeString(id);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * A validated matrix request, bound to the engine of the graph it was resolved against.
+     */
+    public static final class MatrixQuery {
+        private final List<String> sourceIds;
+        private final List<String> targetIds;
+        private final int[] sources;
+        private final int[] targets;
+        private final OneToManyEngine engine;
+
+        private MatrixQuery(List<String> sourceIds, List<String> targetIds, int[] sources, int[] targets,
+                            OneToManyEngine engine) {
+            this.sourceIds = sourceIds;
+            this.targetIds = targetIds;
+            this.sources = sources;
+            this.targets = targets;
+            this.engine = engine;
+        }
+    }
+}
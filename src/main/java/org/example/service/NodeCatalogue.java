@@ -0,0 +1,149 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.NodeDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The station list served by {@code /api/map/nodes}, serialized once per feed load: the JSON
+ * bytes, their gzip encoding and an entity tag derived from the content, so an unchanged
+ * catalogue gets the same tag across restarts and a client revalidating it gets a 304.
+ * <p>
+ * Map clients on very large networks fetch only the stations in view instead, optionally
+ * thinned out for the zoom level. Immutable and safe to share between threads.
+ */
+public final class NodeCatalogue {
+    // Thinning keeps one station per cell of this many pixels on a side
+    private static final int CELL_PIXELS = 32;
+    private static final int TILE_PIXELS = 256;
+
+    private final List<NodeDTO> nodes; // most connected stations first
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String contentHash;
+    private final String rankingHash; // thinning depends on the ranking, which can change with the edges alone
+
+    private NodeCatalogue(List<NodeDTO> nodes, byte[] json, byte[] gzip, String contentHash, String rankingHash) {
+        this.nodes = nodes;
+        this.json = json;
+        this.gzip = gzip;
+        this.contentHash = contentHash;
+        this.rankingHash = rankingHash;
+    }
+
+    /**
+     * @param nodes   every station, in the order of the full catalogue
+     * @param degrees number of connections of each station, ranking them for thinning
+     */
+    static NodeCatalogue build(List<NodeDTO> nodes, int[] degrees, ObjectMapper objectMapper) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(nodes);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        Integer[] order = new Integer[nodes.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(degrees[b], degrees[a]));
+        List<NodeDTO> ranked = new ArrayList<>(order.length);
+        StringBuilder ranking = new StringBuilder(order.length * 6);
+        for (int i : order) {
+            ranked.add(nodes.get(i));
+            ranking.append(i).append(',');
+        }
+        return new NodeCatalogue(Collections.unmodifiableList(ranked), json, gzip(json), hash(json),
+                hash(ranking.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    /**
+     * Strong entity tag of the full catalogue, quoted; the gzip encoding is a different
+     * representation and gets a tag of its own.
+     */
+    public String getETag(boolean gzipped) {
+        return "\"" + contentHash + (gzipped ? "-gzip" : "") + "\"";
+    }
+
+    /**
+     * Stations inside the box, most connected first; with a zoom level at most one per
+     * {@value #CELL_PIXELS}-pixel cell of a web map at that zoom.
+     *
+     * @param zoom web map zoom level, null for every station in the box
+     */
+    public List<NodeDTO> select(double minLat, double minLon, double maxLat, double maxLon, Integer zoom) {
+        double cellDegrees = zoom != null ? 360.0 / (1L << zoom) / TILE_PIXELS * CELL_PIXELS : 0;
+        Set<Long> occupied = new HashSet<>();
+        List<NodeDTO> selected = new ArrayList<>();
+        for (NodeDTO node : nodes) {
+            double lat = node.getPosition().getLatitude();
+            double lon = node.getPosition().getLongitude();
+            if (lat < minLat || lat > maxLat || lon < minLon || lon > maxLon) {
+                continue;
+            }
+            if (zoom != null) {
+                long cell = (long) Math.floor(lat / cellDegrees) * (1L << 32) + (long) Math.floor(lon / cellDegrees);
+                if (!occupied.add(cell)) {
+                    continue;
+                }
+            }
+            selected.add(node);
+        }
+        return selected;
+    }
+
+    /**
+     * Strong entity tag of a {@link #select} result, quoted; it only changes with the catalogue
+     * or the request, so a revalidation is answered without selecting anything.
+     */
+    public String getSelectionETag(double minLat, double minLon, double maxLat, double maxLon, Integer zoom) {
+        String request = rankingHash + "," + minLat + "," + minLon + "," + maxLat + "," + maxLon + "," + zoom;
+        return "\"" + contentHash + "-" + hash(request.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    // First 16 hex digits of the SHA-256 of the data
+    private static String hash(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package org.example.service;
+
+import org.example.Model.RoutingAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of computed routes, stored as the edge indices of the
+ * {@link org.example.Model.CompactGraph} (a few bytes per segment instead of a DTO tree).
+ * <p>
+ * Keys are spread over independently locked stripes, each an access-ordered
+ * {@link LinkedHashMap} that drops its least recently used entry when full. Entries older
+ * than the time-to-live are dropped when they are read.
+ * <p>
+ * Every entry is stamped with the graph version it was computed or last checked on and is only
+ * served to readers of that version, so a version published before the cache has been checked
+ * against it never sees routes of the previous one.
+ */
+public class RouteCache {
+    private static final int STRIPE_BITS = 4;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+
+    private final Stripe[] stripes;
+    private final long ttlNanos;
+    private final boolean enabled;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries total capacity; 0 disables caching
+     * @param ttlSeconds entry lifetime; 0 or less keeps entries until evicted
+     */
+    public RouteCache(int maxEntries, long ttlSeconds) {
+        this.enabled = maxEntries > 0;
+        this.ttlNanos = ttlSeconds > 0 ? ttlSeconds * 1_000_000_000L : Long.MAX_VALUE;
+        int perStripe = Math.max(1, (maxEntries + STRIPES - 1) / STRIPES);
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * @return the edge indices cached for {@code graphVersion}, or {@code null} on a miss
+     */
+    public int[] get(Key key, long graphVersion) {
+        if (!enabled) {
+            return null;
+        }
+        Stripe stripe = stripeFor(key);
+        int[] edges;
+        synchronized (stripe) {
+            CachedRoute route = stripe.entries.get(key);
+            if (route != null && System.nanoTime() - route.createdAt > ttlNanos) {
+                stripe.entries.remove(key);
+                evictions.increment();
+                route = null;
+            }
+            edges = route != null && route.graphVersion == graphVersion ? route.edges : null;
+        }
+        if (edges != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return edges;
+    }
+
+    /**
+     * Caches a route computed on {@code graphVersion}, unless one of a later version is cached
+     * already (a reader still on an older version finished after it).
+     */
+    public void put(Key key, long graphVersion, int[] edges) {
+        if (!enabled) {
+            return;
+        }
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            CachedRoute cached = stripe.entries.get(key);
+            if (cached == null || cached.graphVersion <= graphVersion) {
+                stripe.put(key, new CachedRoute(edges, graphVersion, System.nanoTime()));
+            }
+        }
+    }
+
+    /**
+     * Drops every entry; called whenever the graph the edge indices refer to is replaced.
+     */
+    public void invalidateAll() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.entries.clear();
+            }
+        }
+    }
+
+    /**
+     * Decides whether a cached route may have become wrong.
+     */
+    public interface StalePredicate {
+        boolean isStale(Key key, int[] edges);
+    }
+
+    /**
+     * Carries the entries of {@code fromVersion} over to {@code toVersion}, dropping those the
+     * predicate marks as stale and those of even older versions. Entries already cached for
+     * {@code toVersion} are kept as they are. The predicate runs on a copy of each stripe, outside
+     * its lock, so lookups go on meanwhile; it is only called for entries of {@code fromVersion}.
+     *
+     * @return the number of entries dropped
+     */
+    public int invalidateIf(StalePredicate predicate, long fromVersion, long toVersion) {
+        int removed = 0;
+        List<Key> keys = new ArrayList<>();
+        List<CachedRoute> routes = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            keys.clear();
+            routes.clear();
+            synchronized (stripe) {
+                for (Map.Entry<Key, CachedRoute> entry : stripe.entries.entrySet()) {
+                    if (entry.getValue().graphVersion < toVersion) {
+                        keys.add(entry.getKey());
+                        routes.add(entry.getValue());
+                    }
+                }
+            }
+            boolean[] stale = new boolean[keys.size()];
+            for (int i = 0; i < stale.length; i++) {
+                CachedRoute route = routes.get(i);
+                stale[i] = route.graphVersion != fromVersion || predicate.isStale(keys.get(i), route.edges);
+            }
+            synchronized (stripe) {
+                for (int i = 0; i < stale.length; i++) {
+                    CachedRoute route = routes.get(i);
+                    if (stale[i]) {
+                        // Only if it has not been replaced meanwhile; removing by value keeps the access order
+                        if (stripe.entries.remove(keys.get(i), route)) {
+                            removed++;
+                        }
+                    } else {
+                        route.graphVersion = toVersion;
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private Stripe stripeFor(Key key) {
+        // Fibonacci hashing: the top bits of the product depend on every bit of the hash code
+        int h = key.hashCode() * 0x9E3779B9;
+        return stripes[h >>> (Integer.SIZE - STRIPE_BITS)];
+    }
+
+    /**
+     * Origin, destination and routing options of a cached route.
+     */
+    public static final class Key {
+        private final int source;
+        private final int target;
+        private final RoutingAlgorithm algorithm;
+        private final int modeBits;
+
+        public Key(int source, int target, RoutingAlgorithm algorithm, int modeBits) {
+            this.source = source;
+            this.target = target;
+            this.algorithm = algorithm;
+            this.modeBits = modeBits;
+        }
+
+        public int getSource() {
+            return source;
+        }
+
+        public int getTarget() {
+            return target;
+        }
+
+        public int getModeBits() {
+            return modeBits;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return source == key.source && target == key.target && algorithm == key.algorithm
+                    && modeBits == key.modeBits;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, target, algorithm, modeBits);
+        }
+    }
+
+    private static final class CachedRoute {
+        private final int[] edges;
+        private final long createdAt;
+        // Graph version the route is known to be fastest on; guarded by the stripe
+        private long graphVersion;
+
+        private CachedRoute(int[] edges, long graphVersion, long createdAt) {
+            this.edges = edges;
+            this.graphVersion = graphVersion;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * One independently locked part of the cache; callers synchronize on the stripe.
+     */
+    private final class Stripe {
+        // Access order: iteration starts at the least recently used entry
+        private final LinkedHashMap<Key, CachedRoute> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void put(Key key, CachedRoute route) {
+            entries.put(key, route);
+            if (entries.size() > capacity) {
+                Iterator<Key> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.service;
+
+import org.example.Model.RoutingAlgorithm;
+import org.example.dto.RouteResultDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs batches of route queries on a fixed pool of routing threads, one per core by default.
+ * <p>
+ * The workers are long-lived, so the per-thread search state pooled by the engines is
+ * allocated once per worker and reused by every query it runs. Each batch keeps at most
+ * two queries per worker in flight and hands results back in completion order, so a large
+ * batch neither floods the pool nor holds all results in memory.
+ */
+@Service
+public class RoutingExecutor {
+
+    private final GraphService graphService;
+    private final ExecutorService workers;
+    private final int workerCount;
+
+    public RoutingExecutor(GraphService graphService, @Value("${routing.executor.threads:0}") int threads) {
+        this.graphService = graphService;
+        this.workerCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "routing-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.workers = Executors.newFixedThreadPool(workerCount, threadFactory);
+    }
+
+    /**
+     * Receives each result on the calling thread, in the order the queries finish.
+     */
+    public interface ResultHandler {
+        void onResult(RouteResultDTO result) throws IOException;
+    }
+
+    /**
+     * One query of a batch; the algorithm and modes have already been resolved and validated.
+     */
+    public static final class Query {
+        private final String startNodeId;
+        private final String endNodeId;
+        private final RoutingAlgorithm algorithm;
+        private final int modeBits;
+
+        public Query(String startNodeId, String endNodeId, RoutingAlgorithm algorithm, int modeBits) {
+            this.startNodeId = startNodeId;
+            this.endNodeId = endNodeId;
+            this.algorithm = algorithm;
+            this.modeBits = modeBits;
+        }
+    }
+
+    public void routeAll(List<Query> queries, ResultHandler handler) throws IOException, InterruptedException {
+        ExecutorCompletionService<RouteResultDTO> completion = new ExecutorCompletionService<>(workers);
+        int maxInFlight = workerCount * 2;
+        int submitted = 0;
+        int inFlight = 0;
+        while (submitted < queries.size() || inFlight > 0) {
+            while (submitted < queries.size() && inFlight < maxInFlight) {
+                int index = submitted++;
+                Query query = queries.get(index);
+                completion.submit(() -> route(index, query));
+                inFlight++;
+            }
+            RouteResultDTO result;
+            try {
+                result = completion.take().get();
+            } catch (ExecutionException e) {
+                // route() turns failures into error results, so this is a bug in the engine itself
+                throw new IllegalStateException("Routing worker failed", e.getCause());
+            }
+            inFlight--;
+            handler.onResult(result);
+        }
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * Runs {@code task} for {@code 0 .. count - 1} on the routing workers and returns once all
+     * have finished, so other work on the server shares the same bounded pool. Must not be
+     * called from a routing worker itself.
+     *
+     * @throws RuntimeException the first failure of a task, after all of them have finished
+     */
+    public void forEach(int count, IntConsumer task) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            futures.add(workers.submit(() -> task.accept(index)));
+        }
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException
+                            ? (RuntimeException) e.getCause()
+                            : new IllegalStateException("Routing worker failed", e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private RouteResultDTO route(int index, Query query) {
+        try {
+            return new RouteResultDTO(index, query.startNodeId, query.endNodeId,
+                    graphService.findShortestPath(query.startNodeId, query.endNodeId, query.algorithm,
+                            query.modeBits), null);
+        } catch (RuntimeException e) {
+            return new RouteResultDTO(index, query.startNodeId, query.endNodeId, null, e.toString());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -68,6 +68,25 @@ document.addEventListener('DOMContentLoaded', () => {
     });
     map.addLayer(routeLayer);
 
+    // Layer for the reachable area (isochrone) around the selected start station
+    const isochroneLayerSource = new ol.source.Vector();
+    const isochroneLayer = new ol.layer.Vector({
+        source: isochroneLayerSource,
+        style: feature => feature.getGeometry().getType() === 'Polygon'
+            ? new ol.style.Style({
+                fill: new ol.style.Fill({color: 'rgba(0, 230, 118, 0.2)'}),
+                stroke: new ol.style.Stroke({color: '#00E676', width: 2})
+            })
+            : new ol.style.Style({
+                image: new ol.style.Circle({
+                    radius: 7,
+                    fill: new ol.style.Fill({color: 'rgba(0, 230, 118, 0.6)'}),
+                    stroke: new ol.style.Stroke({color: 'white', width: 1})
+                })
+            })
+    });
+    map.addLayer(isochroneLayer);
+
     // Layer for precise click markers (start/end points chosen by user)
     const clickedPointsSource = new ol.source.Vector();
     const clickedPointsLayer = new ol.layer.Vector({
@@ -131,22 +150,21 @@ document.addEventListener('DOMContentLoaded', () => {
         console.log('Station markers added to map');
     }
 
-    function findNearestNode(coordinate, nodesList) {
-        let nearestNode = null;
-        let minDistance = Infinity;
+    // Asks the server's spatial index instead of scanning every station in the browser
+    async function findNearestNode(coordinate) {
         const clickLonLat = ol.proj.toLonLat(coordinate); // Coordinate is in map projection
-        const tolerance = 2000; // Increased tolerance to 2km, adjust as needed
-
-        nodesList.forEach(node => {
-            const nodeLonLat = [node.position.longitude, node.position.latitude];
-            const distance = ol.sphere.getDistance(clickLonLat, nodeLonLat);
-
-            if (distance < minDistance && distance < tolerance) {
-                minDistance = distance;
-                nearestNode = node;
+        const toleranceKm = 2; // Increased tolerance to 2km, adjust as needed
+        try {
+            const response = await fetch(`/api/map/nearest?lat=${clickLonLat[1]}&lon=${clickLonLat[0]}&k=1&radiusKm=${toleranceKm}`);
+            if (!response.ok) {
+                throw new Error(`HTTP error! status: ${response.status}`);
             }
-        });
-        return nearestNode;
+            const nearest = await response.json(); // Expecting List<NearbyStopDTO>
+            return nearest.length > 0 ? nearest[0].node : null;
+        } catch (error) {
+            console.error('Error looking up nearest station:', error);
+            return null;
+        }
     }
     
     // No longer using selectedPointsSource/Layer for nearest stations, only for actual clicks.
@@ -164,7 +182,10 @@ document.addEventListener('DOMContentLoaded', () => {
         }
 
         try {
-            const backendResponse = await fetch(`/api/map/route?startNodeId=${encodeURIComponent(currentStartPoint.nearestStationNode.id)}&endNodeId=${encodeURIComponent(currentEndPoint.nearestStationNode.id)}`);
+            // Route from the clicked positions; the backend picks the stations to walk to and from
+            const [fromLon, fromLat] = currentStartPoint.clickedCoordsLonLat;
+            const [toLon, toLat] = currentEndPoint.clickedCoordsLonLat;
+            const backendResponse = await fetch(`/api/map/route?fromLat=${fromLat}&fromLon=${fromLon}&toLat=${toLat}&toLon=${toLon}`);
             if (!backendResponse.ok) {
                 const errorText = await backendResponse.text();
                 throw new Error(`Backend error! status: ${backendResponse.status}, message: ${errorText || 'Failed to fetch transit route'}`);
@@ -172,11 +193,19 @@ document.addEventListener('DOMContentLoaded', () => {
             const routeSegments = await backendResponse.json(); // Expecting List<RouteSegmentDTO>
             console.log('Route segments from backend:', routeSegments);
 
+            // The route may board and alight at other stations than the nearest ones
+            const stationsUsed = routeSegments.flatMap(segment => [segment.fromNode, segment.toNode])
+                .filter(node => node.type !== 'location');
+            if (stationsUsed.length > 0) {
+                currentStartPoint.nearestStationNode = stationsUsed[0];
+                currentEndPoint.nearestStationNode = stationsUsed[stationsUsed.length - 1];
+            }
+
             await drawDetailedStreetRoute(currentStartPoint, currentEndPoint, routeSegments); 
 
             let routeInfoHtml = `<div class="route-summary">\
-                                    <p style ="color: #00E676"><strong>From:</strong> Your selected start point (Nearest: ${currentStartPoint.nearestStationNode.id})</p>\
-                                    <p style="color: #00E676"><strong>To:</strong> Your selected end point (Nearest: ${currentEndPoint.nearestStationNode.id})</p>\
+                                    <p style ="color: #00E676"><strong>From:</strong> Your selected start point (Boarding at: ${currentStartPoint.nearestStationNode.id})</p>\
+                                    <p style="color: #00E676"><strong>To:</strong> Your selected end point (Alighting at: ${currentEndPoint.nearestStationNode.id})</p>\
                                  </div>`;
             
             let totalTime = 0;
@@ -349,10 +378,10 @@ document.addEventListener('DOMContentLoaded', () => {
     }
 
 
-    map.on('click', function(evt) {
+    map.on('click', async function(evt) {
         const clickedMapCoords = evt.coordinate; // In map projection
         const clickedLonLat = ol.proj.toLonLat(clickedMapCoords); // For storing and OSRM
-        const identifiedNearestStation = findNearestNode(clickedMapCoords, allNodes);
+        const identifiedNearestStation = await findNearestNode(clickedMapCoords);
 
         if (!identifiedNearestStation) {
             alert('Your selected point is too far from any known transit station. Please click closer to the transit network.');
@@ -404,12 +433,68 @@ document.addEventListener('DOMContentLoaded', () => {
     clearButton.textContent = 'Clear Selection';
     statusLabel.parentNode.insertBefore(clearButton, statusLabel.nextSibling);
 
+    const isochroneMinutesInput = document.createElement('input');
+    isochroneMinutesInput.id = 'isochrone-minutes';
+    isochroneMinutesInput.type = 'number';
+    isochroneMinutesInput.min = '1';
+    isochroneMinutesInput.value = '30';
+    isochroneMinutesInput.title = 'Travel time budget in minutes';
+    clearButton.parentNode.insertBefore(isochroneMinutesInput, clearButton.nextSibling);
+
+    const isochroneButton = document.createElement('button');
+    isochroneButton.id = 'isochrone-button';
+    isochroneButton.textContent = 'Show Reachable Area';
+    isochroneMinutesInput.parentNode.insertBefore(isochroneButton, isochroneMinutesInput.nextSibling);
+
+    async function fetchAndDisplayIsochrone(originStation, maxMinutes) {
+        isochroneLayerSource.clear();
+        updateStatusLabel(`Calculating stations reachable from ${originStation.id} within ${maxMinutes} minutes...`);
+        try {
+            const response = await fetch(`/api/map/isochrone?from=${encodeURIComponent(originStation.id)}&maxMinutes=${encodeURIComponent(maxMinutes)}`);
+            if (!response.ok) {
+                throw new Error(`HTTP error! status: ${response.status}`);
+            }
+            const isochrone = await response.json(); // Expecting IsochroneDTO
+            console.log('Isochrone from backend:', isochrone);
+
+            if (isochrone.hull.length >= 3) {
+                const ring = isochrone.hull.map(p => ol.proj.fromLonLat([p.longitude, p.latitude]));
+                ring.push(ring[0]);
+                isochroneLayerSource.addFeature(new ol.Feature({ geometry: new ol.geom.Polygon([ring]), name: 'Reachable Area' }));
+            }
+            isochrone.stops.forEach(stop => {
+                isochroneLayerSource.addFeature(new ol.Feature({
+                    geometry: new ol.geom.Point(ol.proj.fromLonLat([stop.node.position.longitude, stop.node.position.latitude])),
+                    name: `${stop.node.id} (${stop.time.toFixed(0)} min)`
+                }));
+            });
+            updateStatusLabel(`${isochrone.stops.length} stations reachable from ${originStation.id} within ${maxMinutes} minutes.`);
+        } catch (error) {
+            console.error('Error fetching isochrone:', error);
+            updateStatusLabel(`Error calculating reachable area.`);
+        }
+    }
+
+    isochroneButton.addEventListener('click', () => {
+        const maxMinutes = parseFloat(isochroneMinutesInput.value);
+        if (!startPoint || !startPoint.nearestStationNode) {
+            alert('Select a starting point on the map first.');
+            return;
+        }
+        if (isNaN(maxMinutes) || maxMinutes < 0) {
+            alert('Please enter a valid number of minutes.');
+            return;
+        }
+        fetchAndDisplayIsochrone(startPoint.nearestStationNode, maxMinutes);
+    });
+
     clearButton.addEventListener('click', () => {
         startPoint = null;
         endPoint = null;
         clickCount = 0;
         clickedPointsSource.clear(); // Clear precise click markers
         routeLayerSource.clear(); 
+        isochroneLayerSource.clear();
         updateStatusLabel('Select your precise starting point on the map.');
         if (infoPanel) {
             infoPanel.style.display = 'none';
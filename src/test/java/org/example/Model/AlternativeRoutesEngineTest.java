@@ -0,0 +1,148 @@
+package org.example.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlternativeRoutesEngineTest {
+    private static final int K = 5;
+
+    @Test
+    void matchesKShortestSimplePathsOnGrid() {
+        CompactGraph graph = TestGraphs.grid(25, 41);
+        assertMatchesEnumeration(graph, 100.0);
+    }
+
+    @Test
+    void matchesKShortestSimplePathsOnOneWayEdges() {
+        CompactGraph graph = TestGraphs.randomDirected(12, 40, 42);
+        assertMatchesEnumeration(graph, 100.0);
+    }
+
+    @Test
+    void respectsStretchLimit() {
+        CompactGraph graph = TestGraphs.grid(25, 43);
+        assertMatchesEnumeration(graph, 1.3);
+    }
+
+    @Test
+    void keptRoutesOverlapAtMostTheAllowedShare() {
+        CompactGraph graph = TestGraphs.grid(400, 44);
+        double maxOverlap = 0.5;
+        AlternativeRoutesEngine engine = new AlternativeRoutesEngine(graph, new GreatCircleHeuristic(graph),
+                maxOverlap, 1.5);
+        DijkstraEngine dijkstra = new DijkstraEngine(graph);
+        Random random = new Random(45);
+        for (int i = 0; i < 50; i++) {
+            int source = random.nextInt(graph.getNodeCount());
+            int target = random.nextInt(graph.getNodeCount());
+            if (source == target) {
+                continue;
+            }
+            List<Route> routes = engine.findRoutes(dijkstra, null, source, target, 3);
+            assertEquals(dijkstra.findRoute(source, target).getTotalTime(), routes.get(0).getTotalTime(),
+                    TestGraphs.EPSILON);
+            for (int r = 0; r < routes.size(); r++) {
+                Route route = routes.get(r);
+                assertLoopless(graph, route, source, target);
+                assertTrue(route.getTotalTime() <= routes.get(0).getTotalTime() * 1.5 + TestGraphs.EPSILON);
+                for (int earlier = 0; earlier < r; earlier++) {
+                    double shared = sharedTime(graph, route, routes.get(earlier));
+                    assertTrue(shared <= maxOverlap * route.getTotalTime() + TestGraphs.EPSILON,
+                            "route " + r + " shares " + shared + " of " + route.getTotalTime()
+                                    + " with route " + earlier);
+                }
+            }
+        }
+    }
+
+    /**
+     * Without an overlap limit the engine returns Yen's k shortest loopless paths, so their
+     * times must be the k smallest among all simple paths within the stretch limit.
+     */
+    private static void assertMatchesEnumeration(CompactGraph graph, double maxStretch) {
+        AlternativeRoutesEngine engine = new AlternativeRoutesEngine(graph, new GreatCircleHeuristic(graph), 1.0,
+                maxStretch);
+        DijkstraEngine dijkstra = new DijkstraEngine(graph);
+        for (int source = 0; source < graph.getNodeCount(); source++) {
+            for (int target = 0; target < graph.getNodeCount(); target++) {
+                if (source == target) {
+                    continue;
+                }
+                List<Double> times = new ArrayList<>();
+                boolean[] onPath = new boolean[graph.getNodeCount()];
+                onPath[source] = true;
+                enumerate(graph, source, target, onPath, 0.0, times);
+                Collections.sort(times);
+                List<Double> expected = new ArrayList<>();
+                for (double time : times) {
+                    if (expected.size() < K && time <= times.get(0) * maxStretch + TestGraphs.EPSILON) {
+                        expected.add(time);
+                    }
+                }
+
+                List<Route> routes = engine.findRoutes(dijkstra, null, source, target, K);
+                assertEquals(expected.size(), routes.size(), "routes from " + source + " to " + target);
+                Set<List<Integer>> distinct = new HashSet<>();
+                for (int r = 0; r < routes.size(); r++) {
+                    assertLoopless(graph, routes.get(r), source, target);
+                    assertEquals(expected.get(r), routes.get(r).getTotalTime(), TestGraphs.EPSILON,
+                            "route " + r + " from " + source + " to " + target);
+                    List<Integer> nodes = new ArrayList<>();
+                    for (int node : routes.get(r).getNodes()) {
+                        nodes.add(node);
+                    }
+                    assertTrue(distinct.add(nodes), "route " + r + " returned twice");
+                }
+            }
+        }
+    }
+
+    // Time of every simple path as a node sequence, taking the fastest of parallel edges
+    private static void enumerate(CompactGraph graph, int node, int target, boolean[] onPath, double time,
+                                  List<Double> times) {
+        if (node == target) {
+            times.add(time);
+            return;
+        }
+        for (int e = graph.edgesStart(node); e < graph.edgesEnd(node); e++) {
+            int next = graph.getTarget(e);
+            if (onPath[next] || graph.isClosed(e) || graph.findEdge(node, next) != e) {
+                continue;
+            }
+            onPath[next] = true;
+            enumerate(graph, next, target, onPath, time + graph.getTime(e), times);
+            onPath[next] = false;
+        }
+    }
+
+    private static void assertLoopless(CompactGraph graph, Route route, int source, int target) {
+        TestGraphs.assertValidRoute(graph, route, source, target);
+        Set<Integer> visited = new HashSet<>();
+        for (int node : route.getNodes()) {
+            assertTrue(visited.add(node), "route visits " + node + " twice");
+        }
+    }
+
+    private static double sharedTime(CompactGraph graph, Route route, Route other) {
+        Set<Long> pairs = new HashSet<>();
+        for (int i = 0; i + 1 < other.getNodes().length; i++) {
+            pairs.add(((long) other.getNodes()[i] << 32) | other.getNodes()[i + 1]);
+        }
+        double shared = 0.0;
+        for (int i = 0; i < route.getEdges().length; i++) {
+            if (pairs.contains(((long) route.getNodes()[i] << 32) | route.getNodes()[i + 1])) {
+                shared += graph.getTime(route.getEdges()[i]);
+            }
+        }
+        return shared;
+    }
+}
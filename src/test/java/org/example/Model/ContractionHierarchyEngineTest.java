@@ -0,0 +1,41 @@
+package org.example.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ContractionHierarchyEngineTest {
+
+    @Test
+    void matchesDijkstraOnGrid() {
+        CompactGraph graph = TestGraphs.grid(400, 1);
+        ContractionHierarchyEngine engine = new ContractionHierarchyEngine(new ContractionHierarchyBuilder(graph).build());
+        TestGraphs.assertMatchesDijkstra(graph, engine, 300, 2);
+    }
+
+    @Test
+    void matchesDijkstraOnOneWayEdges() {
+        CompactGraph graph = TestGraphs.randomDirected(150, 450, 3);
+        ContractionHierarchyEngine engine = new ContractionHierarchyEngine(new ContractionHierarchyBuilder(graph).build());
+        TestGraphs.assertMatchesDijkstra(graph, engine, 500, 4);
+    }
+
+    @Test
+    void sourceEqualsTarget() {
+        CompactGraph graph = TestGraphs.grid(64, 5);
+        Route route = new ContractionHierarchyEngine(new ContractionHierarchyBuilder(graph).build()).findRoute(7, 7);
+        assertEquals(0.0, route.getTotalTime());
+        assertEquals(0, route.getEdges().length);
+    }
+
+    @Test
+    void rejectsEdgeFilters() {
+        CompactGraph graph = TestGraphs.grid(64, 5);
+        ContractionHierarchyEngine engine = new ContractionHierarchyEngine(new ContractionHierarchyBuilder(graph).build());
+        EdgeFilter walking = graph.edgeFilter(TransportMode.bitsOf(Collections.singleton(TransportMode.WALKING)));
+        assertThrows(IllegalArgumentException.class, () -> engine.findRoute(0, 1, walking, null));
+    }
+}
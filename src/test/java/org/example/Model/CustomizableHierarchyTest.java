@@ -0,0 +1,79 @@
+package org.example.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CustomizableHierarchyTest {
+
+    @Test
+    void matchesDijkstraOnGrid() {
+        CompactGraph graph = TestGraphs.grid(400, 61);
+        CustomizableHierarchy hierarchy = CustomizableHierarchy.build(graph);
+        TestGraphs.assertMatchesDijkstra(graph, new ContractionHierarchyEngine(hierarchy.customize(graph, null)),
+                300, 62);
+    }
+
+    @Test
+    void matchesDijkstraOnOneWayEdges() {
+        CompactGraph graph = TestGraphs.randomDirected(150, 450, 63);
+        CustomizableHierarchy hierarchy = CustomizableHierarchy.build(graph);
+        TestGraphs.assertMatchesDijkstra(graph, new ContractionHierarchyEngine(hierarchy.customize(graph, null)),
+                500, 64);
+    }
+
+    @Test
+    void matchesDijkstraAfterTimesChange() {
+        CompactGraph graph = TestGraphs.grid(400, 65);
+        CustomizableHierarchy hierarchy = CustomizableHierarchy.build(graph);
+        Random random = new Random(66);
+        for (int round = 0; round < 5; round++) {
+            CompactGraph changed = graph.withTimes(changedTimes(graph, random));
+            TestGraphs.assertMatchesDijkstra(changed,
+                    new ContractionHierarchyEngine(hierarchy.customize(changed, null)), 200, 67 + round);
+        }
+    }
+
+    @Test
+    void parallelCustomizationMatchesDijkstra() {
+        CompactGraph graph = TestGraphs.grid(3000, 71);
+        CustomizableHierarchy hierarchy = CustomizableHierarchy.build(graph);
+        CompactGraph changed = graph.withTimes(changedTimes(graph, new Random(72)));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            TestGraphs.assertMatchesDijkstra(graph,
+                    new ContractionHierarchyEngine(hierarchy.customize(graph, executor)), 200, 73);
+            TestGraphs.assertMatchesDijkstra(changed,
+                    new ContractionHierarchyEngine(hierarchy.customize(changed, executor)), 200, 74);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsAnotherTopology() {
+        CustomizableHierarchy hierarchy = CustomizableHierarchy.build(TestGraphs.grid(64, 75));
+        CompactGraph other = TestGraphs.grid(100, 75);
+        assertThrows(IllegalArgumentException.class, () -> hierarchy.customize(other, null));
+    }
+
+    // Some edges faster, some slower and some closed, as a live update would leave them
+    private static float[] changedTimes(CompactGraph graph, Random random) {
+        float[] times = graph.copyTimes();
+        for (int e = 0; e < times.length; e++) {
+            int change = random.nextInt(10);
+            if (change == 0) {
+                times[e] = Float.POSITIVE_INFINITY;
+            } else if (change == 1) {
+                times[e] *= 0.5f;
+            } else if (change == 2) {
+                times[e] *= 3.0f;
+            }
+        }
+        return times;
+    }
+}
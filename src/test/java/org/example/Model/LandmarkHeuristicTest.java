@@ -0,0 +1,72 @@
+package org.example.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LandmarkHeuristicTest {
+    // The tables are stored as floats
+    private static final double TABLE_PRECISION = 1e-3;
+
+    @Test
+    void neverOverestimates() {
+        CompactGraph graph = TestGraphs.randomDirected(120, 400, 11);
+        LandmarkHeuristic landmarks = LandmarkHeuristic.compute(graph, 8);
+        OneToManyEngine oneToMany = new OneToManyEngine(graph);
+        int[] targets = new int[graph.getNodeCount()];
+        for (int v = 0; v < targets.length; v++) {
+            targets[v] = v;
+        }
+        double[] times = new double[targets.length];
+        for (int source = 0; source < graph.getNodeCount(); source++) {
+            oneToMany.travelTimes(source, targets, times);
+            for (int target = 0; target < targets.length; target++) {
+                double estimate = landmarks.estimate(source, target);
+                assertTrue(estimate >= 0);
+                assertTrue(estimate <= times[target] + TABLE_PRECISION,
+                        source + " -> " + target + ": " + estimate + " > " + times[target]);
+            }
+        }
+    }
+
+    @Test
+    void altEnginesMatchDijkstra() {
+        CompactGraph grid = TestGraphs.grid(400, 12);
+        LandmarkHeuristic gridLandmarks = LandmarkHeuristic.compute(grid, 8);
+        TestGraphs.assertMatchesDijkstra(grid, new AStarEngine(grid, gridLandmarks), 300, 13);
+        TestGraphs.assertMatchesDijkstra(grid, new BidirectionalEngine(grid, gridLandmarks), 300, 13);
+
+        CompactGraph directed = TestGraphs.randomDirected(150, 450, 14);
+        LandmarkHeuristic directedLandmarks = LandmarkHeuristic.compute(directed, 8);
+        TestGraphs.assertMatchesDijkstra(directed, new AStarEngine(directed, directedLandmarks), 500, 15);
+        TestGraphs.assertMatchesDijkstra(directed, new BidirectionalEngine(directed, directedLandmarks), 500, 15);
+    }
+
+    @Test
+    void tablesSurviveWriteAndRead() throws IOException {
+        CompactGraph graph = TestGraphs.grid(100, 16);
+        LandmarkHeuristic landmarks = LandmarkHeuristic.compute(graph, 4);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        landmarks.writeTo(new DataOutputStream(buffer), graph);
+        LandmarkHeuristic read = LandmarkHeuristic.readFrom(
+                new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())), graph);
+
+        assertEquals(landmarks.getLandmarkCount(), read.getLandmarkCount());
+        for (int from = 0; from < graph.getNodeCount(); from += 7) {
+            for (int to = 0; to < graph.getNodeCount(); to += 5) {
+                assertEquals(landmarks.estimate(from, to), read.estimate(from, to));
+            }
+        }
+        // Tables of another graph are not loaded
+        assertNull(LandmarkHeuristic.readFrom(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())),
+                TestGraphs.grid(100, 17)));
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ParetoEngineTest {
+
+    @Test
+    void matchesExhaustiveEnumerationOnGrid() {
+        CompactGraph graph = TestGraphs.grid(25, 31);
+        assertMatchesEnumeration(graph, null, new ParetoEngine(graph, new GreatCircleHeuristic(graph),
+                Integer.MAX_VALUE, 0));
+    }
+
+    @Test
+    void matchesExhaustiveEnumerationOnOneWayEdges() {
+        CompactGraph graph = TestGraphs.randomDirected(10, 30, 32);
+        assertMatchesEnumeration(graph, null, new ParetoEngine(graph, new GreatCircleHeuristic(graph),
+                Integer.MAX_VALUE, 0));
+    }
+
+    @Test
+    void matchesExhaustiveEnumerationWithFilter() {
+        CompactGraph graph = TestGraphs.grid(25, 33);
+        EdgeFilter filter = graph.edgeFilter(
+                TransportMode.bitsOf(Arrays.asList(TransportMode.WALKING, TransportMode.BUS)));
+        assertMatchesEnumeration(graph, filter, new ParetoEngine(graph, new GreatCircleHeuristic(graph),
+                Integer.MAX_VALUE, 0));
+    }
+
+    @Test
+    void smallBagsKeepTheFastestJourney() {
+        CompactGraph graph = TestGraphs.grid(400, 34);
+        ParetoEngine engine = new ParetoEngine(graph, new GreatCircleHeuristic(graph), 1, 0);
+        DijkstraEngine dijkstra = new DijkstraEngine(graph);
+        Random random = new Random(35);
+        for (int i = 0; i < 100; i++) {
+            int source = random.nextInt(graph.getNodeCount());
+            int target = random.nextInt(graph.getNodeCount());
+            List<ParetoRoute> routes = engine.findRoutes(source, target);
+            assertFalse(routes.isEmpty());
+            assertEquals(dijkstra.findRoute(source, target).getTotalTime(), routes.get(0).getTotalTime(),
+                    TestGraphs.EPSILON);
+            for (ParetoRoute route : routes) {
+                TestGraphs.assertValidRoute(graph, route.getRoute(), source, target);
+            }
+        }
+    }
+
+    private static void assertMatchesEnumeration(CompactGraph graph, EdgeFilter filter, ParetoEngine engine) {
+        for (int source = 0; source < graph.getNodeCount(); source++) {
+            for (int target = 0; target < graph.getNodeCount(); target++) {
+                if (source == target) {
+                    continue;
+                }
+                List<double[]> expected = paretoFront(enumerate(graph, filter, source, target));
+                List<ParetoRoute> routes = engine.findRoutes(source, target, filter);
+                List<double[]> actual = new ArrayList<>();
+                for (ParetoRoute route : routes) {
+                    TestGraphs.assertValidRoute(graph, route.getRoute(), source, target);
+                    actual.add(new double[]{route.getTotalTime(), route.getTransfers(), route.getWalkingTime()});
+                }
+                actual.sort(CRITERIA_ORDER);
+                assertEquals(toString(expected), toString(actual), source + " -> " + target);
+            }
+        }
+    }
+
+    /**
+     * {time, transfers, walking} of every simple path; a cycle can only add to each criterion,
+     * so no other walk is Pareto-optimal.
+     */
+    private static List<double[]> enumerate(CompactGraph graph, EdgeFilter filter, int source, int target) {
+        List<double[]> results = new ArrayList<>();
+        boolean[] onPath = new boolean[graph.getNodeCount()];
+        onPath[source] = true;
+        extend(graph, filter, source, target, onPath, 0, 0, 0, CompactGraph.NO_RIDE, results);
+        return results;
+    }
+
+    private static void extend(CompactGraph graph, EdgeFilter filter, int node, int target, boolean[] onPath,
+                               double time, double walking, int boardings, int ride, List<double[]> results) {
+        if (node == target) {
+            results.add(new double[]{time, Math.max(0, boardings - 1), walking});
+            return;
+        }
+        for (int e = graph.edgesStart(node); e < graph.edgesEnd(node); e++) {
+            int next = graph.getTarget(e);
+            if (onPath[next] || graph.isClosed(e) || (filter != null && !filter.accepts(e))) {
+                continue;
+            }
+            int nextRide = graph.getRide(e);
+            onPath[next] = true;
+            extend(graph, filter, next, target, onPath, time + graph.getTime(e),
+                    graph.getMode(e) == TransportMode.WALKING ? walking + graph.getTime(e) : walking,
+                    nextRide != CompactGraph.NO_RIDE && nextRide != ride ? boardings + 1 : boardings,
+                    nextRide, results);
+            onPath[next] = false;
+        }
+    }
+
+    // Distinct non-dominated criteria vectors, sorted
+    private static List<double[]> paretoFront(List<double[]> vectors) {
+        vectors.sort(CRITERIA_ORDER);
+        List<double[]> front = new ArrayList<>();
+        for (double[] vector : vectors) {
+            boolean dominated = false;
+            for (double[] kept : front) {
+                if (kept[0] <= vector[0] && kept[1] <= vector[1] && kept[2] <= vector[2]) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) {
+                front.add(vector);
+            }
+        }
+        return front;
+    }
+
+    private static final Comparator<double[]> CRITERIA_ORDER = (a, b) -> {
+        for (int i = 0; i < a.length; i++) {
+            int c = Double.compare(a[i], b[i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    };
+
+    private static String toString(List<double[]> vectors) {
+        StringBuilder text = new StringBuilder();
+        for (double[] vector : vectors) {
+            text.append(Arrays.toString(vector));
+        }
+        return text.toString();
+    }
+}
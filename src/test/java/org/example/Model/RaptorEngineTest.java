@@ -0,0 +1,164 @@
+package org.example.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RaptorEngineTest {
+    private static final int SERVICE_START = 6 * 3600;
+    private static final int SERVICE_END = 22 * 3600;
+
+    @Test
+    void matchesTimeDependentDijkstra() {
+        TransitTimetable timetable = timetable(TestGraphs.grid(400, 21));
+        int withTrips = assertMatchesReference(timetable, new RaptorEngine(timetable, 50), 8 * 3600, 300, 22);
+        assertTrue(withTrips > 100, "only " + withTrips + " journeys ride a trip");
+    }
+
+    @Test
+    void walksOnceServiceHasEnded() {
+        TransitTimetable timetable = timetable(TestGraphs.grid(144, 23));
+        assertEquals(0, assertMatchesReference(timetable, new RaptorEngine(timetable, 50), SERVICE_END + 1800, 100, 24));
+    }
+
+    @Test
+    void avoidsClosedEdges() {
+        CompactGraph grid = TestGraphs.grid(400, 25);
+        float[] times = grid.copyTimes();
+        Random random = new Random(26);
+        for (int i = 0; i < times.length / 10; i++) {
+            times[random.nextInt(times.length)] = Float.POSITIVE_INFINITY;
+        }
+        TransitTimetable timetable = timetable(grid.withTimes(times));
+        assertMatchesReference(timetable, new RaptorEngine(timetable, 50), 8 * 3600, 300, 27);
+    }
+
+    @Test
+    void transferLimitOnlyDelaysArrival() {
+        TransitTimetable timetable = timetable(TestGraphs.grid(400, 28));
+        RaptorEngine unlimited = new RaptorEngine(timetable, 50);
+        RaptorEngine direct = new RaptorEngine(timetable, 0);
+        Random random = new Random(29);
+        int n = timetable.getGraph().getNodeCount();
+        for (int i = 0; i < 200; i++) {
+            int source = random.nextInt(n);
+            int target = random.nextInt(n);
+            Journey best = unlimited.earliestArrival(source, target, 8 * 3600);
+            Journey limited = direct.earliestArrival(source, target, 8 * 3600);
+            assertTrue(limited.getTrips() <= 1);
+            assertTrue(limited.getArrivalTime() >= best.getArrivalTime());
+            if (limited.isFound()) {
+                assertValidJourney(timetable, limited, source, target);
+            }
+        }
+    }
+
+    private static TransitTimetable timetable(CompactGraph graph) {
+        Map<TransportMode, Integer> headways = new EnumMap<>(TransportMode.class);
+        headways.put(TransportMode.METRO, 5);
+        headways.put(TransportMode.BUS, 10);
+        return TransitTimetable.fromHeadways(graph, headways, 10, SERVICE_START, SERVICE_END);
+    }
+
+    /**
+     * @return the number of journeys found that board at least one trip
+     */
+    private static int assertMatchesReference(TransitTimetable timetable, RaptorEngine engine, int departureTime,
+                                              int pairs, long seed) {
+        Random random = new Random(seed);
+        int n = timetable.getGraph().getNodeCount();
+        int withTrips = 0;
+        for (int i = 0; i < pairs; i++) {
+            int source = random.nextInt(n);
+            int target = random.nextInt(n);
+            Journey journey = engine.earliestArrival(source, target, departureTime);
+            int[] expected = earliestArrivals(timetable, source, departureTime);
+            assertEquals(expected[target], journey.getArrivalTime(), source + " -> " + target);
+            if (journey.isFound()) {
+                assertValidJourney(timetable, journey, source, target);
+            }
+            if (journey.getTrips() > 0) {
+                withTrips++;
+            }
+        }
+        return withTrips;
+    }
+
+    /**
+     * Reference: Dijkstra over stops with the clock as distance, boarding the earliest trip of
+     * every pattern at each stop and riding it one stop; no limit on the number of trips.
+     */
+    private static int[] earliestArrivals(TransitTimetable timetable, int source, int departureTime) {
+        CompactGraph graph = timetable.getGraph();
+        int[] arrival = new int[graph.getNodeCount()];
+        Arrays.fill(arrival, Integer.MAX_VALUE);
+        arrival[source] = departureTime;
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Integer.compare(a[1], b[1]));
+        queue.add(new int[]{source, departureTime});
+        while (!queue.isEmpty()) {
+            int[] entry = queue.poll();
+            int stop = entry[0];
+            int time = entry[1];
+            if (time > arrival[stop]) {
+                continue;
+            }
+            for (int e = graph.edgesStart(stop); e < graph.edgesEnd(stop); e++) {
+                if (graph.getLine(e) < 0 && !graph.isClosed(e)) {
+                    relax(arrival, queue, graph.getTarget(e), time + TransitTimetable.toSeconds(graph.getTime(e)));
+                }
+            }
+            for (int entryIndex = timetable.stopPatternsStart(stop); entryIndex < timetable.stopPatternsEnd(stop);
+                 entryIndex++) {
+                int pattern = timetable.getStopPattern(entryIndex);
+                int position = timetable.getStopPatternPosition(entryIndex);
+                int next = timetable.patternStart(pattern) + position + 1;
+                int trip = timetable.earliestTrip(pattern, position, time);
+                if (next < timetable.patternEnd(pattern) && trip >= 0) {
+                    relax(arrival, queue, timetable.getPatternStop(next),
+                            timetable.getStopTime(pattern, trip, position + 1));
+                }
+            }
+        }
+        return arrival;
+    }
+
+    private static void relax(int[] arrival, PriorityQueue<int[]> queue, int stop, int time) {
+        if (time < arrival[stop]) {
+            arrival[stop] = time;
+            queue.add(new int[]{stop, time});
+        }
+    }
+
+    /**
+     * Fails unless the legs chain from {@code source} to {@code target} without leaving
+     * before arriving, and walking legs take their edge time.
+     */
+    private static void assertValidJourney(TransitTimetable timetable, Journey journey, int source, int target) {
+        CompactGraph graph = timetable.getGraph();
+        int[] edges = journey.getEdges();
+        int stop = source;
+        int time = journey.getDepartureTime();
+        for (int leg = 0; leg < edges.length; leg++) {
+            int edge = edges[leg];
+            assertEquals(stop, graph.getEdgeSource(edge));
+            assertTrue(journey.getDeparture(leg) >= time, "leg " + leg + " leaves before it is reached");
+            if (graph.getLine(edge) < 0) {
+                assertEquals(TransitTimetable.toSeconds(graph.getTime(edge)),
+                        journey.getArrival(leg) - journey.getDeparture(leg));
+            } else {
+                assertTrue(journey.getArrival(leg) >= journey.getDeparture(leg));
+            }
+            stop = graph.getTarget(edge);
+            time = journey.getArrival(leg);
+        }
+        assertEquals(target, stop);
+        assertEquals(journey.getArrivalTime(), time);
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpatialIndexTest {
+    // The tree ranks by chord length, the scan by haversine distance
+    private static final double KM_PRECISION = 1e-6;
+
+    @Test
+    void nearestMatchesLinearScan() {
+        Random random = new Random(51);
+        double[][] points = cityPoints(2000, random);
+        SpatialIndex index = new SpatialIndex(points[0], points[1]);
+        for (int i = 0; i < 200; i++) {
+            double lat = 40.30 + random.nextDouble() * 0.2;
+            double lon = 49.75 + random.nextDouble() * 0.2;
+            int k = 1 + random.nextInt(20);
+            double maxKm = i % 2 == 0 ? Double.POSITIVE_INFINITY : random.nextDouble() * 3;
+            assertNearest(points, index.nearest(lat, lon, k, maxKm), lat, lon, k, maxKm);
+        }
+    }
+
+    @Test
+    void withinRadiusMatchesLinearScan() {
+        Random random = new Random(52);
+        double[][] points = cityPoints(2000, random);
+        SpatialIndex index = new SpatialIndex(points[0], points[1]);
+        for (int i = 0; i < 200; i++) {
+            double lat = 40.30 + random.nextDouble() * 0.2;
+            double lon = 49.75 + random.nextDouble() * 0.2;
+            double radiusKm = random.nextDouble() * 2;
+            int[] found = index.withinRadius(lat, lon, radiusKm);
+            assertSortedByDistance(points, found, lat, lon);
+
+            Set<Integer> foundSet = new HashSet<>();
+            for (int node : found) {
+                foundSet.add(node);
+            }
+            for (int node = 0; node < points[0].length; node++) {
+                double km = GeoMath.haversineKm(lat, lon, points[0][node], points[1][node]);
+                if (km < radiusKm - KM_PRECISION) {
+                    assertTrue(foundSet.contains(node), "missing " + node + " at " + km + " km");
+                } else if (km > radiusKm + KM_PRECISION) {
+                    assertFalse(foundSet.contains(node), "returned " + node + " at " + km + " km");
+                }
+            }
+        }
+    }
+
+    @Test
+    void worksAcrossTheAntimeridianAndAtThePoles() {
+        double[] latitudes = {0.0, 0.0, 0.0, 89.999, -89.999, 10.0, 10.0};
+        double[] longitudes = {179.999, -179.999, 0.0, 0.0, 45.0, 179.5, -179.5};
+        SpatialIndex index = new SpatialIndex(latitudes, longitudes);
+        double[][] points = {latitudes, longitudes};
+        double[][] queries = {{0.0, 180.0}, {0.0, -180.0}, {90.0, 123.0}, {-90.0, 0.0}, {10.0, 180.0}};
+        for (double[] query : queries) {
+            for (int k = 1; k <= latitudes.length; k++) {
+                assertNearest(points, index.nearest(query[0], query[1], k, Double.POSITIVE_INFINITY),
+                        query[0], query[1], k, Double.POSITIVE_INFINITY);
+            }
+        }
+        assertEquals(2, index.withinRadius(0.0, 180.0, 1.0).length);
+    }
+
+    @Test
+    void handlesDuplicatePositionsAndEmptyIndex() {
+        double[] latitudes = new double[50];
+        double[] longitudes = new double[50];
+        Arrays.fill(latitudes, 40.4);
+        Arrays.fill(longitudes, 49.8);
+        SpatialIndex index = new SpatialIndex(latitudes, longitudes);
+        assertEquals(10, index.nearest(40.4, 49.8, 10, Double.POSITIVE_INFINITY).length);
+        assertEquals(50, index.withinRadius(40.4, 49.8, 0.001).length);
+
+        SpatialIndex empty = new SpatialIndex(new double[0], new double[0]);
+        assertEquals(0, empty.nearest(40.4, 49.8, 3, Double.POSITIVE_INFINITY).length);
+        assertEquals(0, empty.withinRadius(40.4, 49.8, 5).length);
+    }
+
+    // Clustered around a few centres like stations in a city, with some exact duplicates
+    private static double[][] cityPoints(int count, Random random) {
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && random.nextInt(20) == 0) {
+                latitudes[i] = latitudes[i - 1];
+                longitudes[i] = longitudes[i - 1];
+                continue;
+            }
+            int cluster = random.nextInt(5);
+            latitudes[i] = 40.32 + cluster * 0.04 + random.nextGaussian() * 0.01;
+            longitudes[i] = 49.77 + cluster * 0.03 + random.nextGaussian() * 0.01;
+        }
+        return new double[][]{latitudes, longitudes};
+    }
+
+    /**
+     * Fails unless {@code found} holds the {@code k} nearest points within {@code maxKm}, nearest
+     * first; among points at the same distance any may be returned.
+     */
+    private static void assertNearest(double[][] points, int[] found, double lat, double lon, int k, double maxKm) {
+        double[] distances = new double[points[0].length];
+        int inRange = 0;
+        for (int node = 0; node < distances.length; node++) {
+            distances[node] = GeoMath.haversineKm(lat, lon, points[0][node], points[1][node]);
+            if (distances[node] <= maxKm) {
+                inRange++;
+            }
+        }
+        double[] sorted = distances.clone();
+        Arrays.sort(sorted);
+        assertEquals(Math.min(k, inRange), found.length);
+        assertSortedByDistance(points, found, lat, lon);
+        for (int i = 0; i < found.length; i++) {
+            assertEquals(sorted[i], distances[found[i]], KM_PRECISION, "rank " + i);
+        }
+    }
+
+    private static void assertSortedByDistance(double[][] points, int[] found, double lat, double lon) {
+        Set<Integer> seen = new HashSet<>();
+        double previous = 0.0;
+        for (int node : found) {
+            assertTrue(seen.add(node), "node " + node + " returned twice");
+            double km = GeoMath.haversineKm(lat, lon, points[0][node], points[1][node]);
+            assertTrue(km >= previous - KM_PRECISION, "not sorted by distance");
+            previous = km;
+        }
+    }
+}
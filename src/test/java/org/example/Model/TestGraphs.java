@@ -0,0 +1,87 @@
+package org.example.Model;
+
+import org.example.benchmark.SyntheticNetwork;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Small synthetic graphs and route checks shared by the engine tests.
+ */
+final class TestGraphs {
+    static final double EPSILON = 1e-6;
+
+    private TestGraphs() {
+    }
+
+    /**
+     * The grid network of the benchmarks: symmetric, with bus and metro lines.
+     */
+    static CompactGraph grid(int stopCount, long seed) {
+        SyntheticNetwork network = new SyntheticNetwork(stopCount, seed);
+        return network.toCompactGraph(network.toNodes());
+    }
+
+    /**
+     * Random one-way edges between nodes scattered over a few kilometres, with times that do
+     * not follow the distances, so searches cannot get away with treating edges as symmetric.
+     * Not every node is reachable from every other.
+     */
+    static CompactGraph randomDirected(int nodeCount, int edgeCount, long seed) {
+        Random random = new Random(seed);
+        CompactGraph.Builder builder = new CompactGraph.Builder();
+        for (int i = 0; i < nodeCount; i++) {
+            builder.addNode("N" + i, 40.40 + random.nextDouble() * 0.05, 49.85 + random.nextDouble() * 0.05, "stop");
+        }
+        TransportMode[] modes = {TransportMode.WALKING, TransportMode.BUS, TransportMode.METRO};
+        for (int i = 0; i < edgeCount; i++) {
+            int from = random.nextInt(nodeCount);
+            int to = random.nextInt(nodeCount);
+            builder.addEdge(from, to, 1 + random.nextInt(30), 0.5, modes[random.nextInt(modes.length)]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Fails unless the route is a chain of edges from {@code source} to {@code target} whose
+     * times add up to its total.
+     */
+    static void assertValidRoute(CompactGraph graph, Route route, int source, int target) {
+        int[] nodes = route.getNodes();
+        int[] edges = route.getEdges();
+        assertEquals(source, nodes[0]);
+        assertEquals(target, nodes[nodes.length - 1]);
+        assertEquals(nodes.length - 1, edges.length);
+        double time = 0;
+        for (int i = 0; i < edges.length; i++) {
+            assertEquals(nodes[i], graph.getEdgeSource(edges[i]));
+            assertEquals(nodes[i + 1], graph.getTarget(edges[i]));
+            assertFalse(graph.isClosed(edges[i]), "route uses a closed edge");
+            time += graph.getTime(edges[i]);
+        }
+        assertEquals(route.getTotalTime(), time, EPSILON);
+    }
+
+    /**
+     * Fails unless {@code engine} finds a valid route of the Dijkstra optimum, or none when
+     * Dijkstra finds none, for {@code pairs} random node pairs.
+     */
+    static void assertMatchesDijkstra(CompactGraph graph, RoutingEngine engine, int pairs, long seed) {
+        DijkstraEngine dijkstra = new DijkstraEngine(graph);
+        Random random = new Random(seed);
+        for (int i = 0; i < pairs; i++) {
+            int source = random.nextInt(graph.getNodeCount());
+            int target = random.nextInt(graph.getNodeCount());
+            Route expected = dijkstra.findRoute(source, target);
+            Route actual = engine.findRoute(source, target);
+            assertEquals(expected.isFound(), actual.isFound(), "reachability of " + source + " -> " + target);
+            if (expected.isFound()) {
+                assertEquals(expected.getTotalTime(), actual.getTotalTime(), EPSILON,
+                        "time of " + source + " -> " + target);
+                assertValidRoute(graph, actual, source, target);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.benchmark;
+
+import org.example.Model.AStarEngine;
+import org.example.Model.AlternativeRoutesEngine;
+import org.example.Model.CompactGraph;
+import org.example.Model.GreatCircleHeuristic;
+import org.example.Model.Route;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Latency of the k-alternatives search per k on the synthetic network of
+ * {@link RoutingBenchmark}, with the default overlap and stretch limits of the service.
+ * <p>
+ * Target at 100k stops: a median below 25 ms for k &lt;= 3 and below 50 ms for k = 5. The tail
+ * comes from long queries, whose stretch limit lets the backward search cover much of the
+ * network.
+ * <p>
+ * Usage: {@code AlternativesBenchmark [stopCounts] [queryCount] [maxOverlap] [maxStretch]}, e.g.
+ * {@code AlternativesBenchmark 10000,100000 100 0.7 1.5}
+ */
+public class AlternativesBenchmark {
+    private static final int[] KS = {1, 2, 3, 5, 10};
+
+    public static void main(String[] args) {
+        String[] sizes = (args.length > 0 ? args[0] : "10000,100000").split(",");
+        int queryCount = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        double maxOverlap = args.length > 2 ? Double.parseDouble(args[2]) : 0.7;
+        double maxStretch = args.length > 3 ? Double.parseDouble(args[3]) : 1.5;
+
+        System.out.printf("%8s %4s %10s %10s %10s %10s%n", "stops", "k", "avg found", "ms avg", "ms p50", "ms p95");
+        for (String size : sizes) {
+            int stopCount = Integer.parseInt(size.trim());
+            SyntheticNetwork network = new SyntheticNetwork(stopCount, 42L);
+            CompactGraph graph = network.toCompactGraph(network.toNodes());
+            GreatCircleHeuristic heuristic = new GreatCircleHeuristic(graph);
+            AlternativeRoutesEngine engine = new AlternativeRoutesEngine(graph, heuristic, maxOverlap, maxStretch);
+            AStarEngine fastest = new AStarEngine(graph, heuristic);
+
+            Random random = new Random(13L);
+            int[] sources = new int[queryCount];
+            int[] targets = new int[queryCount];
+            for (int i = 0; i < queryCount; i++) {
+                sources[i] = random.nextInt(graph.getNodeCount());
+                targets[i] = random.nextInt(graph.getNodeCount());
+            }
+            for (int k : KS) {
+                run(stopCount, k, engine, fastest, sources, targets);
+            }
+        }
+    }
+
+    private static void run(int stopCount, int k, AlternativeRoutesEngine engine, AStarEngine fastest,
+                            int[] sources, int[] targets) {
+        // Warm-up pass so the JIT has compiled the spur searches
+        for (int i = 0; i < Math.min(20, sources.length); i++) {
+            engine.findRoutes(fastest, null, sources[i], targets[i], k);
+        }
+
+        long found = 0;
+        long[] nanos = new long[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            long start = System.nanoTime();
+            List<Route> routes = engine.findRoutes(fastest, null, sources[i], targets[i], k);
+            nanos[i] = System.nanoTime() - start;
+            found += routes.size();
+        }
+        long total = 0;
+        for (long n : nanos) {
+            total += n;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%8d %4d %10.2f %10.2f %10.2f %10.2f%n", stopCount, k, (double) found / sources.length,
+                total / 1e6 / sources.length, nanos[nanos.length / 2] / 1e6,
+                nanos[(int) (nanos.length * 0.95)] / 1e6);
+    }
+}
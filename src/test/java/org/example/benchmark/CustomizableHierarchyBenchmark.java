@@ -0,0 +1,88 @@
+package org.example.benchmark;
+
+import org.example.Model.CompactGraph;
+import org.example.Model.ContractionHierarchy;
+import org.example.Model.ContractionHierarchyBuilder;
+import org.example.Model.ContractionHierarchyEngine;
+import org.example.Model.CustomizableHierarchy;
+import org.example.Model.DijkstraEngine;
+import org.example.Model.RoutingEngine;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * What a batch of live delays costs the hierarchy: rebuilding a classic contraction hierarchy
+ * against re-customizing the shortcut times of a {@link CustomizableHierarchy}, followed by the
+ * query latency of both (and of plain Dijkstra) on the delayed graph.
+ * <p>
+ * Usage: {@code CustomizableHierarchyBenchmark [stopCounts] [queryCount] [delayedPercent]}, e.g.
+ * {@code CustomizableHierarchyBenchmark 10000,50000 500 5}
+ */
+public class CustomizableHierarchyBenchmark {
+
+    public static void main(String[] args) {
+        String[] sizes = (args.length > 0 ? args[0] : "10000,50000").split(",");
+        int queryCount = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        double delayedPercent = args.length > 2 ? Double.parseDouble(args[2]) : 5.0;
+
+        ExecutorService workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        System.out.printf("%8s %10s %12s %14s %10s %10s %10s %10s%n", "stops", "order ms", "customize ms",
+                "CH rebuild ms", "cch arcs", "ch us", "cch us", "dijk us");
+        for (String size : sizes) {
+            int stopCount = Integer.parseInt(size.trim());
+            SyntheticNetwork network = new SyntheticNetwork(stopCount, 42L);
+            CompactGraph feedGraph = network.toCompactGraph(network.toNodes());
+
+            long start = System.nanoTime();
+            CustomizableHierarchy topology = CustomizableHierarchy.build(feedGraph);
+            long orderNanos = System.nanoTime() - start;
+            topology.customize(feedGraph, workers); // warms up the JIT for the timed customization
+
+            // Delays of up to 30 minutes on a random share of the edges
+            Random random = new Random(11L);
+            float[] times = feedGraph.copyTimes();
+            for (int e = 0; e < times.length; e++) {
+                if (random.nextDouble() * 100 < delayedPercent) {
+                    times[e] += 1 + random.nextInt(30);
+                }
+            }
+            CompactGraph graph = feedGraph.withTimes(times);
+
+            start = System.nanoTime();
+            ContractionHierarchy customized = topology.customize(graph, workers);
+            long customizeNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            ContractionHierarchy rebuilt = new ContractionHierarchyBuilder(graph).build();
+            long rebuildNanos = System.nanoTime() - start;
+
+            int[] sources = new int[queryCount];
+            int[] targets = new int[queryCount];
+            for (int i = 0; i < queryCount; i++) {
+                sources[i] = random.nextInt(graph.getNodeCount());
+                targets[i] = random.nextInt(graph.getNodeCount());
+            }
+            double chMicros = queryMicros(new ContractionHierarchyEngine(rebuilt), sources, targets);
+            double cchMicros = queryMicros(new ContractionHierarchyEngine(customized), sources, targets);
+            double dijkstraMicros = queryMicros(new DijkstraEngine(graph), sources, targets);
+
+            System.out.printf("%8d %10.1f %12.1f %14.1f %10d %10.1f %10.1f %10.1f%n", stopCount, orderNanos / 1e6,
+                    customizeNanos / 1e6, rebuildNanos / 1e6, topology.getArcCount(), chMicros, cchMicros,
+                    dijkstraMicros);
+        }
+        workers.shutdown();
+    }
+
+    private static double queryMicros(RoutingEngine engine, int[] sources, int[] targets) {
+        // Warm-up pass so the JIT has compiled the search loop
+        for (int i = 0; i < sources.length; i++) {
+            engine.findRoute(sources[i], targets[i]);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < sources.length; i++) {
+            engine.findRoute(sources[i], targets[i]);
+        }
+        return (System.nanoTime() - start) / 1000.0 / sources.length;
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.benchmark;
+
+import org.example.Model.CompactGraph;
+import org.example.Model.Edge;
+import org.example.Model.Node;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the retained heap of the legacy {@code Map<Node, List<Edge>>} graph with the
+ * CSR {@link CompactGraph} for the same synthetic network.
+ * <p>
+ * Run with a fixed heap for stable numbers, e.g.
+ * {@code java -Xms2g -Xmx2g -cp target/classes:<deps> org.example.benchmark.GraphMemoryBenchmark 200000}
+ */
+public class GraphMemoryBenchmark {
+
+    public static void main(String[] args) {
+        int stopCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        SyntheticNetwork network = new SyntheticNetwork(stopCount, 42L);
+        // Nodes are needed by both layouts (DTOs, UI), so they are excluded from the comparison
+        List<Node> nodes = network.toNodes();
+
+        long before = usedHeap();
+        Map<Node, List<Edge>> legacy = network.toAdjacencyMap(nodes);
+        long legacyBytes = usedHeap() - before;
+
+        before = usedHeap();
+        CompactGraph compact = network.toCompactGraph(nodes);
+        long compactBytes = usedHeap() - before;
+
+        int edgeCount = compact.getEdgeCount();
+        System.out.printf("Stops: %d, directed edges: %d%n", compact.getNodeCount(), edgeCount);
+        System.out.printf("Map<Node, List<Edge>> : %,d bytes (%.1f bytes/edge)%n",
+                legacyBytes, (double) legacyBytes / edgeCount);
+        // The id/type strings belong to the nodes allocated above, so they are left out of the estimate too
+        System.out.printf("CompactGraph (CSR)    : %,d bytes (%.1f bytes/edge), estimate without strings %,d bytes%n",
+                compactBytes, (double) compactBytes / edgeCount,
+                compact.estimateMemoryBytes() - compact.estimateStringBytes());
+        System.out.printf("Reduction             : %.1fx%n", (double) legacyBytes / Math.max(1, compactBytes));
+
+        // Keep both graphs reachable until after the measurements
+        if (legacy.size() + compact.getNodeCount() == 0) {
+            System.out.println();
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.benchmark;
+
+import org.example.Model.CompactGraph;
+import org.example.Model.GeoMath;
+import org.example.Model.SpatialIndex;
+
+import java.util.Random;
+
+/**
+ * Nearest-station lookups on the synthetic network of {@link RoutingBenchmark}: a linear
+ * haversine scan over all stops, as the map clients used to do, against {@link SpatialIndex}.
+ * <p>
+ * Usage: {@code NearestStopBenchmark [stopCounts] [queryCount] [k]}, e.g.
+ * {@code NearestStopBenchmark 10000,100000 2000 5}
+ */
+public class NearestStopBenchmark {
+
+    public static void main(String[] args) {
+        String[] sizes = (args.length > 0 ? args[0] : "10000,100000").split(",");
+        int queryCount = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int k = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.printf("%8s %12s %14s %14s%n", "stops", "build ms", "scan us/query", "index us/query");
+        for (String size : sizes) {
+            int stopCount = Integer.parseInt(size.trim());
+            SyntheticNetwork network = new SyntheticNetwork(stopCount, 42L);
+            CompactGraph graph = network.toCompactGraph(network.toNodes());
+
+            long buildStart = System.nanoTime();
+            SpatialIndex index = SpatialIndex.of(graph);
+            long buildNanos = System.nanoTime() - buildStart;
+
+            // Clicks anywhere in the bounding box of the stops
+            double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+            double minLon = Double.POSITIVE_INFINITY, maxLon = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < graph.getNodeCount(); i++) {
+                minLat = Math.min(minLat, graph.getLatitude(i));
+                maxLat = Math.max(maxLat, graph.getLatitude(i));
+                minLon = Math.min(minLon, graph.getLongitude(i));
+                maxLon = Math.max(maxLon, graph.getLongitude(i));
+            }
+            Random random = new Random(17L);
+            double[] latitudes = new double[queryCount];
+            double[] longitudes = new double[queryCount];
+            for (int i = 0; i < queryCount; i++) {
+                latitudes[i] = minLat + random.nextDouble() * (maxLat - minLat);
+                longitudes[i] = minLon + random.nextDouble() * (maxLon - minLon);
+            }
+
+            long checksum = 0;
+            // The scan only finds the single nearest stop, the cheapest thing a linear pass can do
+            for (int round = 0; round < 2; round++) { // first round warms up the JIT
+                long start = System.nanoTime();
+                for (int i = 0; i < queryCount; i++) {
+                    checksum += scanNearest(graph, latitudes[i], longitudes[i]);
+                }
+                long scanNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int i = 0; i < queryCount; i++) {
+                    checksum += index.nearest(latitudes[i], longitudes[i], k, Double.POSITIVE_INFINITY)[0];
+                }
+                long indexNanos = System.nanoTime() - start;
+                if (round == 1) {
+                    System.out.printf("%8d %12.1f %14.1f %14.2f  (checksum %d)%n", stopCount, buildNanos / 1e6,
+                            scanNanos / 1000.0 / queryCount, indexNanos / 1000.0 / queryCount, checksum);
+                }
+            }
+        }
+    }
+
+    private static int scanNearest(CompactGraph graph, double latitude, double longitude) {
+        int nearest = -1;
+        double minDistance = Double.MAX_VALUE;
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+            double distance = GeoMath.haversineKm(latitude, longitude, graph.getLatitude(i), graph.getLongitude(i));
+            if (distance < minDistance) {
+                minDistance = distance;
+                nearest = i;
+            }
+        }
+        return nearest;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.benchmark;
+
+import org.example.Model.CompactGraph;
+import org.example.Model.GreatCircleHeuristic;
+import org.example.Model.ParetoEngine;
+import org.example.Model.ParetoRoute;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how the Pareto set (time, transfers, walking) and the search effort grow with the
+ * network size and the per-node label limit, on the synthetic network of
+ * {@link RoutingBenchmark}.
+ * <p>
+ * Usage: {@code ParetoBenchmark [stopCounts] [queryCount] [maxTimeFactor]}, e.g.
+ * {@code ParetoBenchmark 10000,50000,100000 100 1.5}
+ */
+public class ParetoBenchmark {
+    private static final int[] LABEL_LIMITS = {2, 4, 8, 16, 64};
+
+    public static void main(String[] args) {
+        String[] sizes = (args.length > 0 ? args[0] : "10000,50000,100000").split(",");
+        int queryCount = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        double maxTimeFactor = args.length > 2 ? Double.parseDouble(args[2]) : 1.5;
+
+        System.out.printf("%8s %6s %10s %8s %12s %12s%n",
+                "stops", "bag", "avg set", "max set", "labels/query", "ms/query");
+        for (String size : sizes) {
+            int stopCount = Integer.parseInt(size.trim());
+            SyntheticNetwork network = new SyntheticNetwork(stopCount, 42L);
+            CompactGraph graph = network.toCompactGraph(network.toNodes());
+            GreatCircleHeuristic heuristic = new GreatCircleHeuristic(graph);
+
+            Random random = new Random(11L);
+            int[] sources = new int[queryCount];
+            int[] targets = new int[queryCount];
+            for (int i = 0; i < queryCount; i++) {
+                sources[i] = random.nextInt(graph.getNodeCount());
+                targets[i] = random.nextInt(graph.getNodeCount());
+            }
+            for (int limit : LABEL_LIMITS) {
+                run(stopCount, limit, new ParetoEngine(graph, heuristic, limit, maxTimeFactor), sources, targets);
+            }
+        }
+    }
+
+    private static void run(int stopCount, int labelLimit, ParetoEngine engine, int[] sources, int[] targets) {
+        // Warm-up pass so the JIT has compiled the label loop
+        for (int i = 0; i < Math.min(20, sources.length); i++) {
+            engine.findRoutes(sources[i], targets[i]);
+        }
+
+        long setSizes = 0;
+        int maxSetSize = 0;
+        long labels = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < sources.length; i++) {
+            List<ParetoRoute> routes = engine.findRoutes(sources[i], targets[i]);
+            setSizes += routes.size();
+            maxSetSize = Math.max(maxSetSize, routes.size());
+            labels += engine.getLastLabelCount();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%8d %6d %10.2f %8d %12d %12.2f%n", stopCount, labelLimit,
+                (double) setSizes / sources.length, maxSetSize, labels / sources.length,
+                elapsed / 1e6 / sources.length);
+    }
+}
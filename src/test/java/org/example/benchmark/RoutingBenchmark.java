@@ -0,0 +1,146 @@
+package org.example.benchmark;
+
+import org.example.Model.AStarEngine;
+import org.example.Model.BidirectionalEngine;
+import org.example.Model.CompactGraph;
+import org.example.Model.ContractionHierarchy;
+import org.example.Model.ContractionHierarchyBuilder;
+import org.example.Model.ContractionHierarchyEngine;
+import org.example.Model.DijkstraEngine;
+import org.example.Model.EdgeFilter;
+import org.example.Model.GreatCircleHeuristic;
+import org.example.Model.Journey;
+import org.example.Model.LandmarkHeuristic;
+import org.example.Model.RaptorEngine;
+import org.example.Model.Route;
+import org.example.Model.RoutingEngine;
+import org.example.Model.TransitTimetable;
+import org.example.Model.TransportMode;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Runs the same random point-to-point queries through each routing engine on a synthetic
+ * network and reports latency, settled nodes and heap allocated per query, followed by the
+ * plain searches restricted to every mode but taxi and by the timetable engine answering the
+ * same queries for an 08:00 departure.
+ * <p>
+ * A rough driver: one pass per engine, without warm-up or forks; see {@link RoutingJmhBenchmark}
+ * for query latencies under JMH.
+ * <p>
+ * Usage: {@code RoutingBenchmark [stopCount] [queryCount]}
+ */
+public class RoutingBenchmark {
+
+    public static void main(String[] args) {
+        int stopCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int queryCount = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        SyntheticNetwork network = new SyntheticNetwork(stopCount, 42L);
+        CompactGraph graph = network.toCompactGraph(network.toNodes());
+
+        Map<String, RoutingEngine> engines = new LinkedHashMap<>();
+        engines.put("dijkstra", new DijkstraEngine(graph));
+        GreatCircleHeuristic greatCircle = new GreatCircleHeuristic(graph);
+        engines.put("astar", new AStarEngine(graph, greatCircle));
+        engines.put("bidirectional", new BidirectionalEngine(graph, null));
+        engines.put("bidirectional-astar", new BidirectionalEngine(graph, greatCircle));
+
+        long landmarkStart = System.nanoTime();
+        LandmarkHeuristic landmarks = LandmarkHeuristic.compute(graph, 16);
+        System.out.printf("Landmarks: %d tables in %d ms%n", landmarks.getLandmarkCount(),
+                (System.nanoTime() - landmarkStart) / 1_000_000);
+        engines.put("alt", new AStarEngine(graph, landmarks));
+        engines.put("bidirectional-alt", new BidirectionalEngine(graph, landmarks));
+
+        long preprocessingStart = System.nanoTime();
+        ContractionHierarchy hierarchy = new ContractionHierarchyBuilder(graph).build();
+        System.out.printf("Contraction hierarchy: %d shortcuts in %d ms%n", hierarchy.getShortcutCount(),
+                (System.nanoTime() - preprocessingStart) / 1_000_000);
+        engines.put("contraction-hierarchy", new ContractionHierarchyEngine(hierarchy));
+
+        Random random = new Random(7L);
+        int[] sources = new int[queryCount];
+        int[] targets = new int[queryCount];
+        for (int i = 0; i < queryCount; i++) {
+            sources[i] = random.nextInt(graph.getNodeCount());
+            targets[i] = random.nextInt(graph.getNodeCount());
+        }
+
+        System.out.printf("Stops: %d, edges: %d, queries: %d%n", graph.getNodeCount(), graph.getEdgeCount(), queryCount);
+        for (Map.Entry<String, RoutingEngine> entry : engines.entrySet()) {
+            run(entry.getKey(), entry.getValue(), null, sources, targets);
+        }
+        EdgeFilter noTaxi = graph.edgeFilter(TransportMode.bitsOf(Arrays.asList(
+                TransportMode.WALKING, TransportMode.BUS, TransportMode.METRO, TransportMode.TRAIN)));
+        for (String name : new String[]{"dijkstra", "astar", "bidirectional-astar"}) {
+            run(name + " (no taxi)", engines.get(name), noTaxi, sources, targets);
+        }
+
+        long timetableStart = System.nanoTime();
+        Map<TransportMode, Integer> headways = new EnumMap<>(TransportMode.class);
+        headways.put(TransportMode.METRO, 5);
+        headways.put(TransportMode.BUS, 10);
+        TransitTimetable timetable = TransitTimetable.fromHeadways(graph, headways, 10, 5 * 3600, 24 * 3600 - 60);
+        System.out.printf("Timetable: %d patterns in %d ms%n", timetable.getPatternCount(),
+                (System.nanoTime() - timetableStart) / 1_000_000);
+        runRaptor(new RaptorEngine(timetable, 4), sources, targets, 8 * 3600);
+    }
+
+    private static void runRaptor(RaptorEngine engine, int[] sources, int[] targets, int departureTime) {
+        for (int i = 0; i < sources.length; i++) {
+            engine.earliestArrival(sources[i], targets[i], departureTime);
+        }
+
+        long trips = 0;
+        double checksum = 0;
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < sources.length; i++) {
+            Journey journey = engine.earliestArrival(sources[i], targets[i], departureTime);
+            trips += journey.getTrips();
+            checksum += journey.isFound() ? (journey.getArrivalTime() - departureTime) / 60.0 : 0;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-30s %10.1f us/query %12.1f trips/query %10d bytes/query  (checksum %.1f)%n",
+                "raptor", elapsed / 1000.0 / sources.length, (double) trips / sources.length,
+                allocated / sources.length, checksum);
+    }
+
+    private static void run(String name, RoutingEngine engine, EdgeFilter filter, int[] sources, int[] targets) {
+        // Warm-up pass so the JIT has compiled the relaxation loop
+        for (int i = 0; i < sources.length; i++) {
+            engine.findRoute(sources[i], targets[i], filter, null);
+        }
+
+        long settled = 0;
+        double checksum = 0;
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < sources.length; i++) {
+            Route route = engine.findRoute(sources[i], targets[i], filter, null);
+            settled += route.getSettledNodes();
+            checksum += route.isFound() ? route.getTotalTime() : 0;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-30s %10.1f us/query %12d settled/query %10d bytes/query  (checksum %.1f)%n",
+                name, elapsed / 1000.0 / sources.length, settled / sources.length,
+                allocated / sources.length, checksum);
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
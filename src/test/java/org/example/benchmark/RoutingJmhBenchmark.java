@@ -0,0 +1,92 @@
+package org.example.benchmark;
+
+import org.example.Model.AStarEngine;
+import org.example.Model.BidirectionalEngine;
+import org.example.Model.CompactGraph;
+import org.example.Model.ContractionHierarchyBuilder;
+import org.example.Model.ContractionHierarchyEngine;
+import org.example.Model.DijkstraEngine;
+import org.example.Model.GreatCircleHeuristic;
+import org.example.Model.LandmarkHeuristic;
+import org.example.Model.Route;
+import org.example.Model.RoutingEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of point-to-point queries: plain Dijkstra against the preprocessed engines,
+ * on a synthetic network. Preprocessing happens once per fork and is not measured; the queries
+ * cycle through a fixed random set. Run it through JMH's own main, which forks with the test
+ * classpath, e.g.
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main RoutingJmhBenchmark -p stopCount=100000"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class RoutingJmhBenchmark {
+    // A power of two, so the query index wraps with a mask
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"20000"})
+    public int stopCount;
+
+    @Param({"dijkstra", "bidirectional", "alt", "contraction-hierarchy"})
+    public String engine;
+
+    private RoutingEngine routingEngine;
+    private int[] sources;
+    private int[] targets;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SyntheticNetwork network = new SyntheticNetwork(stopCount, 42L);
+        CompactGraph graph = network.toCompactGraph(network.toNodes());
+        switch (engine) {
+            case "dijkstra":
+                routingEngine = new DijkstraEngine(graph);
+                break;
+            case "bidirectional":
+                routingEngine = new BidirectionalEngine(graph, new GreatCircleHeuristic(graph));
+                break;
+            case "alt":
+                routingEngine = new AStarEngine(graph, LandmarkHeuristic.compute(graph, 16));
+                break;
+            case "contraction-hierarchy":
+                routingEngine = new ContractionHierarchyEngine(new ContractionHierarchyBuilder(graph).build());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown engine " + engine);
+        }
+
+        Random random = new Random(7L);
+        sources = new int[QUERY_COUNT];
+        targets = new int[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            sources[i] = random.nextInt(graph.getNodeCount());
+            targets[i] = random.nextInt(graph.getNodeCount());
+        }
+    }
+
+    @Benchmark
+    public Route query() {
+        int i = next++ & (QUERY_COUNT - 1);
+        return routingEngine.findRoute(sources[i], targets[i]);
+    }
+}
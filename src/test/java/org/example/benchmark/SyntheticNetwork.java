@@ -0,0 +1,157 @@
+package org.example.benchmark;
+
+import org.example.Model.CompactGraph;
+import org.example.Model.Edge;
+import org.example.Model.Node;
+import org.example.Model.TransportMode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic city-scale test network: a jittered grid of stops around Baku whose
+ * neighbouring stops are linked in both directions by walking, bus, metro or taxi edges.
+ * Bus and metro links belong to the line of their row, column or diagonal, so the network
+ * can also be run on a timetable.
+ */
+public class SyntheticNetwork {
+    private final static double EARTH_RADIUS_KM = 6371.0;
+    private final static double CENTER_LAT = 40.4093;
+    private final static double CENTER_LON = 49.8671;
+    private final static double SPACING_DEG = 0.004; // roughly 400 m between grid stops
+
+    private final int side;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final List<int[]> links = new ArrayList<>(); // {from, to, modeCode}
+    private final List<Double> times = new ArrayList<>();
+    private final List<String> lines = new ArrayList<>(); // null for walking and taxi
+
+    public SyntheticNetwork(int stopCount, long seed) {
+        Random random = new Random(seed);
+        this.side = (int) Math.ceil(Math.sqrt(stopCount));
+        this.latitudes = new double[stopCount];
+        this.longitudes = new double[stopCount];
+        for (int i = 0; i < stopCount; i++) {
+            int row = i / side;
+            int col = i % side;
+            latitudes[i] = CENTER_LAT + (row - side / 2.0) * SPACING_DEG + random.nextGaussian() * SPACING_DEG * 0.2;
+            longitudes[i] = CENTER_LON + (col - side / 2.0) * SPACING_DEG + random.nextGaussian() * SPACING_DEG * 0.2;
+        }
+        for (int i = 0; i < stopCount; i++) {
+            int row = i / side;
+            int col = i % side;
+            if (col + 1 < side && i + 1 < stopCount) {
+                link(i, i + 1, row, "R" + row, random);
+            }
+            if (i + side < stopCount) {
+                link(i, i + side, col, "C" + col, random);
+            }
+            // Sparse long-range "metro" links so the network is not a plain grid
+            if (row % 8 == 0 && col % 8 == 0 && i + 8 * side + 8 < stopCount && col + 8 < side) {
+                addLink(i, i + 8 * side + 8, TransportMode.METRO, "D" + (col - row));
+            }
+        }
+    }
+
+    /**
+     * Every second row and column is a bus line and every eighth a metro line running its whole
+     * length; the links in between are walked or, now and then, taken by taxi.
+     */
+    private void link(int from, int to, int lineIndex, String line, Random random) {
+        if (lineIndex % 8 == 4) {
+            addLink(from, to, TransportMode.METRO, line);
+        } else if (lineIndex % 2 == 0) {
+            addLink(from, to, TransportMode.BUS, line);
+        } else {
+            addLink(from, to, random.nextDouble() < 0.9 ? TransportMode.WALKING : TransportMode.TAXI, null);
+        }
+    }
+
+    private void addLink(int from, int to, TransportMode mode, String line) {
+        double km = distanceKm(from, to);
+        links.add(new int[]{from, to, mode.getCode()});
+        times.add(km / speedKmh(mode) * 60.0);
+        lines.add(line);
+    }
+
+    private static double speedKmh(TransportMode mode) {
+        switch (mode) {
+            case WALKING:
+                return 5.0;
+            case BUS:
+                return 20.0;
+            case METRO:
+                return 40.0;
+            default:
+                return 30.0;
+        }
+    }
+
+    public int getStopCount() {
+        return latitudes.length;
+    }
+
+    public String stopId(int index) {
+        return "S" + index;
+    }
+
+    public double distanceKm(int a, int b) {
+        double dLat = Math.toRadians(latitudes[b] - latitudes[a]);
+        double dLon = Math.toRadians(longitudes[b] - longitudes[a]);
+        double lat1 = Math.toRadians(latitudes[a]);
+        double lat2 = Math.toRadians(latitudes[b]);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.sin(dLon / 2) * Math.sin(dLon / 2) * Math.cos(lat1) * Math.cos(lat2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(h), Math.sqrt(1 - h));
+    }
+
+    public List<Node> toNodes() {
+        List<Node> nodes = new ArrayList<>(latitudes.length);
+        for (int i = 0; i < latitudes.length; i++) {
+            nodes.add(new Node(stopId(i), latitudes[i], longitudes[i], "stop"));
+        }
+        return nodes;
+    }
+
+    /**
+     * @param nodes the stops from {@link #toNodes()}, whose id strings are shared with the graph
+     */
+    public CompactGraph toCompactGraph(List<Node> nodes) {
+        CompactGraph.Builder builder = new CompactGraph.Builder();
+        for (Node node : nodes) {
+            builder.addNode(node.getId(), node.getPosition().getLatitude(), node.getPosition().getLongitude(), node.getType());
+        }
+        for (int i = 0; i < links.size(); i++) {
+            int[] link = links.get(i);
+            TransportMode mode = TransportMode.fromCode((byte) link[2]);
+            double km = distanceKm(link[0], link[1]);
+            builder.addEdge(link[0], link[1], times.get(i), km, mode, lines.get(i));
+            builder.addEdge(link[1], link[0], times.get(i), km, mode, lines.get(i));
+        }
+        return builder.build();
+    }
+
+    /**
+     * The same network in the {@code Map<Node, List<Edge>>} layout used before the CSR graph.
+     */
+    public Map<Node, List<Edge>> toAdjacencyMap(List<Node> nodes) {
+        Map<Node, List<Edge>> graph = new HashMap<>();
+        for (Node node : nodes) {
+            graph.put(node, new ArrayList<>());
+        }
+        for (int i = 0; i < links.size(); i++) {
+            int[] link = links.get(i);
+            Node from = nodes.get(link[0]);
+            Node to = nodes.get(link[1]);
+            String type = TransportMode.fromCode((byte) link[2]).getLabel();
+            double km = distanceKm(link[0], link[1]);
+            graph.get(from).add(new Edge(from, to, km, type, times.get(i)));
+            graph.get(to).add(new Edge(to, from, km, type, times.get(i)));
+        }
+        return graph;
+    }
+}
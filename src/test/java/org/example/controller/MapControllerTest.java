@@ -0,0 +1,66 @@
+package org.example.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MapControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void acceptsGzipOnlyWithNonZeroQuality() {
+        assertTrue(MapController.acceptsGzip("gzip"));
+        assertTrue(MapController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(MapController.acceptsGzip("br, *"));
+        assertFalse(MapController.acceptsGzip(null));
+        assertFalse(MapController.acceptsGzip("gzip;q=0"));
+        assertFalse(MapController.acceptsGzip("gzip; q=0.000, *"));
+        assertFalse(MapController.acceptsGzip("identity, *;q=0"));
+        assertFalse(MapController.acceptsGzip("br, deflate"));
+    }
+
+    @Test
+    void nodesAreGzippedOnlyWhenAccepted() throws Exception {
+        mockMvc.perform(get("/api/map/nodes").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        mockMvc.perform(get("/api/map/nodes").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void notModifiedVariesByEncoding() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/map/nodes").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(Collections.singletonList(HttpHeaders.ACCEPT_ENCODING),
+                first.getResponse().getHeaders(HttpHeaders.VARY));
+
+        MvcResult revalidated = mockMvc.perform(get("/api/map/nodes")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, revalidated.getResponse().getHeader(HttpHeaders.VARY));
+        assertNull(revalidated.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+}
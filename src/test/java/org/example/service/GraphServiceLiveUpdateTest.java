@@ -0,0 +1,152 @@
+package org.example.service;
+
+import org.example.Model.CompactGraph;
+import org.example.Model.DijkstraEngine;
+import org.example.Model.Route;
+import org.example.Model.RoutingAlgorithm;
+import org.example.dto.EdgeUpdateDTO;
+import org.example.dto.RouteSegmentDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"routing.cache.max-entries=100000", "routing.cache.ttl-seconds=0"})
+class GraphServiceLiveUpdateTest {
+    // Segment times are floats
+    private static final double EPSILON = 1e-3;
+
+    @Autowired
+    private GraphService graphService;
+
+    private final List<EdgeUpdateDTO> restore = new ArrayList<>();
+
+    @AfterEach
+    void restoreFeedTimes() {
+        if (!restore.isEmpty()) {
+            graphService.applyEdgeUpdates(restore);
+            restore.clear();
+        }
+    }
+
+    @Test
+    void cachedRoutesStayFastestAfterUpdates() {
+        Random random = new Random(81);
+        CompactGraph graph = graphService.getCompactGraph();
+        assertAllPairsFastest();
+        for (int round = 0; round < 10; round++) {
+            List<EdgeUpdateDTO> updates = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                int edge = random.nextInt(graph.getEdgeCount());
+                // Faster, slower or closed
+                Double time = null;
+                if (i % 3 == 0) {
+                    time = graph.getTime(edge) * 0.3;
+                } else if (i % 3 == 1) {
+                    time = graph.getTime(edge) * 3.0;
+                }
+                updates.add(update(graph, edge, time, i % 3 == 2));
+                restore.add(update(graph, edge, null, false));
+            }
+            graphService.applyEdgeUpdates(updates);
+            long hits = graphService.getRouteCacheStats().getHits();
+            assertAllPairsFastest();
+            assertTrue(graphService.getRouteCacheStats().getHits() > hits, "no cached route survived round " + round);
+        }
+    }
+
+    @Test
+    void closingAnEdgeWhileRoutesAreReadNeverServesIt() throws InterruptedException {
+        CompactGraph graph = graphService.getCompactGraph();
+        int edge = busiestEdge(graph);
+        restore.add(update(graph, edge, null, false));
+        AtomicBoolean running = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            int offset = r;
+            Thread reader = new Thread(() -> {
+                int n = graph.getNodeCount();
+                for (int i = offset; running.get(); i += 7) {
+                    String from = graph.getId(i % n);
+                    String to = graph.getId((i / n + i) % n);
+                    for (RouteSegmentDTO segment : graphService.findShortestPath(from, to)) {
+                        if (!Double.isFinite(segment.getTime())) {
+                            failures.add(from + " -> " + to + " through " + segment.getFromNode().getId()
+                                    + " -> " + segment.getToNode().getId());
+                        }
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        for (int i = 0; i < 200; i++) {
+            graphService.applyEdgeUpdates(Collections.singletonList(update(graph, edge, null, i % 2 == 0)));
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertTrue(failures.isEmpty(), failures.size() + " routes through the closed edge, e.g. " + failures.peek());
+    }
+
+    /**
+     * Every pair is asked for through the cache and compared with a search on the current graph.
+     */
+    private void assertAllPairsFastest() {
+        CompactGraph graph = graphService.getCompactGraph();
+        DijkstraEngine dijkstra = new DijkstraEngine(graph);
+        for (int source = 0; source < graph.getNodeCount(); source++) {
+            for (int target = 0; target < graph.getNodeCount(); target++) {
+                Route expected = dijkstra.findRoute(source, target);
+                List<RouteSegmentDTO> segments = graphService.findShortestPath(graph.getId(source),
+                        graph.getId(target), RoutingAlgorithm.DIJKSTRA);
+                double time = 0.0;
+                for (RouteSegmentDTO segment : segments) {
+                    time += segment.getTime();
+                }
+                if (expected.isFound() && source != target) {
+                    assertEquals(expected.getTotalTime(), time, EPSILON, source + " -> " + target);
+                } else {
+                    assertTrue(segments.isEmpty(), source + " -> " + target);
+                }
+            }
+        }
+    }
+
+    private static int busiestEdge(CompactGraph graph) {
+        DijkstraEngine dijkstra = new DijkstraEngine(graph);
+        int[] uses = new int[graph.getEdgeCount()];
+        for (int source = 0; source < graph.getNodeCount(); source++) {
+            for (int target = 0; target < graph.getNodeCount(); target++) {
+                for (int edge : dijkstra.findRoute(source, target).getEdges()) {
+                    uses[edge]++;
+                }
+            }
+        }
+        int busiest = 0;
+        for (int e = 1; e < uses.length; e++) {
+            if (uses[e] > uses[busiest]) {
+                busiest = e;
+            }
+        }
+        return busiest;
+    }
+
+    private static EdgeUpdateDTO update(CompactGraph graph, int edge, Double time, boolean closed) {
+        return new EdgeUpdateDTO(graph.getId(graph.getEdgeSource(edge)), graph.getId(graph.getTarget(edge)),
+                graph.getMode(edge).getLabel(), time, closed);
+    }
+}
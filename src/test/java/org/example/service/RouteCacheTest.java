@@ -0,0 +1,80 @@
+package org.example.service;
+
+import org.example.Model.RoutingAlgorithm;
+import org.example.Model.TransportMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RouteCacheTest {
+
+    @Test
+    void servesEntriesOnlyToTheirVersion() {
+        RouteCache cache = new RouteCache(100, 0);
+        RouteCache.Key key = key(1, 2);
+        cache.put(key, 3, new int[]{7, 8});
+        assertArrayEquals(new int[]{7, 8}, cache.get(key, 3));
+        assertNull(cache.get(key, 2));
+        assertNull(cache.get(key, 4));
+    }
+
+    @Test
+    void keepsTheLaterVersionOnConcurrentPuts() {
+        RouteCache cache = new RouteCache(100, 0);
+        RouteCache.Key key = key(1, 2);
+        cache.put(key, 4, new int[]{1});
+        // A reader still on version 3 finishing after one on version 4
+        cache.put(key, 3, new int[]{2});
+        assertArrayEquals(new int[]{1}, cache.get(key, 4));
+        cache.put(key, 5, new int[]{3});
+        assertArrayEquals(new int[]{3}, cache.get(key, 5));
+    }
+
+    @Test
+    void invalidationCarriesSurvivorsToTheNextVersion() {
+        RouteCache cache = new RouteCache(100, 0);
+        cache.put(key(1, 2), 3, new int[]{1});
+        cache.put(key(1, 3), 3, new int[]{2});
+        cache.put(key(1, 4), 2, new int[]{3});
+        cache.put(key(1, 5), 4, new int[]{4});
+        List<RouteCache.Key> checked = new ArrayList<>();
+
+        int removed = cache.invalidateIf((key, edges) -> {
+            checked.add(key);
+            return edges[0] == 2;
+        }, 3, 4);
+
+        // Only entries of the version checked against are passed to the predicate
+        assertEquals(2, checked.size());
+        assertEquals(2, removed);
+        assertArrayEquals(new int[]{1}, cache.get(key(1, 2), 4));
+        assertNull(cache.get(key(1, 2), 3));
+        assertNull(cache.get(key(1, 3), 4));
+        assertNull(cache.get(key(1, 4), 4));
+        assertArrayEquals(new int[]{4}, cache.get(key(1, 5), 4));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void keepsEntriesReplacedWhileTheyAreChecked() {
+        RouteCache cache = new RouteCache(100, 0);
+        RouteCache.Key key = key(1, 2);
+        cache.put(key, 3, new int[]{1});
+        // The predicate runs outside the stripe lock, so a reader of the new version may cache its route meanwhile
+        int removed = cache.invalidateIf((checked, edges) -> {
+            cache.put(checked, 4, new int[]{2});
+            return true;
+        }, 3, 4);
+        assertEquals(0, removed);
+        assertArrayEquals(new int[]{2}, cache.get(key, 4));
+    }
+
+    private static RouteCache.Key key(int source, int target) {
+        return new RouteCache.Key(source, target, RoutingAlgorithm.DIJKSTRA, TransportMode.ALL_BITS);
+    }
+}